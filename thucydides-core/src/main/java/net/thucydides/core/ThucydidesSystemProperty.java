@@ -54,7 +54,81 @@ public enum ThucydidesSystemProperty {
     /**
      * Use the same browser for all tests (the "Highlander" rule)
      */
-    UNIQUE_BROWSER("thucydides.use.unique.browser");
+    UNIQUE_BROWSER("thucydides.use.unique.browser"),
+
+    /**
+     * Wake up waiting page objects as soon as the DOM changes, rather than only polling the browser.
+     * Only used for drivers that support JavaScript.
+     */
+    WAIT_FOR_DOM_CHANGES("thucydides.wait.for.dom.changes"),
+
+    /**
+     * How long (in ms) page objects and web elements should wait for something to appear on a page.
+     */
+    WAIT_FOR_TIMEOUT("thucydides.wait.for.timeout"),
+
+    /**
+     * The maximum total time (in ms) a test can spend waiting for pages. Once this is used up,
+     * waits fail after checking the page once. No limit by default.
+     */
+    TEST_WAIT_BUDGET("thucydides.wait.budget.per.test"),
+
+    /**
+     * The maximum total time (in ms) a single step can spend waiting for pages. No limit by default.
+     */
+    STEP_WAIT_BUDGET("thucydides.wait.budget.per.step"),
+
+    /**
+     * Write the run metrics (step, screenshot, driver startup, report generation and wait times) to this file,
+     * in the Prometheus text format. Relative paths are in the output directory.
+     */
+    METRICS_FILE("thucydides.metrics.file"),
+
+    /**
+     * Publish the run metrics over JMX while the tests are running.
+     */
+    METRICS_JMX("thucydides.metrics.jmx"),
+
+    /**
+     * Run the rows of data-driven steps in parallel, using this many browsers. Rows are run one after
+     * the other in the test's own browser by default.
+     */
+    DATA_DRIVEN_THREADS("thucydides.data.driven.threads"),
+
+    /**
+     * Parse each CSV test data file once and keep the rows in memory, rather than reading the file one row
+     * at a time each time it is used. Worth it for small files used by many tests.
+     */
+    TEST_DATA_CACHE("thucydides.test.data.cache"),
+
+    /**
+     * Keep parsed test data files in this directory, so they are only parsed once even when
+     * the tests are run in several forked JVMs. Setting this also turns on the test data cache.
+     */
+    TEST_DATA_CACHE_DIR("thucydides.test.data.cache.dir"),
+
+    /**
+     * Split the rows of data-driven tests into this many shards, e.g. to run them on several build agents.
+     */
+    DATA_SHARD_COUNT("thucydides.data.shard.count"),
+
+    /**
+     * Which shard of the data-driven test rows to run in this JVM, counting from 0.
+     */
+    DATA_SHARD_INDEX("thucydides.data.shard.index"),
+
+    /**
+     * How many browsers this machine can drive at the same time.
+     * Parallel data-driven tests never use more threads than this.
+     */
+    BROWSER_SLOTS("thucydides.browser.slots"),
+
+    /**
+     * Where to keep the durations and results of previous test runs. Relative paths are in the output directory.
+     * The history is always kept, in test-history.properties in the output directory by default. It is
+     * updated once per test class, or once for all the rows of a data-driven test.
+     */
+    TEST_HISTORY_FILE("thucydides.test.history.file");
 
     private String propertyName;
 
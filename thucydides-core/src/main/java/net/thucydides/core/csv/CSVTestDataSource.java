@@ -6,17 +6,13 @@ import net.thucydides.core.steps.StepFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Test data from a CSV file.
@@ -38,19 +34,7 @@ public class CSVTestDataSource implements TestDataSource {
     }    
     
     private Reader getDataFileFor(final String path) throws FileNotFoundException {
-        if (isAClasspathResource(path)) {
-            return new InputStreamReader(getClass().getClassLoader().getResourceAsStream(path));
-        }
-        return new FileReader(new File(path));
-    }
-
-    private boolean isAClasspathResource(final String path) {
-        return (!validFileSystemPath(path));
-    }
-
-    private boolean validFileSystemPath(final String path) {
-        File file = new File(path);
-        return file.exists();
+        return TestDataFiles.readerFor(path);
     }
 
     protected List<Map<String, String>> loadTestDataFrom(final Reader testDataReader) throws IOException {
@@ -130,17 +114,7 @@ public class CSVTestDataSource implements TestDataSource {
     private <T> void assignPropertiesFromTestData(final Class<T> clazz,
                                                   final Map<String, String> rowData,
                                                   final T newObject) {
-        Set<String> propertyNames = rowData.keySet();
-
-        boolean validPropertyFound = false;
-        for (String columnHeading : propertyNames) {
-            String value = rowData.get(columnHeading);
-            String property = FieldName.from(columnHeading).inNormalizedForm();
-
-            if (assignPropertyValue(newObject, property, value)) {
-                validPropertyFound = true;
-            }
-        }
+        boolean validPropertyFound = PropertyBinder.forClass(newObject.getClass()).assignValues(newObject, rowData);
         if (!validPropertyFound) {
             throw new FailedToInitializeTestData("No properties or public fields matching the data columns were found "
                                                  + "or could be assigned for the class " + clazz.getName()
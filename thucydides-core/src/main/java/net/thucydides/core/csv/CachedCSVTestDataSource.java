@@ -0,0 +1,29 @@
+package net.thucydides.core.csv;
+
+import au.com.bytecode.opencsv.CSVReader;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Test data from a CSV file, parsed once and shared with any other data source using the same data.
+ * The whole file is parsed up front and the rows are kept in memory (see TestDataCache), so very large
+ * files are better read with a StreamingCSVTestDataSource.
+ */
+public class CachedCSVTestDataSource extends RowBasedTestDataSource {
+
+    private final ParsedTestData parsedTestData;
+
+    public CachedCSVTestDataSource(final String path, final char separatorValue) throws IOException {
+        this.parsedTestData = TestDataCache.parsedTestDataFrom(path, separatorValue);
+    }
+
+    public CachedCSVTestDataSource(final String path) throws IOException {
+        this(path, CSVReader.DEFAULT_SEPARATOR);
+    }
+
+    @Override
+    public Iterator<TestDataRow> iterator() {
+        return parsedTestData.iterator();
+    }
+}
@@ -0,0 +1,95 @@
+package net.thucydides.core.csv;
+
+import flexjson.JSONDeserializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Test data from a JSON Lines file, read one row at a time.
+ * Each line is a JSON object whose fields are the values of one row, e.g. {"name":"Bill","age":42}.
+ * Field names are used as property names as they are, unless they contain spaces, in which case they are
+ * converted in the same way as CSV column headings. Rows do not need to have the same fields.
+ */
+public class JsonLinesTestDataSource extends LineBasedTestDataSource {
+
+    public JsonLinesTestDataSource(final String path) throws IOException {
+        super(path);
+    }
+
+    @Override
+    LineParser newLineParser() {
+        return new LineParser() {
+            private TestDataRow.ColumnIndex columnIndex = new TestDataRow.ColumnIndex(new String[0], new String[0]);
+
+            public TestDataRow parse(final String line) {
+                Map<String, Object> fields = parseObjectIn(line);
+                columnIndex = columnIndexIncluding(columnIndex, fields);
+                String[] values = new String[columnIndex.size()];
+                for (Map.Entry<String, Object> field : fields.entrySet()) {
+                    if (field.getValue() != null) {
+                        values[columnIndex.columnCalled(field.getKey())] = field.getValue().toString();
+                    }
+                }
+                return new TestDataRow(columnIndex, values);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> parseObjectIn(final String line) {
+        try {
+            Object parsedLine = new JSONDeserializer<Object>().deserialize(line);
+            if (parsedLine instanceof Map) {
+                return (Map<String, Object>) parsedLine;
+            }
+        } catch (RuntimeException e) {
+            throw new FailedToInitializeTestData("Invalid JSON test data in " + getPath() + ": " + line, e);
+        }
+        throw new FailedToInitializeTestData("Each line of " + getPath() + " should be a JSON object: " + line);
+    }
+
+    /**
+     * Rows usually have the same fields, so the same column index can be shared by most rows.
+     */
+    private static TestDataRow.ColumnIndex columnIndexIncluding(final TestDataRow.ColumnIndex columnIndex,
+                                                                final Map<String, Object> fields) {
+        int newFieldCount = 0;
+        for (String field : fields.keySet()) {
+            if (columnIndex.columnCalled(field) == null) {
+                newFieldCount++;
+            }
+        }
+        if (newFieldCount == 0) {
+            return columnIndex;
+        }
+        String[] titles = Arrays.copyOf(titlesIn(columnIndex), columnIndex.size() + newFieldCount);
+        String[] propertyNames = new String[titles.length];
+        int column = columnIndex.size();
+        for (String field : fields.keySet()) {
+            if (columnIndex.columnCalled(field) == null) {
+                titles[column++] = field;
+            }
+        }
+        for (column = 0; column < titles.length; column++) {
+            propertyNames[column] = propertyNameFor(titles[column]);
+        }
+        return new TestDataRow.ColumnIndex(titles, propertyNames);
+    }
+
+    private static String[] titlesIn(final TestDataRow.ColumnIndex columnIndex) {
+        String[] titles = new String[columnIndex.size()];
+        for (int column = 0; column < titles.length; column++) {
+            titles[column] = columnIndex.getTitle(column);
+        }
+        return titles;
+    }
+
+    private static String propertyNameFor(final String field) {
+        if (field.trim().contains(" ")) {
+            return FieldName.from(field).inNormalizedForm();
+        }
+        return field.trim();
+    }
+}
@@ -0,0 +1,97 @@
+package net.thucydides.core.csv;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Test data stored with one row per line, read one line at a time.
+ * Blank lines are ignored.
+ */
+public abstract class LineBasedTestDataSource extends RowBasedTestDataSource {
+
+    private final String path;
+
+    /**
+     * Turns the lines of one pass through the file into rows. A new parser is used for each pass.
+     */
+    interface LineParser {
+        /**
+         * @return the row read from this line, or null if the line does not contain a row (e.g. a heading line).
+         */
+        TestDataRow parse(String line);
+    }
+
+    protected LineBasedTestDataSource(final String path) throws IOException {
+        if (!TestDataFiles.exists(path)) {
+            throw new FileNotFoundException("Test data not found on the file system or the classpath: " + path);
+        }
+        this.path = path;
+    }
+
+    abstract LineParser newLineParser();
+
+    protected String getPath() {
+        return path;
+    }
+
+    /**
+     * Each iterator reads the file again from the start. The file is closed once the last row has been read.
+     */
+    public Iterator<TestDataRow> iterator() {
+        try {
+            return new RowIterator(new BufferedReader(TestDataFiles.readerFor(path)), newLineParser());
+        } catch (IOException e) {
+            throw new FailedToInitializeTestData("Could not read test data from " + path, e);
+        }
+    }
+
+    private final class RowIterator implements Iterator<TestDataRow> {
+        private final BufferedReader reader;
+        private final LineParser parser;
+        private TestDataRow nextRow;
+
+        private RowIterator(final BufferedReader reader, final LineParser parser) {
+            this.reader = reader;
+            this.parser = parser;
+            this.nextRow = readNextRow();
+        }
+
+        public boolean hasNext() {
+            return (nextRow != null);
+        }
+
+        public TestDataRow next() {
+            if (nextRow == null) {
+                throw new NoSuchElementException();
+            }
+            TestDataRow row = nextRow;
+            nextRow = readNextRow();
+            return row;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private TestDataRow readNextRow() {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.trim().length() > 0) {
+                        TestDataRow row = parser.parse(line);
+                        if (row != null) {
+                            return row;
+                        }
+                    }
+                }
+                reader.close();
+                return null;
+            } catch (IOException e) {
+                throw new FailedToInitializeTestData("Could not read test data from " + path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package net.thucydides.core.csv;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The rows of a test data file, once they have been parsed.
+ * Parsed test data is shared between data sources (and possibly test runs), so it is never modified.
+ */
+class ParsedTestData implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] titleRow;
+    private final List<String[]> dataRows;
+    private transient TestDataRow.ColumnIndex columnIndex;
+
+    ParsedTestData(final String[] titleRow, final List<String[]> dataRows) {
+        this.titleRow = titleRow;
+        this.dataRows = dataRows;
+    }
+
+    int size() {
+        return dataRows.size();
+    }
+
+    Iterator<TestDataRow> iterator() {
+        final TestDataRow.ColumnIndex columns = getColumnIndex();
+        final Iterator<String[]> rows = dataRows.iterator();
+        return new Iterator<TestDataRow>() {
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            public TestDataRow next() {
+                return new TestDataRow(columns, rows.next());
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private synchronized TestDataRow.ColumnIndex getColumnIndex() {
+        if (columnIndex == null) {
+            columnIndex = new TestDataRow.ColumnIndex(titleRow);
+        }
+        return columnIndex;
+    }
+}
@@ -0,0 +1,179 @@
+package net.thucydides.core.csv;
+
+import com.google.common.collect.MapMaker;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Assigns test data values to the properties of a class.
+ * Like the InstanceBuilder, values are assigned using a setter if there is one, or a public field otherwise.
+ * The setters and fields are only looked up once per class, and the column headings are only converted to
+ * property names once per class, so populating a large number of beans only costs one reflective call per value.
+ */
+public final class PropertyBinder {
+
+    /**
+     * Binders hold setters and fields of the bean class, so they are soft references; with strong values
+     * the weak keys would never be cleared.
+     */
+    private static final ConcurrentMap<Class<?>, PropertyBinder> BINDERS
+            = new MapMaker().weakKeys().softValues().makeMap();
+
+    /**
+     * Assigns a value to one property of a bean.
+     */
+    interface PropertyWriter {
+        /**
+         * @return false if the value could not be assigned.
+         */
+        boolean write(Object bean, String value);
+    }
+
+    private static final PropertyWriter NO_WRITER = new PropertyWriter() {
+        public boolean write(final Object bean, final String value) {
+            return false;
+        }
+    };
+
+    private final Map<String, PropertyWriter> writersByProperty;
+    private final ConcurrentMap<String, PropertyWriter> writersByHeading
+            = new ConcurrentHashMap<String, PropertyWriter>();
+
+    private PropertyBinder(final Class<?> beanClass) {
+        this.writersByProperty = findWritersIn(beanClass);
+    }
+
+    /**
+     * Use the class of the bean itself (e.g. a step library proxy) rather than the declared class,
+     * so that the same properties are found as when the bean is introspected directly.
+     */
+    public static PropertyBinder forClass(final Class<?> beanClass) {
+        PropertyBinder binder = BINDERS.get(beanClass);
+        if (binder == null) {
+            binder = new PropertyBinder(beanClass);
+            PropertyBinder existingBinder = BINDERS.putIfAbsent(beanClass, binder);
+            if (existingBinder != null) {
+                binder = existingBinder;
+            }
+        }
+        return binder;
+    }
+
+    /**
+     * Assign each value to the property matching its column heading.
+     * @return true if at least one value was assigned.
+     */
+    public boolean assignValues(final Object bean, final Map<String, String> rowData) {
+        boolean valueAssigned = false;
+        for (Map.Entry<String, String> column : rowData.entrySet()) {
+            if (writerForHeading(column.getKey()).write(bean, column.getValue())) {
+                valueAssigned = true;
+            }
+        }
+        return valueAssigned;
+    }
+
+    /**
+     * The writers for each column of a data source, in column order.
+     */
+    PropertyWriter[] writersFor(final TestDataRow.ColumnIndex columns) {
+        PropertyWriter[] writers = new PropertyWriter[columns.size()];
+        for (int column = 0; column < columns.size(); column++) {
+            writers[column] = writerForProperty(columns.getPropertyName(column));
+        }
+        return writers;
+    }
+
+    PropertyWriter writerForHeading(final String columnHeading) {
+        PropertyWriter writer = writersByHeading.get(columnHeading);
+        if (writer == null) {
+            writer = writerForProperty(FieldName.from(columnHeading).inNormalizedForm());
+            writersByHeading.putIfAbsent(columnHeading, writer);
+        }
+        return writer;
+    }
+
+    PropertyWriter writerForProperty(final String property) {
+        PropertyWriter writer = writersByProperty.get(property);
+        return (writer != null) ? writer : NO_WRITER;
+    }
+
+    private static Map<String, PropertyWriter> findWritersIn(final Class<?> beanClass) {
+        Map<String, PropertyWriter> writers = new HashMap<String, PropertyWriter>();
+        for (Field field : beanClass.getFields()) {
+            if (!writers.containsKey(field.getName())) {
+                writers.put(field.getName(), new FieldWriter(field));
+            }
+        }
+        for (PropertyDescriptor property : propertiesOf(beanClass)) {
+            if (property.getWriteMethod() != null) {
+                writers.put(property.getName(), new SetterWriter(property.getWriteMethod()));
+            }
+        }
+        return writers;
+    }
+
+    private static PropertyDescriptor[] propertiesOf(final Class<?> beanClass) {
+        try {
+            BeanInfo beanInfo = Introspector.getBeanInfo(beanClass);
+            return beanInfo.getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            throw new FailedToInitializeTestData("Could not find the properties of " + beanClass, e);
+        }
+    }
+
+    private static final class SetterWriter implements PropertyWriter {
+        private final Method setter;
+
+        private SetterWriter(final Method setter) {
+            this.setter = setter;
+            makeAccessible(setter);
+        }
+
+        public boolean write(final Object bean, final String value) {
+            try {
+                setter.invoke(bean, value);
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+
+    private static final class FieldWriter implements PropertyWriter {
+        private final Field field;
+
+        private FieldWriter(final Field field) {
+            this.field = field;
+        }
+
+        public boolean write(final Object bean, final String value) {
+            try {
+                field.set(bean, value);
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Public setters of classes that are not public themselves can only be called once they are made accessible.
+     */
+    private static void makeAccessible(final Method setter) {
+        try {
+            setter.setAccessible(true);
+        } catch (SecurityException e) {
+            // Fall back on normal access checks
+        }
+    }
+}
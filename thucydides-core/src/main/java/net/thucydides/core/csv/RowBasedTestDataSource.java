@@ -0,0 +1,117 @@
+package net.thucydides.core.csv;
+
+import net.thucydides.core.steps.ScenarioSteps;
+import net.thucydides.core.steps.StepFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test data that can be read one row at a time, whatever format it is stored in.
+ * Subclasses only need to read the rows: the rows are turned into beans or step libraries here,
+ * using the property binder for the bean class and the columns of the data.
+ */
+public abstract class RowBasedTestDataSource implements TestDataSource, Iterable<TestDataRow> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RowBasedTestDataSource.class);
+
+    /**
+     * Each iterator reads the test data again from the start.
+     */
+    public abstract Iterator<TestDataRow> iterator();
+
+    /**
+     * The test data as JavaBean instances, each instance only being created when it is needed.
+     */
+    public <T> Iterator<T> instancesOf(final Class<T> clazz, final Object... constructorArgs) {
+        final Iterator<TestDataRow> rows = iterator();
+        final RowBinder binder = new RowBinder();
+        return new Iterator<T>() {
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            public T next() {
+                T newObject = createNewInstanceOf(clazz, constructorArgs);
+                binder.assignPropertiesFromTestData(clazz, rows.next(), newObject);
+                return newObject;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    public List<Map<String, String>> getData() {
+        List<Map<String, String>> loadedData = new ArrayList<Map<String, String>>();
+        for (TestDataRow row : this) {
+            loadedData.add(row.toMap());
+        }
+        return loadedData;
+    }
+
+    public <T> List<T> getDataAsInstancesOf(final Class<T> clazz, final Object... constructorArgs) {
+        List<T> resultsList = new ArrayList<T>();
+        Iterator<T> instances = instancesOf(clazz, constructorArgs);
+        while (instances.hasNext()) {
+            resultsList.add(instances.next());
+        }
+        return resultsList;
+    }
+
+    public <T extends ScenarioSteps> List<T> getInstanciatedInstancesFrom(final Class<T> clazz,
+                                                                          final StepFactory factory) {
+        List<T> resultsList = new ArrayList<T>();
+        RowBinder binder = new RowBinder();
+        for (TestDataRow row : this) {
+            T newObject = factory.newSteps(clazz);
+            binder.assignPropertiesFromTestData(clazz, row, newObject);
+            resultsList.add(newObject);
+        }
+        return resultsList;
+    }
+
+    private <T> T createNewInstanceOf(final Class<T> clazz, final Object... constructorArgs) {
+        try {
+            return InstanceBuilder.newInstanceOf(clazz, constructorArgs);
+        } catch (Exception e) {
+            LOGGER.error("Could not create test data bean", e);
+            throw new FailedToInitializeTestData("Could not create test data beans", e);
+        }
+    }
+
+    /**
+     * Assigns the values in each row using the writers found for the bean class and the columns of the data,
+     * which only need to be found again if the columns change.
+     */
+    private static final class RowBinder {
+        private Class<?> beanClass;
+        private TestDataRow.ColumnIndex columns;
+        private PropertyBinder.PropertyWriter[] writers;
+
+        <T> void assignPropertiesFromTestData(final Class<T> clazz, final TestDataRow row, final T newObject) {
+            if ((newObject.getClass() != beanClass) || (row.getColumnIndex() != columns)) {
+                beanClass = newObject.getClass();
+                columns = row.getColumnIndex();
+                writers = PropertyBinder.forClass(beanClass).writersFor(columns);
+            }
+            boolean validPropertyFound = false;
+            for (int column = 0; column < writers.length; column++) {
+                String value = row.valueIn(column);
+                if ((value != null) && writers[column].write(newObject, value)) {
+                    validPropertyFound = true;
+                }
+            }
+            if (!validPropertyFound) {
+                throw new FailedToInitializeTestData("No properties or public fields matching the data columns were found "
+                                                     + "or could be assigned for the class " + clazz.getName()
+                                                     + "using test data: " + row.toMap());
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package net.thucydides.core.csv;
+
+import au.com.bytecode.opencsv.CSVReader;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Test data from a CSV file, read one row at a time.
+ * Unlike the CSVTestDataSource, nothing is loaded up front: the file is read as the rows are used,
+ * so the first rows of a large file can be used before the rest of it has been read.
+ * The column headings are only processed once, and are shared by all the rows.
+ */
+public class StreamingCSVTestDataSource extends RowBasedTestDataSource {
+
+    private final String path;
+    private final char separator;
+
+    public StreamingCSVTestDataSource(final String path, final char separatorValue) throws IOException {
+        if (!TestDataFiles.exists(path)) {
+            throw new FileNotFoundException("Test data not found on the file system or the classpath: " + path);
+        }
+        this.path = path;
+        this.separator = separatorValue;
+    }
+
+    public StreamingCSVTestDataSource(final String path) throws IOException {
+        this(path, CSVReader.DEFAULT_SEPARATOR);
+    }
+
+    /**
+     * Each iterator reads the file again from the start. The file is closed once the last row has been read.
+     */
+    public Iterator<TestDataRow> iterator() {
+        try {
+            return new RowIterator(new CSVReader(TestDataFiles.readerFor(path), separator));
+        } catch (IOException e) {
+            throw new FailedToInitializeTestData("Could not read test data from " + path, e);
+        }
+    }
+
+    /**
+     * Reads the heading row straight away, and each of the following rows when it is asked for.
+     */
+    private final class RowIterator implements Iterator<TestDataRow> {
+        private final CSVReader reader;
+        private final TestDataRow.ColumnIndex columnIndex;
+        private String[] nextRow;
+
+        private RowIterator(final CSVReader reader) throws IOException {
+            this.reader = reader;
+            String[] titleRow = reader.readNext();
+            if (titleRow == null) {
+                reader.close();
+                titleRow = new String[0];
+            }
+            this.columnIndex = new TestDataRow.ColumnIndex(titleRow);
+            this.nextRow = (titleRow.length == 0) ? null : readNextRow();
+        }
+
+        public boolean hasNext() {
+            return (nextRow != null);
+        }
+
+        public TestDataRow next() {
+            if (nextRow == null) {
+                throw new NoSuchElementException();
+            }
+            TestDataRow row = new TestDataRow(columnIndex, nextRow);
+            nextRow = readNextRow();
+            return row;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private String[] readNextRow() {
+            try {
+                String[] row = reader.readNext();
+                if (row == null) {
+                    reader.close();
+                }
+                return row;
+            } catch (IOException e) {
+                throw new FailedToInitializeTestData("Could not read test data from " + path, e);
+            }
+        }
+    }
+}
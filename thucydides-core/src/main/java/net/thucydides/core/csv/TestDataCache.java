@@ -0,0 +1,163 @@
+package net.thucydides.core.csv;
+
+import au.com.bytecode.opencsv.CSVReader;
+import com.google.common.collect.MapMaker;
+import net.thucydides.core.webdriver.Configuration;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps parsed test data, so that a test data file used by several tests is only parsed once.
+ * Entries are identified by a hash of the file contents (and the separator), so a modified file is
+ * always parsed again, whatever its path. Parsed data can also be kept on disk, in the directory given
+ * by the thucydides.test.data.cache.dir property, so it can be shared between forked test JVMs.
+ * The in-memory entries can be reclaimed by the garbage collector if memory runs low.
+ */
+public final class TestDataCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestDataCache.class);
+
+    private static final String CACHE_FILE_SUFFIX = ".testdata";
+
+    private static final ConcurrentMap<String, ParsedTestData> PARSED_TEST_DATA
+            = new MapMaker().softValues().makeMap();
+
+    private TestDataCache() {}
+
+    static ParsedTestData parsedTestDataFrom(final String path, final char separator) throws IOException {
+        byte[] contents = contentsOf(path);
+        String key = keyFor(contents, separator);
+
+        ParsedTestData parsedTestData = PARSED_TEST_DATA.get(key);
+        if (parsedTestData == null) {
+            parsedTestData = loadFromDiskCache(key);
+            if (parsedTestData == null) {
+                parsedTestData = parse(contents, separator);
+                saveToDiskCache(key, parsedTestData);
+            }
+            PARSED_TEST_DATA.put(key, parsedTestData);
+        }
+        return parsedTestData;
+    }
+
+    /**
+     * Forget the test data parsed in this JVM. Test data saved on disk is kept.
+     */
+    public static void clear() {
+        PARSED_TEST_DATA.clear();
+    }
+
+    private static byte[] contentsOf(final String path) throws IOException {
+        InputStream testData = TestDataFiles.inputStreamFor(path);
+        try {
+            return IOUtils.toByteArray(testData);
+        } finally {
+            IOUtils.closeQuietly(testData);
+        }
+    }
+
+    private static String keyFor(final byte[] contents, final char separator) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            digest.update(contents);
+            digest.update((byte) separator);
+            StringBuilder key = new StringBuilder();
+            for (byte digestByte : digest.digest()) {
+                key.append(String.format("%02x", digestByte));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 digests are not supported by this JVM", e);
+        }
+    }
+
+    private static ParsedTestData parse(final byte[] contents, final char separator) throws IOException {
+        CSVReader reader = new CSVReader(new InputStreamReader(new ByteArrayInputStream(contents)), separator);
+        try {
+            String[] titleRow = reader.readNext();
+            if (titleRow == null) {
+                return new ParsedTestData(new String[0], Collections.<String[]>emptyList());
+            }
+            List<String[]> dataRows = new ArrayList<String[]>();
+            String[] dataRow;
+            while ((dataRow = reader.readNext()) != null) {
+                dataRows.add(dataRow);
+            }
+            return new ParsedTestData(titleRow, Collections.unmodifiableList(dataRows));
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static File diskCacheFileFor(final String key) {
+        File cacheDirectory = Configuration.getTestDataCacheDirectory();
+        if (cacheDirectory == null) {
+            return null;
+        }
+        return new File(cacheDirectory, key + CACHE_FILE_SUFFIX);
+    }
+
+    private static ParsedTestData loadFromDiskCache(final String key) {
+        File cacheFile = diskCacheFileFor(key);
+        if ((cacheFile == null) || (!cacheFile.exists())) {
+            return null;
+        }
+        ObjectInputStream input = null;
+        try {
+            input = new ObjectInputStream(new FileInputStream(cacheFile));
+            return (ParsedTestData) input.readObject();
+        } catch (Exception e) {
+            LOGGER.debug("Could not read cached test data from " + cacheFile + ", parsing it again", e);
+            return null;
+        } finally {
+            IOUtils.closeQuietly(input);
+        }
+    }
+
+    /**
+     * The data is written to a temporary file first, so other JVMs never see a partly written entry.
+     */
+    private static void saveToDiskCache(final String key, final ParsedTestData parsedTestData) {
+        File cacheFile = diskCacheFileFor(key);
+        if (cacheFile == null) {
+            return;
+        }
+        ObjectOutputStream output = null;
+        File temporaryFile = null;
+        try {
+            cacheFile.getParentFile().mkdirs();
+            temporaryFile = File.createTempFile(key, ".tmp", cacheFile.getParentFile());
+            output = new ObjectOutputStream(new FileOutputStream(temporaryFile));
+            output.writeObject(parsedTestData);
+            output.close();
+            output = null;
+            if (!temporaryFile.renameTo(cacheFile)) {
+                temporaryFile.delete();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not save cached test data to " + cacheFile, e);
+            if (temporaryFile != null) {
+                temporaryFile.delete();
+            }
+        } finally {
+            IOUtils.closeQuietly(output);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package net.thucydides.core.csv;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+/**
+ * Test data files can be on the file system or on the classpath.
+ */
+final class TestDataFiles {
+
+    private TestDataFiles() {}
+
+    static Reader readerFor(final String path) throws FileNotFoundException {
+        return new InputStreamReader(inputStreamFor(path));
+    }
+
+    static InputStream inputStreamFor(final String path) throws FileNotFoundException {
+        if (isAClasspathResource(path)) {
+            InputStream resource = TestDataFiles.class.getClassLoader().getResourceAsStream(path);
+            if (resource == null) {
+                throw new FileNotFoundException("Test data not found on the file system or the classpath: " + path);
+            }
+            return resource;
+        }
+        return new FileInputStream(new File(path));
+    }
+
+    static boolean exists(final String path) {
+        return (!isAClasspathResource(path)) || (TestDataFiles.class.getClassLoader().getResource(path) != null);
+    }
+
+    private static boolean isAClasspathResource(final String path) {
+        return (!validFileSystemPath(path));
+    }
+
+    private static boolean validFileSystemPath(final String path) {
+        File file = new File(path);
+        return file.exists();
+    }
+}
@@ -0,0 +1,24 @@
+package net.thucydides.core.csv;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A way of storing test data, e.g. CSV files.
+ * Additional formats can be provided by listing their implementations in a
+ * META-INF/services/net.thucydides.core.csv.TestDataFormat file on the classpath.
+ */
+public interface TestDataFormat {
+
+    /**
+     * The file extensions (without the dot) of the files stored in this format.
+     */
+    List<String> getFileExtensions();
+
+    /**
+     * Open a data source for a test data file.
+     *
+     * @param separator the separator requested by the test, for formats where this makes sense.
+     */
+    TestDataSource open(String path, char separator) throws IOException;
+}
@@ -0,0 +1,96 @@
+package net.thucydides.core.csv;
+
+import net.thucydides.core.webdriver.Configuration;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the right kind of data source for a test data file, based on its file extension.
+ * CSV, TSV and JSON Lines files are supported out of the box, and CSV is used for unknown extensions.
+ * CSV files are read one row at a time, unless the test data cache is turned on
+ * (thucydides.test.data.cache or thucydides.test.data.cache.dir).
+ */
+public final class TestDataFormats {
+
+    private static final Map<String, TestDataFormat> FORMATS = new ConcurrentHashMap<String, TestDataFormat>();
+
+    public static final TestDataFormat CSV = new TestDataFormat() {
+        public List<String> getFileExtensions() {
+            return Arrays.asList("csv");
+        }
+
+        public TestDataSource open(final String path, final char separator) throws IOException {
+            if (Configuration.getTestDataCacheEnabled()) {
+                return new CachedCSVTestDataSource(path, separator);
+            }
+            return new StreamingCSVTestDataSource(path, separator);
+        }
+    };
+
+    public static final TestDataFormat TSV = new TestDataFormat() {
+        public List<String> getFileExtensions() {
+            return Arrays.asList("tsv", "tab");
+        }
+
+        public TestDataSource open(final String path, final char separator) throws IOException {
+            return new TsvTestDataSource(path);
+        }
+    };
+
+    public static final TestDataFormat JSON_LINES = new TestDataFormat() {
+        public List<String> getFileExtensions() {
+            return Arrays.asList("jsonl", "ndjson");
+        }
+
+        public TestDataSource open(final String path, final char separator) throws IOException {
+            return new JsonLinesTestDataSource(path);
+        }
+    };
+
+    static {
+        register(CSV);
+        register(TSV);
+        register(JSON_LINES);
+        for (TestDataFormat format : ServiceLoader.load(TestDataFormat.class)) {
+            register(format);
+        }
+    }
+
+    private TestDataFormats() {}
+
+    /**
+     * Use this format for files with any of its file extensions, replacing any format previously used for them.
+     */
+    public static void register(final TestDataFormat format) {
+        for (String extension : format.getFileExtensions()) {
+            FORMATS.put(extension.toLowerCase(Locale.ENGLISH), format);
+        }
+    }
+
+    public static TestDataFormat formatFor(final String path) {
+        TestDataFormat format = FORMATS.get(extensionOf(path));
+        return (format != null) ? format : CSV;
+    }
+
+    /**
+     * Open a data source for a test data file, using the format matching its file extension.
+     */
+    public static TestDataSource open(final String path, final char separator) throws IOException {
+        return formatFor(path).open(path, separator);
+    }
+
+    private static String extensionOf(final String path) {
+        String fileName = path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1);
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        return fileName.substring(dot + 1).toLowerCase(Locale.ENGLISH);
+    }
+}
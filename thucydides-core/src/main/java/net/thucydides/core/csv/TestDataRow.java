@@ -0,0 +1,102 @@
+package net.thucydides.core.csv;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One row of test data.
+ * The column headings are indexed once per data source and shared by all of its rows,
+ * so a row is little more than the values that were read.
+ */
+public class TestDataRow {
+
+    /**
+     * The column headings of a data source, along with the property names they map to.
+     */
+    static class ColumnIndex {
+        private final String[] titles;
+        private final String[] propertyNames;
+        private final Map<String, Integer> columns = new HashMap<String, Integer>();
+
+        ColumnIndex(final String[] titleRow) {
+            titles = new String[titleRow.length];
+            propertyNames = new String[titleRow.length];
+            for (int column = 0; column < titleRow.length; column++) {
+                titles[column] = titleRow[column].trim();
+                propertyNames[column] = FieldName.from(titles[column]).inNormalizedForm();
+                columns.put(titles[column], column);
+            }
+        }
+
+        /**
+         * For formats where the column titles are not always converted to property names in the same way.
+         */
+        ColumnIndex(final String[] titles, final String[] propertyNames) {
+            this.titles = titles;
+            this.propertyNames = propertyNames;
+            for (int column = 0; column < titles.length; column++) {
+                columns.put(titles[column], column);
+            }
+        }
+
+        int size() {
+            return titles.length;
+        }
+
+        String getTitle(final int column) {
+            return titles[column];
+        }
+
+        String getPropertyName(final int column) {
+            return propertyNames[column];
+        }
+
+        Integer columnCalled(final String title) {
+            return columns.get(title);
+        }
+    }
+
+    private final ColumnIndex columnIndex;
+    private final String[] values;
+
+    TestDataRow(final ColumnIndex columnIndex, final String[] values) {
+        this.columnIndex = columnIndex;
+        this.values = values;
+    }
+
+    /**
+     * The value in the column with this heading, or null if this row has no value for it.
+     */
+    public String get(final String columnTitle) {
+        Integer column = columnIndex.columnCalled(columnTitle);
+        if (column == null) {
+            return null;
+        }
+        return valueIn(column);
+    }
+
+    /**
+     * Rows can be shorter than the heading row, in which case the missing values are null.
+     */
+    String valueIn(final int column) {
+        if ((column < values.length) && (values[column] != null)) {
+            return values[column].trim();
+        }
+        return null;
+    }
+
+    ColumnIndex getColumnIndex() {
+        return columnIndex;
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> dataset = new HashMap<String, String>();
+        for (int column = 0; column < columnIndex.size(); column++) {
+            String value = valueIn(column);
+            if (value != null) {
+                dataset.put(columnIndex.getTitle(column), value);
+            }
+        }
+        return dataset;
+    }
+}
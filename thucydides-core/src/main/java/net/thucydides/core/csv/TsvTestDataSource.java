@@ -0,0 +1,46 @@
+package net.thucydides.core.csv;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test data from a tab-separated file, read one row at a time.
+ * The first line contains the column headings. Values are separated by tabs and are not quoted,
+ * so they cannot contain tabs or line breaks, but each line can be split without any parsing.
+ */
+public class TsvTestDataSource extends LineBasedTestDataSource {
+
+    private static final char TAB = '\t';
+
+    public TsvTestDataSource(final String path) throws IOException {
+        super(path);
+    }
+
+    @Override
+    LineParser newLineParser() {
+        return new LineParser() {
+            private TestDataRow.ColumnIndex columnIndex;
+
+            public TestDataRow parse(final String line) {
+                if (columnIndex == null) {
+                    columnIndex = new TestDataRow.ColumnIndex(split(line));
+                    return null;
+                }
+                return new TestDataRow(columnIndex, split(line));
+            }
+        };
+    }
+
+    static String[] split(final String line) {
+        List<String> values = new ArrayList<String>();
+        int start = 0;
+        int tab;
+        while ((tab = line.indexOf(TAB, start)) >= 0) {
+            values.add(line.substring(start, tab));
+            start = tab + 1;
+        }
+        values.add(line.substring(start));
+        return values.toArray(new String[values.size()]);
+    }
+}
@@ -0,0 +1,277 @@
+package net.thucydides.core.history;
+
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.webdriver.Configuration;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static net.thucydides.core.model.ReportNamer.ReportType.ROOT;
+
+/**
+ * Remembers how long each test took and whether it passed, over the last few runs.
+ * The history is kept in a small properties file, which is updated at the end of each test class. Updates
+ * are merged with what is already in the file, and the file is locked while it is updated, so several
+ * threads or forked JVMs can share the same history. Schedulers can use it to start the longest or the most
+ * recently failing tests first.
+ * <p/>
+ * Tests are identified by their report name (e.g. "my_story_my_test_a_1" for a row of a data-driven test),
+ * so each row of a data-driven test has its own history.
+ */
+public class TestHistory {
+
+    /**
+     * How many results are remembered for each test.
+     */
+    static final int REMEMBERED_RESULTS = 10;
+
+    private static final char PASSED = 'P';
+    private static final char FAILED = 'F';
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestHistory.class);
+
+    /**
+     * File locks are held by the whole JVM, so threads in the same JVM also need to take turns.
+     */
+    private static final Object UPDATE_LOCK = new Object();
+
+    private final File historyFile;
+    private Map<String, HistoryEntry> entries;
+
+    public TestHistory(final File historyFile) {
+        this.historyFile = historyFile;
+    }
+
+    /**
+     * The history configured in the thucydides.test.history.file property. Relative paths are resolved
+     * against the output directory.
+     */
+    public static TestHistory inOutputDirectory(final File outputDirectory) {
+        File historyFile = new File(Configuration.getTestHistoryFile());
+        if (!historyFile.isAbsolute()) {
+            historyFile = new File(outputDirectory, Configuration.getTestHistoryFile());
+        }
+        return new TestHistory(historyFile);
+    }
+
+    public static String testNameFor(final TestOutcome testOutcome, final String qualifier) {
+        return testOutcome.getReportName(ROOT, qualifier);
+    }
+
+    /**
+     * The name a test will be recorded under, before it has been run. Like the step listener, this uses the
+     * story given in the test class's @Story annotation, or the test class itself if there is none.
+     */
+    public static String testNameFor(final Class<?> testClass, final String methodName, final String qualifier) {
+        Class<?> storyClass = Story.testedInTestCase(testClass);
+        Story story = Story.from((storyClass != null) ? storyClass : testClass);
+        return testNameFor(TestOutcome.forTestInStory(methodName, story, testClass), qualifier);
+    }
+
+    /**
+     * How long the test took the last time it was run, in milliseconds, or null if it has never been run.
+     */
+    public synchronized Long getDurationOf(final String testName) {
+        HistoryEntry entry = getEntries().get(testName);
+        return (entry == null) ? null : entry.getDuration();
+    }
+
+    /**
+     * The proportion of the remembered runs of this test that failed, or 0 if it has never been run.
+     */
+    public synchronized double getFailureRateOf(final String testName) {
+        HistoryEntry entry = getEntries().get(testName);
+        return (entry == null) ? 0.0 : entry.getFailureRate();
+    }
+
+    /**
+     * Add the duration and result of these tests to the history. Tests that did not run, such as pending or
+     * ignored tests, are left out.
+     */
+    public synchronized void recordOutcomesOf(final List<TestOutcome> testOutcomes, final String qualifier) {
+        Map<String, List<TestOutcome>> testOutcomesByQualifier = new HashMap<String, List<TestOutcome>>();
+        testOutcomesByQualifier.put(qualifier, testOutcomes);
+        recordOutcomesByQualifier(testOutcomesByQualifier);
+    }
+
+    /**
+     * Add the tests of several data-driven rows to the history in one update, rather than rewriting
+     * the history file once per row. The outcomes of each row are given with the row's qualifier.
+     */
+    public synchronized void recordOutcomesByQualifier(final Map<String, List<TestOutcome>> testOutcomesByQualifier) {
+        Map<String, TestOutcome> finishedTests = new HashMap<String, TestOutcome>();
+        for (Map.Entry<String, List<TestOutcome>> row : testOutcomesByQualifier.entrySet()) {
+            for (TestOutcome testOutcome : row.getValue()) {
+                if (hasRun(testOutcome)) {
+                    finishedTests.put(testNameFor(testOutcome, row.getKey()), testOutcome);
+                }
+            }
+        }
+        if (finishedTests.isEmpty()) {
+            return;
+        }
+        synchronized (UPDATE_LOCK) {
+            try {
+                updateHistoryFileWith(finishedTests);
+            } catch (IOException e) {
+                LOGGER.warn("Could not update the test history in " + historyFile, e);
+            }
+        }
+    }
+
+    private boolean hasRun(final TestOutcome testOutcome) {
+        TestResult result = testOutcome.getResult();
+        return (result == TestResult.SUCCESS) || (result == TestResult.FAILURE);
+    }
+
+    private void updateHistoryFileWith(final Map<String, TestOutcome> finishedTests) throws IOException {
+        historyFile.getAbsoluteFile().getParentFile().mkdirs();
+        RandomAccessFile lockFile = new RandomAccessFile(new File(historyFile.getPath() + ".lock"), "rw");
+        try {
+            FileLock lock = lockFile.getChannel().lock();
+            try {
+                entries = loadEntries();
+                for (Map.Entry<String, TestOutcome> finishedTest : finishedTests.entrySet()) {
+                    HistoryEntry entry = entries.get(finishedTest.getKey());
+                    if (entry == null) {
+                        entry = new HistoryEntry();
+                        entries.put(finishedTest.getKey(), entry);
+                    }
+                    entry.record(finishedTest.getValue());
+                }
+                saveEntries();
+            } finally {
+                lock.release();
+            }
+        } finally {
+            lockFile.close();
+        }
+    }
+
+    private Map<String, HistoryEntry> getEntries() {
+        if (entries == null) {
+            entries = loadEntries();
+        }
+        return entries;
+    }
+
+    private Map<String, HistoryEntry> loadEntries() {
+        Map<String, HistoryEntry> loadedEntries = new HashMap<String, HistoryEntry>();
+        if (!historyFile.exists()) {
+            return loadedEntries;
+        }
+        Properties history = new Properties();
+        InputStream input = null;
+        try {
+            input = new FileInputStream(historyFile);
+            history.load(input);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read the test history from " + historyFile, e);
+        } finally {
+            IOUtils.closeQuietly(input);
+        }
+        for (String testName : history.stringPropertyNames()) {
+            HistoryEntry entry = HistoryEntry.parse(history.getProperty(testName));
+            if (entry != null) {
+                loadedEntries.put(testName, entry);
+            }
+        }
+        return loadedEntries;
+    }
+
+    /**
+     * The history is written to a temporary file first, so it is never seen partly written.
+     */
+    private void saveEntries() throws IOException {
+        Properties history = new Properties();
+        for (Map.Entry<String, HistoryEntry> entry : entries.entrySet()) {
+            history.setProperty(entry.getKey(), entry.getValue().toString());
+        }
+        File directory = historyFile.getAbsoluteFile().getParentFile();
+        File temporaryFile = File.createTempFile(historyFile.getName(), ".tmp", directory);
+        OutputStream output = null;
+        try {
+            output = new FileOutputStream(temporaryFile);
+            history.store(output, "Test durations in milliseconds, and the last results (P = passed, F = failed)");
+            output.close();
+            output = null;
+            if (!temporaryFile.renameTo(historyFile)) {
+                historyFile.delete();
+                if (!temporaryFile.renameTo(historyFile)) {
+                    throw new IOException("Could not replace " + historyFile);
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(output);
+            temporaryFile.delete();
+        }
+    }
+
+    /**
+     * The last duration of a test, and its last few results, oldest first.
+     */
+    private static class HistoryEntry {
+        private long duration;
+        private String results = "";
+
+        static HistoryEntry parse(final String value) {
+            int separator = value.indexOf(',');
+            if (separator < 0) {
+                return null;
+            }
+            try {
+                HistoryEntry entry = new HistoryEntry();
+                entry.duration = Long.parseLong(value.substring(0, separator).trim());
+                entry.results = value.substring(separator + 1).trim();
+                return entry;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        void record(final TestOutcome testOutcome) {
+            duration = testOutcome.getDuration();
+            results = results + ((testOutcome.getResult() == TestResult.FAILURE) ? FAILED : PASSED);
+            if (results.length() > REMEMBERED_RESULTS) {
+                results = results.substring(results.length() - REMEMBERED_RESULTS);
+            }
+        }
+
+        long getDuration() {
+            return duration;
+        }
+
+        double getFailureRate() {
+            if (results.isEmpty()) {
+                return 0.0;
+            }
+            int failures = 0;
+            for (char result : results.toCharArray()) {
+                if (result == FAILED) {
+                    failures++;
+                }
+            }
+            return ((double) failures) / results.length();
+        }
+
+        @Override
+        public String toString() {
+            return duration + "," + results;
+        }
+    }
+}
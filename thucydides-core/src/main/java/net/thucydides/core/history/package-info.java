@@ -0,0 +1,4 @@
+/**
+ * The history of previous test runs, used to decide which tests should be run first.
+ */
+package net.thucydides.core.history;
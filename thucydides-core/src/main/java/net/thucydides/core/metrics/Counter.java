@@ -0,0 +1,28 @@
+package net.thucydides.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how often something happened. Counters can be updated from several threads at once.
+ */
+public class Counter {
+
+    private final String name;
+    private final AtomicLong count = new AtomicLong();
+
+    public Counter(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        count.incrementAndGet();
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+}
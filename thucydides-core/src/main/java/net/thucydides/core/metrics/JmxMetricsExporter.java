@@ -0,0 +1,125 @@
+package net.thucydides.core.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes the metrics of a registry as read-only JMX attributes, so a run can be watched from
+ * JConsole or VisualVM while it is in progress.
+ * Each timer has a count, a total time and a maximum time attribute (e.g. "thucydides_step_duration.count"),
+ * and each counter has a single attribute.
+ */
+public class JmxMetricsExporter implements DynamicMBean {
+
+    public static final String OBJECT_NAME = "net.thucydides:type=Metrics";
+
+    private static final String COUNT = ".count";
+    private static final String TOTAL_TIME = ".totalTime";
+    private static final String MAX_TIME = ".maxTime";
+
+    private final MetricsRegistry registry;
+
+    public JmxMetricsExporter(final MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Register the metrics with the platform MBean server, replacing any previously registered metrics.
+     */
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(this, name);
+    }
+
+    public Object getAttribute(final String attribute) throws AttributeNotFoundException {
+        if (registry.getCounters().containsKey(attribute)) {
+            return registry.counter(attribute).getCount();
+        }
+        if (attribute.endsWith(COUNT) && isTimer(attribute, COUNT)) {
+            return timerFor(attribute, COUNT).getCount();
+        }
+        if (attribute.endsWith(TOTAL_TIME) && isTimer(attribute, TOTAL_TIME)) {
+            return timerFor(attribute, TOTAL_TIME).getTotalTime();
+        }
+        if (attribute.endsWith(MAX_TIME) && isTimer(attribute, MAX_TIME)) {
+            return timerFor(attribute, MAX_TIME).getMaxTime();
+        }
+        throw new AttributeNotFoundException("No such metric: " + attribute);
+    }
+
+    private boolean isTimer(final String attribute, final String suffix) {
+        return registry.getTimers().containsKey(timerNameIn(attribute, suffix));
+    }
+
+    private Timer timerFor(final String attribute, final String suffix) {
+        return registry.timer(timerNameIn(attribute, suffix));
+    }
+
+    private String timerNameIn(final String attribute, final String suffix) {
+        return attribute.substring(0, attribute.length() - suffix.length());
+    }
+
+    public AttributeList getAttributes(final String[] attributes) {
+        AttributeList values = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                values.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // Unknown attributes are left out of the list, as required by the DynamicMBean contract
+            }
+        }
+        return values;
+    }
+
+    public void setAttribute(final Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    public AttributeList setAttributes(final AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    public Object invoke(final String actionName, final Object[] params, final String[] signature) {
+        throw new UnsupportedOperationException("No operations are available on the Thucydides metrics");
+    }
+
+    /**
+     * The attributes are listed again each time, as timers and counters are created during the run.
+     */
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+        for (String timer : registry.getTimers().keySet()) {
+            attributes.add(longAttribute(timer + COUNT, "Number of times recorded"));
+            attributes.add(longAttribute(timer + TOTAL_TIME, "Total time in milliseconds"));
+            attributes.add(longAttribute(timer + MAX_TIME, "Maximum time in milliseconds"));
+        }
+        for (String counter : registry.getCounters().keySet()) {
+            attributes.add(longAttribute(counter, "Count"));
+        }
+        return new MBeanInfo(getClass().getName(),
+                             "Thucydides test run metrics",
+                             attributes.toArray(new MBeanAttributeInfo[attributes.size()]),
+                             null,
+                             new MBeanOperationInfo[0],
+                             null);
+    }
+
+    private MBeanAttributeInfo longAttribute(final String name, final String description) {
+        return new MBeanAttributeInfo(name, Long.class.getName(), description, true, false, false);
+    }
+}
@@ -0,0 +1,116 @@
+package net.thucydides.core.metrics;
+
+import net.thucydides.core.webdriver.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Entry point for recording metrics about a test run.
+ * Measurements are kept in memory by default; they can be published over JMX during the run
+ * (thucydides.metrics.jmx) and written to a Prometheus-format text file at the end of each test
+ * class, or of each data-driven test (thucydides.metrics.file).
+ */
+public final class Metrics {
+
+    public static final String STEP_DURATION = "thucydides_step_duration";
+    public static final String STEP_FAILURES = "thucydides_step_failures_total";
+    public static final String SCREENSHOT = "thucydides_screenshot";
+    public static final String PAGE_SOURCE = "thucydides_page_source";
+    public static final String DRIVER_STARTUP = "thucydides_driver_startup";
+    public static final String REPORT_GENERATION = "thucydides_report_generation";
+    public static final String PAGE_WAIT = "thucydides_page_wait";
+    public static final String PAGE_WAIT_TIMEOUTS = "thucydides_page_wait_timeouts_total";
+    public static final String PARALLEL_ROW = "thucydides_parallel_row";
+    public static final String PARALLEL_CAPACITY = "thucydides_parallel_capacity";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Metrics.class);
+
+    private static volatile MetricsRegistry registry = new SimpleMetricsRegistry();
+    private static volatile boolean jmxSettingResolved = false;
+
+    private Metrics() {}
+
+    /**
+     * The thucydides.metrics.jmx property is only read the first time the registry is used, as timers
+     * and counters are looked up on every step and page wait.
+     */
+    public static MetricsRegistry getRegistry() {
+        if (!jmxSettingResolved) {
+            resolveJmxSetting();
+        }
+        return registry;
+    }
+
+    /**
+     * Record metrics in a different registry from now on.
+     */
+    public static synchronized void useRegistry(final MetricsRegistry newRegistry) {
+        registry = newRegistry;
+        jmxSettingResolved = false;
+    }
+
+    public static Timer timer(final String name) {
+        return getRegistry().timer(name);
+    }
+
+    public static Counter counter(final String name) {
+        return getRegistry().counter(name);
+    }
+
+    private static synchronized void resolveJmxSetting() {
+        if (!jmxSettingResolved) {
+            if (Configuration.getMetricsJmxEnabled()) {
+                publishOverJmx();
+            }
+            jmxSettingResolved = true;
+        }
+    }
+
+    private static void publishOverJmx() {
+        try {
+            new JmxMetricsExporter(registry).register();
+        } catch (JMException e) {
+            LOGGER.warn("Could not publish the Thucydides metrics over JMX", e);
+        }
+    }
+
+    /**
+     * Write the metrics recorded so far to the file configured in the thucydides.metrics.file property,
+     * if any. Relative paths are resolved against the output directory. The file is overwritten each time,
+     * so at the end of the run it contains the totals for the whole run.
+     */
+    public static void writeMetricsFileIn(final File outputDirectory) {
+        String metricsFileName = Configuration.getMetricsFile();
+        if (metricsFileName == null) {
+            return;
+        }
+        File metricsFile = new File(metricsFileName);
+        if (!metricsFile.isAbsolute()) {
+            metricsFile = new File(outputDirectory, metricsFileName);
+        }
+        try {
+            writeMetricsTo(metricsFile);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write the Thucydides metrics to " + metricsFile, e);
+        }
+    }
+
+    private static void writeMetricsTo(final File metricsFile) throws IOException {
+        File directory = metricsFile.getAbsoluteFile().getParentFile();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        Writer writer = new FileWriter(metricsFile);
+        try {
+            new PrometheusFormatWriter(getRegistry()).writeTo(writer);
+        } finally {
+            writer.close();
+        }
+    }
+}
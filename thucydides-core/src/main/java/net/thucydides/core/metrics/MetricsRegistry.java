@@ -0,0 +1,31 @@
+package net.thucydides.core.metrics;
+
+import java.util.SortedMap;
+
+/**
+ * Keeps track of the timers and counters used during a test run.
+ * A custom registry can be installed using Metrics.useRegistry(), e.g. to forward the measurements
+ * to an existing monitoring system.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * The timer with this name, created if it doesn't exist yet.
+     */
+    Timer timer(final String name);
+
+    /**
+     * The counter with this name, created if it doesn't exist yet.
+     */
+    Counter counter(final String name);
+
+    /**
+     * All the timers created so far, sorted by name.
+     */
+    SortedMap<String, Timer> getTimers();
+
+    /**
+     * All the counters created so far, sorted by name.
+     */
+    SortedMap<String, Counter> getCounters();
+}
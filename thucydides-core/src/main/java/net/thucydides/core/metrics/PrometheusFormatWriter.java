@@ -0,0 +1,50 @@
+package net.thucydides.core.metrics;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes metrics in the Prometheus text exposition format, so they can be read by people as well as
+ * loaded into Prometheus (e.g. via the node exporter's textfile collector).
+ * Timers are written as summaries, in seconds.
+ */
+public class PrometheusFormatWriter {
+
+    private static final double MILLISECONDS_PER_SECOND = 1000.0;
+
+    private final MetricsRegistry registry;
+
+    public PrometheusFormatWriter(final MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void writeTo(final Writer writer) {
+        PrintWriter output = new PrintWriter(writer);
+        for (Timer timer : registry.getTimers().values()) {
+            writeTimer(output, timer);
+        }
+        for (Counter counter : registry.getCounters().values()) {
+            writeCounter(output, counter);
+        }
+        output.flush();
+    }
+
+    private void writeTimer(final PrintWriter output, final Timer timer) {
+        String name = timer.getName() + "_seconds";
+        output.println("# TYPE " + name + " summary");
+        output.println(name + "_count " + timer.getCount());
+        output.println(name + "_sum " + inSeconds(timer.getTotalTime()));
+        output.println("# TYPE " + name + "_max gauge");
+        output.println(name + "_max " + inSeconds(timer.getMaxTime()));
+    }
+
+    private void writeCounter(final PrintWriter output, final Counter counter) {
+        output.println("# TYPE " + counter.getName() + " counter");
+        output.println(counter.getName() + " " + counter.getCount());
+    }
+
+    private String inSeconds(final long milliseconds) {
+        return String.format(Locale.US, "%.3f", milliseconds / MILLISECONDS_PER_SECOND);
+    }
+}
@@ -0,0 +1,48 @@
+package net.thucydides.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how often something happened and how long it took, in milliseconds.
+ * Timers can be updated from several threads at once.
+ */
+public class Timer {
+
+    private final String name;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalTime = new AtomicLong();
+    private final AtomicLong maxTime = new AtomicLong();
+
+    public Timer(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(final long duration) {
+        count.incrementAndGet();
+        totalTime.addAndGet(duration);
+        updateMaxTime(duration);
+    }
+
+    private void updateMaxTime(final long duration) {
+        long currentMax = maxTime.get();
+        while ((duration > currentMax) && !maxTime.compareAndSet(currentMax, duration)) {
+            currentMax = maxTime.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalTime() {
+        return totalTime.get();
+    }
+
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Timers and counters recording what happens during a test run, with exporters for JMX and
+ * Prometheus-format text files.
+ */
+package net.thucydides.core.metrics;
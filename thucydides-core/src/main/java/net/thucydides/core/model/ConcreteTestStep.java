@@ -12,6 +12,8 @@ public class ConcreteTestStep extends TestStep {
 
     private TestResult result;
 
+    private final StepTimings timings = new StepTimings();
+
     public ConcreteTestStep() {
         super();
     }
@@ -33,6 +35,13 @@ public class ConcreteTestStep extends TestStep {
     }
 
 
+    /**
+     * A breakdown of the time spent in this step.
+     */
+    public StepTimings getTimings() {
+        return timings;
+    }
+
     @Override
     public List<? extends TestStep> getFlattenedSteps() {
         return Arrays.asList(this);
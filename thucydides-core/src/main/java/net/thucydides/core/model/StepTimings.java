@@ -0,0 +1,65 @@
+package net.thucydides.core.model;
+
+/**
+ * Where the time went during a test step, in milliseconds.
+ * The step time covers the step method itself, including any time spent waiting for pages.
+ * The screenshot, page source and listener times are spent by Thucydides around the step.
+ */
+public class StepTimings {
+
+    private long stepTime;
+    private long waitTime;
+    private long screenshotTime;
+    private long pageSourceTime;
+    private long listenerOverhead;
+
+    public long getStepTime() {
+        return stepTime;
+    }
+
+    public void setStepTime(final long stepTime) {
+        this.stepTime = stepTime;
+    }
+
+    /**
+     * Time spent waiting for pages during the step (part of the step time).
+     */
+    public long getWaitTime() {
+        return waitTime;
+    }
+
+    public void setWaitTime(final long waitTime) {
+        this.waitTime = waitTime;
+    }
+
+    public long getScreenshotTime() {
+        return screenshotTime;
+    }
+
+    public void addScreenshotTime(final long screenshotTime) {
+        this.screenshotTime += screenshotTime;
+    }
+
+    public long getPageSourceTime() {
+        return pageSourceTime;
+    }
+
+    public void addPageSourceTime(final long pageSourceTime) {
+        this.pageSourceTime += pageSourceTime;
+    }
+
+    public long getListenerOverhead() {
+        return listenerOverhead;
+    }
+
+    public void setListenerOverhead(final long listenerOverhead) {
+        this.listenerOverhead = listenerOverhead;
+    }
+
+    /**
+     * Have any timings been recorded for this step?
+     */
+    public boolean isRecorded() {
+        return (stepTime + waitTime + screenshotTime + pageSourceTime + listenerOverhead) > 0;
+    }
+}
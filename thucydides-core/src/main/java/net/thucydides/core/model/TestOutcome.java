@@ -7,6 +7,7 @@ import com.google.common.collect.ImmutableSet;
 import net.thucydides.core.annotations.Title;
 import net.thucydides.core.model.features.ApplicationFeature;
 import net.thucydides.core.steps.TestDescription;
+import net.thucydides.core.util.MethodIndex;
 import net.thucydides.core.util.NameConverter;
 
 import java.lang.reflect.Method;
@@ -49,6 +50,8 @@ public class TestOutcome {
 
     private long startTime;
 
+    private long timeSpentWaiting;
+
     private Set<String> testedRequirement = new HashSet<String>();
 
     private final List<TestStep> testSteps = new ArrayList<TestStep>();
@@ -156,12 +159,7 @@ public class TestOutcome {
     }
 
     private Method getMethodCalled(final String methodName) {
-        String baseMethodName = withNoArguments(methodName);
-        try {
-            return testCase.getMethod(baseMethodName);
-        } catch (NoSuchMethodException e) {
-            return null;
-        }
+        return MethodIndex.of(testCase).findMethodWithNoParametersCalled(withNoArguments(methodName));
     }
 
 
@@ -392,6 +390,17 @@ private static class ExtractTestResultsConverter implements Converter<TestStep,
         }
     }
 
+    /**
+     * How long the test spent waiting for pages (e.g. for elements or texts to appear), in milliseconds.
+     */
+    public long getTimeSpentWaiting() {
+        return timeSpentWaiting;
+    }
+
+    public void setTimeSpentWaiting(final long timeSpentWaiting) {
+        this.timeSpentWaiting = timeSpentWaiting;
+    }
+
     public void startGroup(final String description) {
         TestStepGroup newGroup = new TestStepGroup(description);
 
@@ -0,0 +1,164 @@
+package net.thucydides.core.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks several conditions on a page in a single browser round-trip.
+ * The conditions are evaluated by one JavaScript call, which returns a bitmask of the conditions that hold.
+ * Only usable if the driver supports JavaScript: use isAvailable() before calling the check methods.
+ */
+class BatchedPageConditions {
+
+    /**
+     * JavaScript bitwise operations work on 32-bit signed integers, so larger batches are split up.
+     */
+    static final int MAXIMUM_CONDITIONS_PER_CALL = 31;
+
+    static final String TEXTS_ON_PAGE_SCRIPT
+            = "var body = document.body;"
+            + "var text = body ? (body.textContent || body.innerText || '') : '';"
+            + "var found = 0;"
+            + "for (var i = 0; i < arguments.length; i++) {"
+            + "  if (text.indexOf(arguments[i]) >= 0) { found |= (1 << i); }"
+            + "}"
+            + "return found;";
+
+    static final String RENDERED_ELEMENTS_SCRIPT
+            = "var firstMatch = function(type, value) {"
+            + "  switch (type) {"
+            + "    case 'id': return document.getElementById(value);"
+            + "    case 'name': return document.getElementsByName(value)[0];"
+            + "    case 'className': return document.querySelector('.' + value);"
+            + "    case 'selector': return document.querySelector(value);"
+            + "    case 'tagName': return document.getElementsByTagName(value)[0];"
+            + "    case 'xpath': return document.evaluate(value, document, null, 9, null).singleNodeValue;"
+            + "  }"
+            + "  return null;"
+            + "};"
+            + "var styleOf = function(element) {"
+            + "  return window.getComputedStyle ? window.getComputedStyle(element, null) : element.currentStyle;"
+            + "};"
+            + "var mightBeRendered = function(element) {"
+            + "  if (!element) { return false; }"
+            + "  for (var node = element; node && node.nodeType == 1; node = node.parentNode) {"
+            + "    var nodeStyle = styleOf(node);"
+            + "    if (nodeStyle && nodeStyle.display == 'none') { return false; }"
+            + "  }"
+            + "  var style = styleOf(element);"
+            + "  return !style || style.visibility != 'hidden';"
+            + "};"
+            + "var rendered = 0;"
+            + "for (var i = 0; i < arguments.length; i += 2) {"
+            + "  if (mightBeRendered(firstMatch(arguments[i], arguments[i + 1]))) { rendered |= (1 << (i / 2)); }"
+            + "}"
+            + "return rendered;";
+
+    private static final String[] LOCATOR_TYPES = {"id", "name", "className", "selector", "tagName", "xpath"};
+
+    private final WebDriver driver;
+    private boolean available = true;
+
+    public BatchedPageConditions(final WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Batched checks need JavaScript, and are no longer used once the driver has refused to run one.
+     * Other errors (e.g. a page being reloaded during the check) only affect the current check.
+     */
+    public boolean isAvailable() {
+        return available && (JavascriptSupport.executorFor(driver) != null);
+    }
+
+    /**
+     * Which of these texts appear anywhere on the page?
+     */
+    public boolean[] checkTextsOnPage(final String... texts) {
+        boolean[] found = new boolean[texts.length];
+        for (int start = 0; start < texts.length; start += MAXIMUM_CONDITIONS_PER_CALL) {
+            int end = Math.min(start + MAXIMUM_CONDITIONS_PER_CALL, texts.length);
+            List<Object> arguments = new ArrayList<Object>();
+            for (int i = start; i < end; i++) {
+                arguments.add(texts[i]);
+            }
+            long bitmask = evaluate(TEXTS_ON_PAGE_SCRIPT, arguments);
+            for (int i = start; i < end; i++) {
+                found[i] = isSet(bitmask, i - start);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Which of these elements might be rendered on the page?
+     * An element is only reported as not rendered if it is certainly not displayed: it is missing, it or
+     * one of its parents has display:none, or it has visibility:hidden. Its size is not checked, as WebDriver
+     * can report zero-size elements (e.g. SVG or overflowing children) as displayed. Elements reported as
+     * rendered still need to be checked with WebDriver. Locators that cannot be evaluated in JavaScript
+     * (e.g. link texts) are always reported as rendered.
+     */
+    public boolean[] checkRenderedElements(final By... elements) {
+        boolean[] rendered = new boolean[elements.length];
+        for (int start = 0; start < elements.length; start += MAXIMUM_CONDITIONS_PER_CALL) {
+            int end = Math.min(start + MAXIMUM_CONDITIONS_PER_CALL, elements.length);
+            List<Object> arguments = new ArrayList<Object>();
+            List<Integer> checkedElements = new ArrayList<Integer>();
+            for (int i = start; i < end; i++) {
+                String[] locator = javascriptLocatorFor(elements[i]);
+                if (locator == null) {
+                    rendered[i] = true;
+                } else {
+                    arguments.add(locator[0]);
+                    arguments.add(locator[1]);
+                    checkedElements.add(i);
+                }
+            }
+            if (!checkedElements.isEmpty()) {
+                long bitmask = evaluate(RENDERED_ELEMENTS_SCRIPT, arguments);
+                for (int bit = 0; bit < checkedElements.size(); bit++) {
+                    rendered[checkedElements.get(bit)] = isSet(bitmask, bit);
+                }
+            }
+        }
+        return rendered;
+    }
+
+    /**
+     * WebDriver locators don't expose their type or value, but their string form (e.g. "By.id: search")
+     * contains both.
+     */
+    private String[] javascriptLocatorFor(final By element) {
+        String description = element.toString();
+        for (String locatorType : LOCATOR_TYPES) {
+            String prefix = "By." + locatorType + ": ";
+            if (description.startsWith(prefix)) {
+                return new String[] {locatorType, description.substring(prefix.length())};
+            }
+        }
+        return null;
+    }
+
+    private long evaluate(final String script, final List<Object> arguments) {
+        JavascriptExecutor javascriptExecutor = JavascriptSupport.executorFor(driver);
+        try {
+            Object result = javascriptExecutor.executeScript(script, arguments.toArray());
+            if (!(result instanceof Number)) {
+                throw new WebDriverException("Unexpected result from batched page conditions: " + result);
+            }
+            return ((Number) result).longValue();
+        } catch (UnsupportedOperationException e) {
+            available = false;
+            throw new WebDriverException("JavaScript is not supported by this driver", e);
+        }
+    }
+
+    private boolean isSet(final long bitmask, final int bit) {
+        return (bitmask & (1L << bit)) != 0;
+    }
+}
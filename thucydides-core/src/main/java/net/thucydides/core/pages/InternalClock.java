@@ -24,6 +24,13 @@ public class InternalClock {
          }
     }
 
+    /**
+     * The current time, in milliseconds.
+     */
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
     protected void sleepFor(long timeInMilliseconds) throws InterruptedException {
         Thread.sleep(timeInMilliseconds);
     }
@@ -0,0 +1,29 @@
+package net.thucydides.core.pages;
+
+import net.thucydides.core.webdriver.WebDriverFacade;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Finds out whether JavaScript can be run in the browser behind a driver.
+ */
+final class JavascriptSupport {
+
+    private JavascriptSupport() {}
+
+    /**
+     * The JavaScript executor for this driver, or null if the driver cannot run JavaScript
+     * (e.g. HtmlUnit with JavaScript disabled).
+     */
+    static JavascriptExecutor executorFor(final WebDriver driver) {
+        WebDriver actualDriver = driver;
+        if (driver instanceof WebDriverFacade) {
+            actualDriver = ((WebDriverFacade) driver).getProxiedDriver();
+        }
+        if ((actualDriver instanceof JavascriptExecutor)
+                && ((JavascriptExecutor) actualDriver).isJavascriptEnabled()) {
+            return (JavascriptExecutor) actualDriver;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,148 @@
+package net.thucydides.core.pages;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A clock that stops pausing as soon as the DOM of the current page changes.
+ * Page objects waiting for an element or a text to appear can then check the page again straight away,
+ * rather than waiting for the end of the polling interval.
+ * The pause is done in the browser using a MutationObserver. If the browser does not support this,
+ * the script simply waits for the requested delay. Drivers that cannot run asynchronous scripts
+ * fall back to a normal pause.
+ * The script timeout is only raised while the script is running, and each pause lasts for a short minimum
+ * time, so a page whose DOM changes all the time does not get checked in a busy loop.
+ */
+public class PageChangeAwareClock extends InternalClock {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PageChangeAwareClock.class);
+
+    /**
+     * Extra time given to the browser to return from the script, beyond the requested pause.
+     */
+    private static final long SCRIPT_TIMEOUT_MARGIN = 1000;
+
+    /**
+     * The shortest pause, even if the DOM changes straight away.
+     */
+    static final long MINIMUM_PAUSE = 20;
+
+    /**
+     * The script timeout used by WebDriver unless another one has been set.
+     */
+    public static final long DEFAULT_SCRIPT_TIMEOUT = 0;
+
+    static final String WAIT_FOR_DOM_CHANGE_SCRIPT
+            = "var callback = arguments[arguments.length - 1];"
+            + "var observerType = window.MutationObserver || window.WebKitMutationObserver;"
+            + "var observer = null;"
+            + "var finished = false;"
+            + "var finish = function(domChanged) {"
+            + "  if (!finished) {"
+            + "    finished = true;"
+            + "    if (observer) { observer.disconnect(); }"
+            + "    callback(domChanged);"
+            + "  }"
+            + "};"
+            + "if (observerType) {"
+            + "  observer = new observerType(function() { finish(true); });"
+            + "  observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "}"
+            + "window.setTimeout(function() { finish(false); }, arguments[0]);";
+
+    private final WebDriver driver;
+    private final long scriptTimeoutToRestore;
+    private boolean asyncScriptsSupported = true;
+
+    public PageChangeAwareClock(final WebDriver driver) {
+        this(driver, DEFAULT_SCRIPT_TIMEOUT);
+    }
+
+    /**
+     * WebDriver cannot tell us the current script timeout, so it is given here if it is not the default one.
+     */
+    public PageChangeAwareClock(final WebDriver driver, final long scriptTimeoutToRestore) {
+        this.driver = driver;
+        this.scriptTimeoutToRestore = scriptTimeoutToRestore;
+    }
+
+    @Override
+    protected void sleepFor(final long timeInMilliseconds) throws InterruptedException {
+        JavascriptExecutor javascriptExecutor = getJavascriptExecutor();
+        if (javascriptExecutor == null) {
+            super.sleepFor(timeInMilliseconds);
+        } else {
+            waitForDomChange(javascriptExecutor, timeInMilliseconds);
+        }
+    }
+
+    private void waitForDomChange(final JavascriptExecutor javascriptExecutor,
+                                  final long timeInMilliseconds) throws InterruptedException {
+        long startTime = getCurrentTime();
+        long minimumPause = Math.min(MINIMUM_PAUSE, timeInMilliseconds);
+        try {
+            runWaitScript(javascriptExecutor, timeInMilliseconds);
+        } catch (UnsupportedOperationException e) {
+            stopUsingAsyncScriptsAfter(e);
+            minimumPause = timeInMilliseconds;
+        } catch (WebDriverException e) {
+            if (meansAsyncScriptsAreNotSupported(e)) {
+                stopUsingAsyncScriptsAfter(e);
+            } else {
+                LOGGER.debug("Could not wait for DOM changes, falling back to a normal pause", e);
+            }
+            minimumPause = timeInMilliseconds;
+        }
+        pauseForWhatIsLeftOf(minimumPause, startTime);
+    }
+
+    private void runWaitScript(final JavascriptExecutor javascriptExecutor, final long timeInMilliseconds) {
+        setScriptTimeout(timeInMilliseconds + SCRIPT_TIMEOUT_MARGIN);
+        try {
+            javascriptExecutor.executeAsyncScript(WAIT_FOR_DOM_CHANGE_SCRIPT, timeInMilliseconds);
+        } finally {
+            setScriptTimeout(scriptTimeoutToRestore);
+        }
+    }
+
+    /**
+     * If the script could not be run, we still pause for as long as was requested.
+     * If it could, it may have returned as soon as the DOM changed, but not sooner than the minimum pause.
+     */
+    private void pauseForWhatIsLeftOf(final long pauseInMilliseconds, final long startTime) throws InterruptedException {
+        long timeLeft = pauseInMilliseconds - (getCurrentTime() - startTime);
+        if (timeLeft > 0) {
+            super.sleepFor(timeLeft);
+        }
+    }
+
+    private boolean meansAsyncScriptsAreNotSupported(final WebDriverException error) {
+        if (error instanceof UnsupportedCommandException) {
+            return true;
+        }
+        String message = (error.getMessage() == null) ? "" : error.getMessage().toLowerCase();
+        return message.contains("not supported") || message.contains("not implemented");
+    }
+
+    private void stopUsingAsyncScriptsAfter(final RuntimeException error) {
+        LOGGER.debug("Asynchronous scripts are not supported, falling back to normal pauses", error);
+        asyncScriptsSupported = false;
+    }
+
+    private void setScriptTimeout(final long timeoutInMilliseconds) {
+        driver.manage().timeouts().setScriptTimeout(timeoutInMilliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    private JavascriptExecutor getJavascriptExecutor() {
+        if (!asyncScriptsSupported) {
+            return null;
+        }
+        return JavascriptSupport.executorFor(driver);
+    }
+}
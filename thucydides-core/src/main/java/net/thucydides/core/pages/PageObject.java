@@ -3,6 +3,7 @@ package net.thucydides.core.pages;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.pages.components.Dropdown;
 import net.thucydides.core.pages.components.FileToUpload;
+import net.thucydides.core.webdriver.Configuration;
 import net.thucydides.core.webdriver.WebDriverFacade;
 import net.thucydides.core.webdriver.WebDriverFactory;
 import net.thucydides.core.webelements.Checkbox;
@@ -46,15 +47,23 @@ public abstract class PageObject {
 
     private PageUrls pageUrls;
 
-    private InternalClock clock = new InternalClock();
+    private final InternalClock clock;
 
     public PageObject(final WebDriver driver) {
+        this(driver, new InternalClock());
+    }
+
+    /**
+     * The clock is used for all of the waits and pauses in this page object.
+     */
+    public PageObject(final WebDriver driver, final InternalClock clock) {
         this.driver = driver;
-        this.waitForTimeout = WAIT_FOR_TIMEOUT;
+        this.clock = clock;
+        this.waitForTimeout = Configuration.getWaitForTimeout(WAIT_FOR_TIMEOUT);
 
         setupPageUrls();
 
-        WebDriverFactory.initElementsWithAjaxSupport(this, driver);
+        WebDriverFactory.initElementsWithAjaxSupport(this, driver, clock);
 
     }
 
@@ -72,11 +81,21 @@ public abstract class PageObject {
 
     protected RenderedPageObjectView getRenderedView() {
         if (renderedView == null) {
-            renderedView = new RenderedPageObjectView(driver, waitForTimeout);
+            renderedView = new RenderedPageObjectView(driver, waitForTimeout, getClockForWaits());
         }
         return renderedView;
     }
 
+    /**
+     * Waits can optionally be woken up by DOM changes, rather than only checking the page at regular intervals.
+     */
+    private InternalClock getClockForWaits() {
+        if (Configuration.getWaitForDomChanges()) {
+            return new PageChangeAwareClock(driver);
+        }
+        return getClock();
+    }
+
     protected InternalClock getClock() {
         return clock;
     }
@@ -394,12 +413,22 @@ public abstract class PageObject {
             LOGGER.warn(
                     "Click failed. This could be a flicking failure, so I'll wait 1 second and try again",
                     e);
-            waitABit(ONE_SECOND);
+            pauseBeforeRetrying();
         }
         webElement.click();
 
     }
 
+    /**
+     * Retries count as waiting time, so they don't go beyond the current wait budget.
+     */
+    private void pauseBeforeRetrying() {
+        WaitBudget budget = WaitBudget.current();
+        long pause = budget.allowedWaitFor(ONE_SECOND);
+        waitABit(pause);
+        budget.recordTimeSpentWaiting(pause);
+    }
+
     /**
      * Returns true if at least one matching element is found on the page and is visible.
      */
@@ -423,7 +452,7 @@ public abstract class PageObject {
      * Provides a fluent API for querying web elements.
      */
     public WebElementFacade element(WebElement webElement) {
-        return new WebElementFacade(driver, webElement);
+        return new WebElementFacade(driver, webElement, getClock());
     }
 
     public Object evaluateJavascript(final String script) {
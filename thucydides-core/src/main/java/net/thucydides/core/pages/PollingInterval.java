@@ -0,0 +1,35 @@
+package net.thucydides.core.pages;
+
+/**
+ * How long to pause between successive checks while waiting for something to happen on a page.
+ * The first checks are made in quick succession, and the pause then grows exponentially up to a maximum,
+ * so short waits finish quickly and long waits don't flood the browser with requests.
+ */
+public class PollingInterval {
+
+    public static final long DEFAULT_INITIAL_INTERVAL = 10;
+    public static final long DEFAULT_MAXIMUM_INTERVAL = 500;
+
+    private static final int BACKOFF_FACTOR = 2;
+
+    private final long maximumInterval;
+    private long currentInterval;
+
+    public PollingInterval() {
+        this(DEFAULT_INITIAL_INTERVAL, DEFAULT_MAXIMUM_INTERVAL);
+    }
+
+    public PollingInterval(final long initialInterval, final long maximumInterval) {
+        this.currentInterval = initialInterval;
+        this.maximumInterval = maximumInterval;
+    }
+
+    /**
+     * How long to pause before the next check, in milliseconds.
+     */
+    public long next() {
+        long interval = currentInterval;
+        currentInterval = Math.min(currentInterval * BACKOFF_FACTOR, maximumInterval);
+        return interval;
+    }
+}
@@ -0,0 +1,51 @@
+package net.thucydides.core.pages;
+
+import net.thucydides.core.metrics.Metrics;
+
+/**
+ * Waits for something to happen on a page by checking it repeatedly, pausing a little longer
+ * after each unsuccessful check. All of the page waits go through here, so they share the same
+ * clock, polling strategy, wait budget and timeout metrics.
+ */
+public class PollingWait {
+
+    /**
+     * Something we are waiting for on the page.
+     */
+    public interface ExpectedState {
+        boolean isReached();
+    }
+
+    private final InternalClock clock;
+
+    public PollingWait(final InternalClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Check the expected state until it is reached or the timeout expires.
+     * The timeout is capped by what is left of the current wait budget. The state is always checked
+     * at least once, even when the budget is used up, and once more after the last pause, so a wait
+     * only counts as timed out if that final check fails too.
+     */
+    public boolean waitUntil(final ExpectedState expectedState, final long timeout) {
+        WaitBudget budget = WaitBudget.current();
+        long start = clock.getCurrentTime();
+        long end = start + budget.allowedWaitFor(timeout);
+        PollingInterval pollingInterval = new PollingInterval();
+        long now = start;
+        try {
+            while (!expectedState.isReached()) {
+                if (now >= end) {
+                    Metrics.counter(Metrics.PAGE_WAIT_TIMEOUTS).increment();
+                    return false;
+                }
+                clock.pauseFor(Math.min(pollingInterval.next(), end - now));
+                now = clock.getCurrentTime();
+            }
+            return true;
+        } finally {
+            budget.recordTimeSpentWaiting(clock.getCurrentTime() - start);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package net.thucydides.core.pages;
 
+import net.thucydides.core.pages.PollingWait.ExpectedState;
 import org.openqa.selenium.By;
 import org.openqa.selenium.ElementNotVisibleException;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,25 +21,37 @@ class RenderedPageObjectView {
 
     private final transient WebDriver driver;
     private final transient long waitForTimeout;
-
-    private static final int WAIT_FOR_ELEMENT_PAUSE_LENGTH = 50;
+    private final transient InternalClock clock;
+    private final transient BatchedPageConditions batchedConditions;
 
     private static final Logger LOGGER = LoggerFactory
             .getLogger(RenderedPageObjectView.class);
 
     public RenderedPageObjectView(final WebDriver driver, final long waitForTimeout) {
+        this(driver, waitForTimeout, new InternalClock());
+    }
+
+    /**
+     * The clock is used to pause between checks, so the polling strategy can be changed by providing
+     * a different clock (e.g. one that wakes up when the DOM changes).
+     */
+    public RenderedPageObjectView(final WebDriver driver, final long waitForTimeout, final InternalClock clock) {
         this.driver = driver;
         this.waitForTimeout = waitForTimeout;
+        this.clock = clock;
+        this.batchedConditions = new BatchedPageConditions(driver);
+    }
+
+    private boolean waitUntil(final ExpectedState expectedState, final long timeout) {
+        return new PollingWait(clock).waitUntil(expectedState, timeout);
     }
 
     public void waitFor(final By byElementCriteria) {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        while (System.currentTimeMillis() < end) {
-            if (elementIsDisplayed(byElementCriteria)) {
-                break;
+        waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return elementIsDisplayed(byElementCriteria);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, waitForTimeout);
         checkThatElementAppeared(byElementCriteria);
         checkThatElementIsDisplayed(byElementCriteria);
     }
@@ -68,50 +82,36 @@ class RenderedPageObjectView {
         driver.findElement(byElementCriteria);
     }
 
-    protected void waitABit(final long timeInMilliseconds) {
-        try {
-            Thread.sleep(timeInMilliseconds);
-        } catch (InterruptedException e) {
-            LOGGER.error("Wait interrupted", e);
-        }
-    }
-
     public void waitForText(final String expectedText) {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        while (System.currentTimeMillis() < end) {
-            if (containsText(expectedText)) {
-                break;
+        boolean textFound = waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return containsText(expectedText);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
-        if (!containsText(expectedText)) {
+        }, waitForTimeout);
+        if (!textFound && !containsText(expectedText)) {
             throw new ElementNotVisibleException(
                     "Expected text was not displayed: '" + expectedText + "'");
         }
     }
 
     public void waitForText(final WebElement element, final String expectedText) {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        while (System.currentTimeMillis() < end) {
-            if (containsText(element, expectedText)) {
-                break;
+        boolean textFound = waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return containsText(element, expectedText);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
-        if (!containsText(element, expectedText)) {
+        }, waitForTimeout);
+        if (!textFound && !containsText(element, expectedText)) {
             throw new ElementNotVisibleException(
                     "Expected text was not displayed: '" + expectedText + "'");
         }
     }
 
     public void waitForTitle(final String expectedTitle) {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        while (System.currentTimeMillis() < end) {
-            if (titleIs(expectedTitle)) {
-                break;
+        waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return titleIs(expectedTitle);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, waitForTimeout);
         if (!titleIs(expectedTitle)) {
             throw new ElementNotVisibleException(
                     "Expected title was not displayed: '" + expectedTitle + "'");
@@ -122,59 +122,78 @@ class RenderedPageObjectView {
         return ((driver.getTitle() != null) && (driver.getTitle().equals(expectedTitle)));
     }
 
+    /**
+     * Does this text appear anywhere on the page?
+     * If possible, the page text is searched with a single JavaScript call, which is much faster than asking
+     * the browser to evaluate an XPath expression over the whole body.
+     */
     public boolean containsText(final String textValue) {
-        String textInBody = String.format("//body[contains(.,\"%s\")]",
-                textValue);
-        List<WebElement> elements = driver.findElements(By.xpath(textInBody));
-        if (elements.isEmpty()) {
-            return false;
-        }
-        return true;
+        return checkTextsOnPage(textValue)[0];
     }
 
     public boolean containsText(final WebElement element, final String textValue) {
-        String textInBody = String.format("//body[contains(.,\"%s\")]", textValue);
-        List<WebElement> elements = element.findElements(By.xpath(textInBody));
-        if (elements.isEmpty()) {
-            return false;
+        List<WebElement> elements = element.findElements(By.xpath(textInBodyXPathFor(textValue)));
+        return !elements.isEmpty();
+    }
+
+    private boolean containsTextUsingXPath(final String textValue) {
+        List<WebElement> elements = driver.findElements(By.xpath(textInBodyXPathFor(textValue)));
+        return !elements.isEmpty();
+    }
+
+    private String textInBodyXPathFor(final String textValue) {
+        return String.format("//body[contains(.,%s)]", xpathLiteralFor(textValue));
+    }
+
+    /**
+     * XPath 1.0 has no escape characters, so texts containing both kinds of quotes need to be built using concat().
+     */
+    static String xpathLiteralFor(final String text) {
+        if (!text.contains("\"")) {
+            return "\"" + text + "\"";
+        }
+        if (!text.contains("'")) {
+            return "'" + text + "'";
+        }
+        StringBuilder literal = new StringBuilder("concat(");
+        String[] parts = text.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                literal.append(", '\"', ");
+            }
+            literal.append("\"").append(parts[i]).append("\"");
         }
-        return true;
+        return literal.append(")").toString();
     }
 
     public void waitForTextToDisappear(final String expectedText, final long timeout) {
-        long end = System.currentTimeMillis() + timeout;
-        while (System.currentTimeMillis() < end) {
-            if (!containsText(expectedText)) {
-                break;
+        waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return !containsText(expectedText);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, timeout);
         if (containsText(expectedText)) {
             throw new ElementNotVisibleException("Text was still displayed after timeout: '" + expectedText + "'");
         }
     }
 
     public void waitForTitleToDisappear(final String expectedTitle) {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        while (System.currentTimeMillis() < end) {
-            if (!titleIs(expectedTitle)) {
-                break;
+        waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return !titleIs(expectedTitle);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, waitForTimeout);
         if (titleIs(expectedTitle)) {
             throw new ElementNotVisibleException("Title was still displayed after timeout: '" + expectedTitle + "'");
         }
     }
 
     public void waitForAnyTextToAppear(final String... expectedTexts) {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        while (System.currentTimeMillis() < end) {
-            if (pageContains(expectedTexts)) {
-                break;
+        waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return pageContains(expectedTexts);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, waitForTimeout);
         if (!pageContains(expectedTexts)) {
             throw new ElementNotVisibleException("Expected text was not displayed: Was expecting any of '"
                       + Arrays.toString(expectedTexts));
@@ -182,13 +201,11 @@ class RenderedPageObjectView {
     }
     
     public void waitForAnyTextToAppear(final WebElement element, final String[] expectedText) {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        while (System.currentTimeMillis() < end) {
-            if (elementContains(element, expectedText)) {
-                break;
+        waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return elementContains(element, expectedText);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, waitForTimeout);
         if (!elementContains(element, expectedText)) {
             throw new ElementNotVisibleException("Expected text was not displayed: '"
                                                     + Arrays.toString(expectedText) + "'");
@@ -206,30 +223,41 @@ class RenderedPageObjectView {
     }
 
     private boolean pageContains(final String... expectedTexts) {
-        for(String expectedText : expectedTexts) {
-            if (containsText(expectedText)) {
+        for (boolean textFound : checkTextsOnPage(expectedTexts)) {
+            if (textFound) {
                 return true;
             }
         }
         return false;
     }
 
-    public void waitForAllTextToAppear(final String... expectedTexts) {
-        long end = System.currentTimeMillis() + waitForTimeout;
+    /**
+     * Check which texts are on the page, using a single browser call if possible.
+     */
+    private boolean[] checkTextsOnPage(final String... expectedTexts) {
+        if (batchedConditions.isAvailable()) {
+            try {
+                return batchedConditions.checkTextsOnPage(expectedTexts);
+            } catch (WebDriverException e) {
+                LOGGER.debug("Could not check texts in a single call, checking them one at a time", e);
+            }
+        }
+        boolean[] textsFound = new boolean[expectedTexts.length];
+        for (int i = 0; i < expectedTexts.length; i++) {
+            textsFound[i] = containsTextUsingXPath(expectedTexts[i]);
+        }
+        return textsFound;
+    }
 
-        List<String> requestedTexts = buildInitialListOfExpectedTextsFrom(expectedTexts);
-        
-        boolean allTextsFound = false;
-        while (System.currentTimeMillis() < end) {
-            requestedTexts = removeAnyTextsPresentOnPageFrom(requestedTexts);
+    public void waitForAllTextToAppear(final String... expectedTexts) {
+        final List<String> requestedTexts = buildInitialListOfExpectedTextsFrom(expectedTexts);
 
-            if (requestedTexts.isEmpty()) {
-                allTextsFound = true;
-                break;
+        boolean allTextsFound = waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                requestedTexts.retainAll(removeAnyTextsPresentOnPageFrom(requestedTexts));
+                return requestedTexts.isEmpty();
             }
-            
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, waitForTimeout);
         if (!allTextsFound) {
             throw new ElementNotVisibleException("Expected text was not displayed: was expecting all of "
                                                     + printableFormOf(requestedTexts));
@@ -249,24 +277,21 @@ class RenderedPageObjectView {
 
     private List<String> removeAnyTextsPresentOnPageFrom(final List<String> requestedTexts) {
         List<String> updatedList = new ArrayList<String>();
-        updatedList.addAll(requestedTexts);
-        
-        for(String requestedText : requestedTexts) {
-            if (pageContains(requestedText)) {
-                updatedList.remove(requestedText);
+        boolean[] textsFound = checkTextsOnPage(requestedTexts.toArray(new String[requestedTexts.size()]));
+        for (int i = 0; i < textsFound.length; i++) {
+            if (!textsFound[i]) {
+                updatedList.add(requestedTexts.get(i));
             }
         }
         return updatedList;
     }
 
     public void waitForElementsToDisappear(final By byElementCriteria) {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        while (System.currentTimeMillis() < end) {
-            if (!elementIsDisplayed(byElementCriteria)) {
-                break;
+        waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return !elementIsDisplayed(byElementCriteria);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, waitForTimeout);
         if (elementIsDisplayed(byElementCriteria)) {
             throw new ElementNotVisibleException("Element should not be displayed displayed: "
                     + byElementCriteria);
@@ -274,15 +299,11 @@ class RenderedPageObjectView {
     }
 
     public void waitForAnyRenderedElementOf(final By[] expectedElements) {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        boolean renderedElementFound = false;
-        while (System.currentTimeMillis() < end) {
-            if (anyElementRenderedIn(expectedElements)) {
-                renderedElementFound = true;
-                break;
+        boolean renderedElementFound = waitUntil(new ExpectedState() {
+            public boolean isReached() {
+                return anyElementRenderedIn(expectedElements);
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, waitForTimeout);
         if (!renderedElementFound) {
             throw new ElementNotVisibleException("None of the expected elements where displayed: '"
                                                     + Arrays.toString(expectedElements) + "'");
@@ -290,13 +311,28 @@ class RenderedPageObjectView {
     }
 
     private boolean anyElementRenderedIn(final By[] expectedElements) {
-        boolean elementRendered = false;
-        for (By expectedElement : expectedElements) {
-            if (elementIsDisplayed(expectedElement)) {
-                elementRendered = true;
-                break;
+        boolean[] possiblyRendered = checkPossiblyRenderedElements(expectedElements);
+        for (int i = 0; i < expectedElements.length; i++) {
+            if (possiblyRendered[i] && elementIsDisplayed(expectedElements[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rule out the elements that are certainly not displayed, using a single browser call if possible.
+     */
+    private boolean[] checkPossiblyRenderedElements(final By[] expectedElements) {
+        if (batchedConditions.isAvailable()) {
+            try {
+                return batchedConditions.checkRenderedElements(expectedElements);
+            } catch (WebDriverException e) {
+                LOGGER.debug("Could not check elements in a single call, checking them one at a time", e);
             }
         }
-        return elementRendered;
+        boolean[] possiblyRendered = new boolean[expectedElements.length];
+        Arrays.fill(possiblyRendered, true);
+        return possiblyRendered;
     }
 }
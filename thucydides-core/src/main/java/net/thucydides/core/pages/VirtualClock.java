@@ -0,0 +1,38 @@
+package net.thucydides.core.pages;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A clock that never really sleeps: pausing simply moves the clock forward.
+ * Waits using this clock time out straight away rather than after the real delay, which makes
+ * code that waits for pages to change quick and deterministic to test.
+ */
+public class VirtualClock extends InternalClock {
+
+    private final AtomicLong currentTime;
+
+    public VirtualClock() {
+        this(0);
+    }
+
+    public VirtualClock(final long startTime) {
+        this.currentTime = new AtomicLong(startTime);
+    }
+
+    @Override
+    public long getCurrentTime() {
+        return currentTime.get();
+    }
+
+    @Override
+    protected void sleepFor(final long timeInMilliseconds) {
+        advanceBy(timeInMilliseconds);
+    }
+
+    /**
+     * Move the clock forward, as if this much time had gone by.
+     */
+    public void advanceBy(final long timeInMilliseconds) {
+        currentTime.addAndGet(timeInMilliseconds);
+    }
+}
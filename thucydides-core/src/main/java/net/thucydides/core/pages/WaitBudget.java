@@ -0,0 +1,81 @@
+package net.thucydides.core.pages;
+
+import net.thucydides.core.metrics.Metrics;
+import net.thucydides.core.webdriver.Configuration;
+
+/**
+ * Keeps track of how long the current test and step have spent waiting for pages, and caps further waits
+ * once the configured budget is used up. This stops a failing test from spending minutes timing out
+ * on one wait after another.
+ * There is one budget per thread, restarted by the step listener at the start of each test.
+ */
+public class WaitBudget {
+
+    /**
+     * A budget of zero means there is no limit.
+     */
+    public static final long UNLIMITED = 0;
+
+    private static final ThreadLocal<WaitBudget> CURRENT_BUDGET = new ThreadLocal<WaitBudget>() {
+        @Override
+        protected WaitBudget initialValue() {
+            return new WaitBudget(UNLIMITED, UNLIMITED);
+        }
+    };
+
+    private final long testBudget;
+    private final long stepBudget;
+    private long timeWaitedInTest;
+    private long timeWaitedInStep;
+
+    public WaitBudget(final long testBudget, final long stepBudget) {
+        this.testBudget = testBudget;
+        this.stepBudget = stepBudget;
+    }
+
+    /**
+     * The budget for the test running in this thread.
+     */
+    public static WaitBudget current() {
+        return CURRENT_BUDGET.get();
+    }
+
+    /**
+     * Start a new budget for a test, using the configured limits.
+     */
+    public static void startTest() {
+        CURRENT_BUDGET.set(new WaitBudget(Configuration.getTestWaitBudget(), Configuration.getStepWaitBudget()));
+    }
+
+    public void startStep() {
+        timeWaitedInStep = 0;
+    }
+
+    /**
+     * How long a wait can actually last, given the time left in the budget.
+     */
+    public long allowedWaitFor(final long requestedTimeout) {
+        long allowedWait = requestedTimeout;
+        if (testBudget != UNLIMITED) {
+            allowedWait = Math.min(allowedWait, testBudget - timeWaitedInTest);
+        }
+        if (stepBudget != UNLIMITED) {
+            allowedWait = Math.min(allowedWait, stepBudget - timeWaitedInStep);
+        }
+        return Math.max(allowedWait, 0);
+    }
+
+    public void recordTimeSpentWaiting(final long timeInMilliseconds) {
+        Metrics.timer(Metrics.PAGE_WAIT).record(timeInMilliseconds);
+        timeWaitedInTest += timeInMilliseconds;
+        timeWaitedInStep += timeInMilliseconds;
+    }
+
+    public long getTimeWaitedInTest() {
+        return timeWaitedInTest;
+    }
+
+    public long getTimeWaitedInStep() {
+        return timeWaitedInStep;
+    }
+}
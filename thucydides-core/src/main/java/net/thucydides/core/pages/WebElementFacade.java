@@ -3,6 +3,7 @@ package net.thucydides.core.pages;
 import com.thoughtworks.selenium.Selenium;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.webdriver.Configuration;
+import net.thucydides.core.webdriver.ImmediateElementLookup;
 import net.thucydides.core.webdriver.WebDriverFacade;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.Select;
@@ -22,14 +23,21 @@ public class WebElementFacade {
     private final WebDriver driver;
     private RenderedPageObjectView renderedView;
 
-    private static final int WAIT_FOR_ELEMENT_PAUSE_LENGTH = 50;
-    private final transient long waitForTimeout = 10000;
+    private final InternalClock clock;
+
+    private static final long DEFAULT_WAIT_FOR_TIMEOUT = 10000;
+    private final transient long waitForTimeout = Configuration.getWaitForTimeout(DEFAULT_WAIT_FOR_TIMEOUT);
     private static final Logger LOGGER = LoggerFactory
             .getLogger(WebElementFacade.class);
 
     public WebElementFacade(final WebDriver driver, final WebElement webElement) {
+        this(driver, webElement, new InternalClock());
+    }
+
+    public WebElementFacade(final WebDriver driver, final WebElement webElement, final InternalClock clock) {
         this.driver = driver;
         this.webElement = webElement;
+        this.clock = clock;
     }
 
     /**
@@ -51,10 +59,13 @@ public class WebElementFacade {
      * The method will fail immediately if the element is not visible on the screen.
      */
     public boolean isCurrentlyVisible() {
+        ImmediateElementLookup.startImmediateLookup();
         try {
             return webElement.isDisplayed();
         } catch (NoSuchElementException e) {
             return false;
+        } finally {
+            ImmediateElementLookup.endImmediateLookup();
         }
     }
 
@@ -235,27 +246,15 @@ public class WebElementFacade {
     * Waits for the drop down to be rendered and selects the element based off the index
     * @param renderedElement: webelement that the use is waiting for
     */
-    public void waitForRenderedElement(WebElement renderedElement)
+    public void waitForRenderedElement(final WebElement renderedElement)
     {
-        long end = System.currentTimeMillis() + waitForTimeout;
-        boolean renderedElementFound = false;
-        while (System.currentTimeMillis() < end) {
-            if (renderedElement.isDisplayed()){
-                renderedElementFound = true;
-                break;
+        boolean renderedElementFound = new PollingWait(clock).waitUntil(new PollingWait.ExpectedState() {
+            public boolean isReached() {
+                return renderedElement.isDisplayed();
             }
-            waitABit(WAIT_FOR_ELEMENT_PAUSE_LENGTH);
-        }
+        }, waitForTimeout);
         if (!renderedElementFound) {
             throw new ElementNotVisibleException("Element is not visible");
         }
     }
-
-    private void waitABit(final long timeInMilliseconds) {
-        try {
-            Thread.sleep(timeInMilliseconds);
-        } catch (InterruptedException e) {
-            LOGGER.error("Wait interrupted", e);
-        }
-    }
 }
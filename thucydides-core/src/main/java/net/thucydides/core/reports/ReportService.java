@@ -1,5 +1,6 @@
 package net.thucydides.core.reports;
 
+import net.thucydides.core.metrics.Metrics;
 import net.thucydides.core.model.TestOutcome;
 import sun.misc.Service;
 
@@ -82,12 +83,15 @@ public class ReportService {
 
     private void generateReportFor(final TestOutcome testOutcome,
                                    final AcceptanceTestReporter reporter) {
+        long startTime = System.currentTimeMillis();
         try {
             reporter.setOutputDirectory(outputDirectory);
             reporter.generateReportFor(testOutcome);
         } catch (IOException e) {
             throw new ReportGenerationFailedError(
                     "Failed to generate reports using " + reporter, e);
+        } finally {
+            Metrics.timer(Metrics.REPORT_GENERATION).record(System.currentTimeMillis() - startTime);
         }
     }
 
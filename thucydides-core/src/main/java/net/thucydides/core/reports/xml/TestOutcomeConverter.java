@@ -7,6 +7,7 @@ import com.thoughtworks.xstream.converters.UnmarshallingContext;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import net.thucydides.core.model.ConcreteTestStep;
+import net.thucydides.core.model.StepTimings;
 import net.thucydides.core.model.Story;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestResult;
@@ -36,6 +37,7 @@ public class TestOutcomeConverter implements Converter {
     private static final String IGNORED_FIELD = "ignored";
     private static final String PENDING_FIELD = "pending";
     private static final String RESULT_FIELD = "result";
+    private static final String WAIT_TIME_FIELD = "wait-time";
     private static final String TEST_GROUP = "test-group";
     private static final String TEST_STEP = "test-step";
     private static final String USER_STORY = "user-story";
@@ -46,6 +48,12 @@ public class TestOutcomeConverter implements Converter {
     private static final String ERROR = "error";
     private static final String SCREENSHOT_FIELD = "screenshot";
     private static final String DESCRIPTION = "description";
+    private static final String TIMINGS = "timings";
+    private static final String STEP_TIME_FIELD = "step";
+    private static final String STEP_WAIT_TIME_FIELD = "wait";
+    private static final String SCREENSHOT_TIME_FIELD = "screenshot";
+    private static final String PAGE_SOURCE_TIME_FIELD = "page-source";
+    private static final String LISTENER_TIME_FIELD = "listeners";
 
     private transient String qualifier;
 
@@ -82,6 +90,7 @@ public class TestOutcomeConverter implements Converter {
         writer.addAttribute(IGNORED_FIELD, Integer.toString(testOutcome.getIgnoredCount()));
         writer.addAttribute(PENDING_FIELD, Integer.toString(testOutcome.getPendingCount()));
         writer.addAttribute(RESULT_FIELD, testOutcome.getResult().toString());
+        writeTimeSpentWaitingIfAny(writer, testOutcome);
         addUserStoryTo(writer, testOutcome.getUserStory());
         addRequirementsTo(writer, testOutcome.getTestedRequirements());
 
@@ -92,6 +101,12 @@ public class TestOutcomeConverter implements Converter {
     }
 
 
+    private void writeTimeSpentWaitingIfAny(final HierarchicalStreamWriter writer, final TestOutcome testOutcome) {
+        if (testOutcome.getTimeSpentWaiting() > 0) {
+            writer.addAttribute(WAIT_TIME_FIELD, Long.toString(testOutcome.getTimeSpentWaiting()));
+        }
+    }
+
     private String titleFrom(final TestOutcome testOutcome) {
         if (qualifier == null) {
             return testOutcome.getTitle();
@@ -141,11 +156,25 @@ public class TestOutcomeConverter implements Converter {
             writeScreenshotIfPresent(writer, concreteStep);
             addRequirementsTo(writer, step.getTestedRequirements());
             writeDescription(writer, concreteStep);
+            writeTimingsIfRecorded(writer, concreteStep);
             writeErrorForFailingTest(writer, concreteStep);
             writer.endNode();
         }
     }
 
+    private void writeTimingsIfRecorded(final HierarchicalStreamWriter writer, final ConcreteTestStep step) {
+        StepTimings timings = step.getTimings();
+        if (timings.isRecorded()) {
+            writer.startNode(TIMINGS);
+            writer.addAttribute(STEP_TIME_FIELD, Long.toString(timings.getStepTime()));
+            writer.addAttribute(STEP_WAIT_TIME_FIELD, Long.toString(timings.getWaitTime()));
+            writer.addAttribute(SCREENSHOT_TIME_FIELD, Long.toString(timings.getScreenshotTime()));
+            writer.addAttribute(PAGE_SOURCE_TIME_FIELD, Long.toString(timings.getPageSourceTime()));
+            writer.addAttribute(LISTENER_TIME_FIELD, Long.toString(timings.getListenerOverhead()));
+            writer.endNode();
+        }
+    }
+
     private void addUserStoryTo(final HierarchicalStreamWriter writer, final Story userStory) {
         if (userStory != null) {
             writer.startNode(USER_STORY);
@@ -234,6 +263,10 @@ public class TestOutcomeConverter implements Converter {
 
         TestOutcome testOutcome = new TestOutcome();
         testOutcome.setMethodName(reader.getAttribute(NAME_FIELD));
+        String waitTime = reader.getAttribute(WAIT_TIME_FIELD);
+        if (waitTime != null) {
+            testOutcome.setTimeSpentWaiting(Long.valueOf(waitTime));
+        }
         readChildren(reader, testOutcome);
         return testOutcome;
     }
@@ -347,8 +380,24 @@ public class TestOutcomeConverter implements Converter {
                 step.setDescription(reader.getValue());
             } else if (childNode.equals(REQUIREMENTS)) {
                 readTestStepRequirements(reader, step);
+            } else if (childNode.equals(TIMINGS)) {
+                readTestStepTimings(reader, step);
             }
             reader.moveUp();
         }
     }
+
+    private void readTestStepTimings(final HierarchicalStreamReader reader, final ConcreteTestStep step) {
+        StepTimings timings = step.getTimings();
+        timings.setStepTime(readTime(reader, STEP_TIME_FIELD));
+        timings.setWaitTime(readTime(reader, STEP_WAIT_TIME_FIELD));
+        timings.addScreenshotTime(readTime(reader, SCREENSHOT_TIME_FIELD));
+        timings.addPageSourceTime(readTime(reader, PAGE_SOURCE_TIME_FIELD));
+        timings.setListenerOverhead(readTime(reader, LISTENER_TIME_FIELD));
+    }
+
+    private long readTime(final HierarchicalStreamReader reader, final String field) {
+        String value = reader.getAttribute(field);
+        return (value == null) ? 0 : Long.parseLong(value);
+    }
 }
\ No newline at end of file
@@ -29,6 +29,7 @@ public class Photographer {
     private final File targetDirectory;
     private final ScreenshotSequence screenshotSequence;
     private final MessageDigest digest;
+    private long pageSourceTime;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Photographer.class);
 
@@ -106,7 +107,23 @@ public class Photographer {
 
     }
 
+    /**
+     * How long it took to save the page source for the last screenshot, in milliseconds.
+     */
+    public long getPageSourceTime() {
+        return pageSourceTime;
+    }
+
     private void savePageSourceFor(final String screenshotFile) throws IOException {
+        long startTime = System.currentTimeMillis();
+        try {
+            savePageSourceToFileFor(screenshotFile);
+        } finally {
+            pageSourceTime = System.currentTimeMillis() - startTime;
+        }
+    }
+
+    private void savePageSourceToFileFor(final String screenshotFile) throws IOException {
         if (WebDriver.class.isAssignableFrom(driver.getClass())) {
             try {
                 WebDriver webdriver = (WebDriver) driver;
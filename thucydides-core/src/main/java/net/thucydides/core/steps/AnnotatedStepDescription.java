@@ -6,6 +6,7 @@ import net.thucydides.core.annotations.TestsRequirement;
 import net.thucydides.core.annotations.TestsRequirements;
 import net.thucydides.core.annotations.Title;
 import net.thucydides.core.annotations.UserStoryCode;
+import net.thucydides.core.util.MethodIndex;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +25,9 @@ public final class AnnotatedStepDescription {
 
     private final ExecutedStepDescription description;
 
+    private Method testMethod;
+    private boolean testMethodLookedUp;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(AnnotatedStepDescription.class);
 
     public static AnnotatedStepDescription from(final ExecutedStepDescription description) {
@@ -72,6 +76,17 @@ public final class AnnotatedStepDescription {
         return findMethodCalled(withNoArguments(description.getName()), getTestClass());
     }
 
+    /**
+     * The test method is needed several times when a step is reported, so it is only looked up once.
+     */
+    private Method lookUpTestMethod(final String methodName, final Class<?> testClass) {
+        if (!testMethodLookedUp) {
+            testMethod = MethodIndex.of(testClass).findMethodCalled(methodName);
+            testMethodLookedUp = true;
+        }
+        return testMethod;
+    }
+
     private String withNoArguments(final String methodName) {
         int firstSpace = methodName.indexOf(':');
         if (firstSpace > 0) {
@@ -93,17 +108,10 @@ public final class AnnotatedStepDescription {
     }
 
     private Method findMethodCalled(final String methodName, final Class<?> testClass) {
-        Method methodFound = null;
-
-        if (testClass != null) {
-            Method[] methods = testClass.getMethods();
-            for (Method method : methods) {
-                if (method.getName().equals(methodName)) {
-                    methodFound = method;
-                }
-            }
+        if (testClass == null) {
+            return null;
         }
-        return methodFound;
+        return lookUpTestMethod(methodName, testClass);
     }
 
     public String getAnnotatedTitle() {
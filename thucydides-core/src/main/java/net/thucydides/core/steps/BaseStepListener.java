@@ -2,13 +2,16 @@ package net.thucydides.core.steps;
 
 import com.google.common.collect.ImmutableList;
 import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.metrics.Metrics;
 import net.thucydides.core.model.ConcreteTestStep;
+import net.thucydides.core.model.StepTimings;
 import net.thucydides.core.model.Story;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestResult;
 import net.thucydides.core.model.TestStep;
 import net.thucydides.core.model.TestStepGroup;
 import net.thucydides.core.pages.InternalClock;
+import net.thucydides.core.pages.WaitBudget;
 import net.thucydides.core.pages.Pages;
 import net.thucydides.core.screenshots.Photographer;
 import net.thucydides.core.screenshots.ScreenshotException;
@@ -19,9 +22,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static net.thucydides.core.model.TestResult.FAILURE;
 import static net.thucydides.core.model.TestResult.IGNORED;
@@ -35,35 +38,70 @@ import static net.thucydides.core.util.NameConverter.underscore;
  * Observations are recorded in an TestOutcome object. This includes
  * recording the names and results of each test, and taking and storing
  * screenshots at strategic points during the tests.
+ * <p/>
+ * A listener can be shared by tests running in parallel. The state of the test being run (its outcome,
+ * the current step and any step failure) is kept separately for each thread. Threads started while a
+ * test is running begin with no test of their own; a test that runs its steps in another thread (e.g.
+ * a JUnit test with a timeout) hands its state over using getCurrentTestState() and continueTest().
+ * The outcomes of all the tests are collected in a lock-free queue, in the order the tests started.
  *
  * @author johnsmart
  */
 public class BaseStepListener implements StepListener {
  
-    private final Collection<TestOutcome> testOutcomes;
-    private TestOutcome currentTestOutcome;
-    private Story testedStory;
-    private Class testClass;
-    private ConcreteTestStep currentTestStep;
+    private final Queue<TestOutcome> testOutcomes;
+    private final ThreadLocal<TestState> currentTest;
+    private volatile Story testedStory;
+    private volatile Class testClass;
  
     private WebDriver driver;
     private File outputDirectory;
  
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseStepListener.class);
  
-    private boolean aStepHasFailed;
-    private Throwable stepError;
     private InternalClock clock;
 
     private WebdriverProxyFactory proxyFactory;
 
     private BaseStepListener(final File outputDirectory) {
         this.proxyFactory = WebdriverProxyFactory.getFactory();
-        this.testOutcomes = new ArrayList<TestOutcome>();
+        this.testOutcomes = new ConcurrentLinkedQueue<TestOutcome>();
+        this.currentTest = new ThreadLocal<TestState>() {
+            @Override
+            protected TestState initialValue() {
+                return new TestState();
+            }
+        };
         this.clock = new InternalClock();
         this.outputDirectory = outputDirectory;
-        aStepHasFailed = false;
-        stepError = null;
+    }
+
+    /**
+     * What this listener knows about a test that is being run.
+     */
+    public static final class TestState {
+        private volatile TestOutcome testOutcome;
+        private volatile ConcreteTestStep testStep;
+        private volatile boolean aStepHasFailed;
+        private volatile Throwable stepError;
+    }
+
+    private TestState currentTest() {
+        return currentTest.get();
+    }
+
+    /**
+     * The state of the test being run in this thread, so that it can be continued in another thread.
+     */
+    public TestState getCurrentTestState() {
+        return currentTest();
+    }
+
+    /**
+     * Record the steps run in this thread in a test that was started in another thread.
+     */
+    public void continueTest(final TestState testState) {
+        currentTest.set(testState);
     }
 
     protected WebdriverProxyFactory getProxyFactory() {
@@ -74,6 +112,13 @@ public class BaseStepListener implements StepListener {
         return clock;
     }
 
+    /**
+     * Use a different clock for the pauses between steps, e.g. a VirtualClock in tests.
+     */
+    public void setClock(final InternalClock clock) {
+        this.clock = clock;
+    }
+
     public BaseStepListener(final Class<? extends WebDriver> driverClass, final File outputDirectory) {
         this(outputDirectory);
         this.driver = getProxyFactory().proxyFor(driverClass);
@@ -111,12 +156,12 @@ public class BaseStepListener implements StepListener {
     }
  
     public boolean aStepHasFailed() {
-        return aStepHasFailed;
+        return currentTest().aStepHasFailed;
     }
  
     public void noStepsHaveFailed() {
-        aStepHasFailed = false;
-        stepError = null;
+        currentTest().aStepHasFailed = false;
+        currentTest().stepError = null;
     }
 
     public boolean isDataDriven() {
@@ -125,24 +170,35 @@ public class BaseStepListener implements StepListener {
 
 
     public Throwable getStepError() {
-        return stepError;
+        return currentTest().stepError;
     }
  
     public List<TestOutcome> getTestOutcomes() {
         return ImmutableList.copyOf(testOutcomes);
     }
+
+    /**
+     * Forget the test outcomes recorded so far, once they have been passed on elsewhere.
+     */
+    public void clearTestOutcomes() {
+        testOutcomes.clear();
+    }
  
     private void recordCurrentTestStep(final ExecutedStepDescription description) {
-        if (currentTestStep != null) {
+        ConcreteTestStep currentTestStep = currentTest().testStep;
+        if (currentTest().testStep != null) {
  
-            addAnyTestedRequirementsIn(description);
+            AnnotatedStepDescription annotatedDescription = AnnotatedStepDescription.from(description);
+            addAnyTestedRequirementsIn(annotatedDescription);
  
-            String testName = AnnotatedStepDescription.from(description).getName();
+            String testName = annotatedDescription.getName();
             getCurrentStep().setDescription(testName);
             getCurrentStep().recordDuration();
+            currentTestStep.getTimings().setWaitTime(WaitBudget.current().getTimeWaitedInStep());
             if (getCurrentTestOutcome() != null) {
                 getCurrentTestOutcome().recordStep(currentTestStep);
                 getCurrentTestOutcome().recordDuration();
+                getCurrentTestOutcome().setTimeSpentWaiting(WaitBudget.current().getTimeWaitedInTest());
             }
  
             finishTestStep();
@@ -151,12 +207,16 @@ public class BaseStepListener implements StepListener {
  
  
     private void startNewTestStep(final ExecutedStepDescription description) {
-        currentTestStep = new ConcreteTestStep();
-        currentTestStep.setDescription(description.getName());
+        ConcreteTestStep newTestStep = new ConcreteTestStep();
+        newTestStep.setDescription(description.getName());
+        currentTest().testStep = newTestStep;
+        WaitBudget.current().startStep();
+        StepTimer.startTiming(newTestStep.getTimings());
     }
  
     private void finishTestStep() {
-        currentTestStep = null;
+        currentTest().testStep = null;
+        StepTimer.stopTiming();
     }
  
     private File grabScreenshotFileFor(final String testName) {
@@ -170,16 +230,18 @@ public class BaseStepListener implements StepListener {
     }
  
     protected TestOutcome getCurrentTestOutcome() {
-        return currentTestOutcome;
+        return currentTest().testOutcome;
     }
  
     protected void startNewTestOutcomeFor(final String testName, final Story story) {
         LOGGER.debug("startNewTestOutcomeFor {}", testName);
 
         this.testedStory = story;
-        currentTestOutcome = TestOutcome.forTestInStory(testName, testedStory, testClass);
-        testOutcomes.add(currentTestOutcome);
-        aStepHasFailed = false;
+        TestOutcome newTestOutcome = TestOutcome.forTestInStory(testName, testedStory, testClass);
+        currentTest().testOutcome = newTestOutcome;
+        currentTest().aStepHasFailed = false;
+        testOutcomes.add(newTestOutcome);
+        WaitBudget.startTest();
     }
 
     public void testRunStartedFor(final Class<?> testClass) {
@@ -220,11 +282,10 @@ public class BaseStepListener implements StepListener {
         getCurrentTestOutcome().setMethodName(testName);
     }
 
-    private void addAnyTestedRequirementsIn(final ExecutedStepDescription description) {
-        AnnotatedStepDescription testStepDescription = AnnotatedStepDescription.from(description);
+    private void addAnyTestedRequirementsIn(final AnnotatedStepDescription testStepDescription) {
         List<String> requirements = testStepDescription.getAnnotatedRequirements();
         for (String requirement : requirements) {
-            currentTestStep.testsRequirement(requirement);
+            currentTest().testStep.testsRequirement(requirement);
         }
     }
 
@@ -259,7 +320,7 @@ public class BaseStepListener implements StepListener {
 
         if (getCurrentStep() != null) {
             getCurrentStep().setResult(result);
-        } else if ((result == FAILURE) && (getTestOutcomes().isEmpty())) {
+        } else if ((result == FAILURE) && (getCurrentTestOutcome() == null)) {
             startNewTestStep(ExecutedStepDescription.withTitle("undefined"));
         }
     }
@@ -268,7 +329,8 @@ public class BaseStepListener implements StepListener {
         return ((result == FAILURE) && (getCurrentStep() == null) && (getCurrentTestOutcome().getStepCount() == 0));
     }
     private TestStep getCurrentStep() {
-        if (currentTestStep != null) {
+        ConcreteTestStep currentTestStep = currentTest().testStep;
+        if (currentTest().testStep != null) {
             return currentTestStep;
         } else {
             return getCurrentTestOutcome().getCurrentGroup();
@@ -276,7 +338,7 @@ public class BaseStepListener implements StepListener {
     }
  
     private void recordFailureDetailsInFailingTestStep(final StepFailure failure) {
-        if (currentTestStep != null) {
+        if (currentTest().testStep != null) {
           getCurrentStep().failedWith(failure.getMessage(), failure.getException());
         }
     }
@@ -292,10 +354,13 @@ public class BaseStepListener implements StepListener {
         if ((getCurrentStep() != null) && (shouldTakeScreenshotFor(result))) {
             try {
                 String testName = aTestCalled(description);
-                File screenshot = grabScreenshotFileFor(testName);
+                Photographer photographer = getPhotographer();
+                long startTime = System.currentTimeMillis();
+                File screenshot = photographer.takeScreenshot(underscore(testName));
+                recordScreenshotTime(System.currentTimeMillis() - startTime, photographer.getPageSourceTime());
                 getCurrentStep().setScreenshot(screenshot);
                 if (screenshot != null) {
-                    File sourcecode = getPhotographer().getMatchingSourceCodeFor(screenshot);
+                    File sourcecode = photographer.getMatchingSourceCodeFor(screenshot);
                     getCurrentStep().setHtmlSource(sourcecode);
                 }
             } catch (ScreenshotException e) {
@@ -304,6 +369,18 @@ public class BaseStepListener implements StepListener {
         }
     }
 
+    private void recordScreenshotTime(final long totalTime, final long pageSourceTime) {
+        long screenshotTime = Math.max(0, totalTime - pageSourceTime);
+        Metrics.timer(Metrics.SCREENSHOT).record(screenshotTime);
+        Metrics.timer(Metrics.PAGE_SOURCE).record(pageSourceTime);
+        ConcreteTestStep currentTestStep = currentTest().testStep;
+        if (currentTest().testStep != null) {
+            StepTimings timings = currentTestStep.getTimings();
+            timings.addPageSourceTime(pageSourceTime);
+            timings.addScreenshotTime(screenshotTime);
+        }
+    }
+
     private boolean shouldTakeScreenshotFor(final TestResult result) {
         String onlySaveFailures = System.getProperty(ThucydidesSystemProperty.ONLY_SAVE_FAILING_SCREENSHOTS.getPropertyName(), "false");
         Boolean onlySaveFailureScreenshots = Boolean.valueOf(onlySaveFailures);
@@ -350,7 +427,7 @@ public class BaseStepListener implements StepListener {
     }
  
     public void stepGroupFinished() {
-        if (currentTestOutcome != null) {
+        if (getCurrentTestOutcome() != null) {
             getCurrentTestOutcome().endGroup();
         }
     }
@@ -370,7 +447,7 @@ public class BaseStepListener implements StepListener {
      * Update the status of the current step (e.g to IGNORED or SKIPPED) without changing anything else.
      */
     public void updateCurrentStepStatus(final TestResult result) {
-        if (currentTestStep == null) {
+        if (currentTest().testStep == null) {
             updateMostRecentStepStatus(result);
         } else {
             markCurrentTestAs(result);
@@ -387,14 +464,35 @@ public class BaseStepListener implements StepListener {
         markCurrentTestAs(FAILURE);
         recordFailureDetailsInFailingTestStep(failure);
         takeScreenshotFor(failure.getDescription(), FAILURE);
-        if (currentTestStep != null) {
+        if (currentTest().testStep != null) {
             recordCurrentTestStep(failure.getDescription());
         }
     }
 
     private void stepFailedWith(final StepFailure failure) {
-        aStepHasFailed = true;
-        stepError = failure.getException();
+        currentTest().aStepHasFailed = true;
+        currentTest().stepError = failure.getException();
+    }
+
+    /**
+     * Add steps recorded by another listener to the current test.
+     * This is used for data-driven rows that were run in parallel by a DataDrivenWorker, so the test
+     * ends up with the same steps (and the same failure) as if the rows had been run here one after the other.
+     */
+    public void recordStepsRunElsewhere(final List<TestStep> steps, final Throwable error) {
+        if (!steps.isEmpty()) {
+            if (getCurrentTestOutcome() == null) {
+                startNewTestOutcomeFor(steps.get(0).getDescription(), testedStory);
+            }
+            for (TestStep step : steps) {
+                getCurrentTestOutcome().recordStep(step);
+            }
+            getCurrentTestOutcome().recordDuration();
+        }
+        if (error != null) {
+            currentTest().aStepHasFailed = true;
+            currentTest().stepError = error;
+        }
     }
  
     private boolean stepIsAGroup(final ExecutedStepDescription description) {
@@ -405,16 +503,17 @@ public class BaseStepListener implements StepListener {
 
         ensureThatTestHasStartedFor(description);
 
-        if (AnnotatedStepDescription.from(description).isPending()) {
+        AnnotatedStepDescription annotatedDescription = AnnotatedStepDescription.from(description);
+        if (annotatedDescription.isPending()) {
             markCurrentTestAs(PENDING);
-        } else if (AnnotatedStepDescription.from(description).isIgnored()) {
+        } else if (annotatedDescription.isIgnored()) {
             ignoreStepMethodWith(description);
         } else if (aStepHasFailed()){
             markCurrentTestAs(SKIPPED);
         } else {
             markCurrentTestAs(SKIPPED);
         }
-        if (currentTestStep != null) {
+        if (currentTest().testStep != null) {
             recordCurrentTestStep(description);
         }
     }
@@ -433,11 +532,11 @@ public class BaseStepListener implements StepListener {
     }
 
     private boolean testNotStartedYet() {
-        return (currentTestStep == null);
+        return (currentTest().testStep == null);
     }
 
     private void ignoreStepMethodWith(final ExecutedStepDescription description) {
-        if (currentTestStep == null) {
+        if (currentTest().testStep == null) {
             startNewTestStep(description);
         }
         markCurrentTestAs(IGNORED);
@@ -446,7 +545,7 @@ public class BaseStepListener implements StepListener {
  
     public void testFinished(final TestStepResult result) {
         LOGGER.debug("testFinished: ", result);
-        currentTestOutcome = null;
+        currentTest().testOutcome = null;
     }
  
 }
\ No newline at end of file
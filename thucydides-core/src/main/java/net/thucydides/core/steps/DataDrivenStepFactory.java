@@ -1,8 +1,5 @@
 package net.thucydides.core.steps;
 
-import net.sf.cglib.proxy.Enhancer;
-import net.thucydides.core.pages.Pages;
-
 import java.util.List;
 
 /**
@@ -10,21 +7,24 @@ import java.util.List;
  */
 public class DataDrivenStepFactory {
 
-    private static final Class<?>[] CONSTRUCTOR_ARG_TYPES = {Pages.class};
-
     public static ScenarioSteps newDataDrivenSteps(final Class<? extends ScenarioSteps> scenarioStepsClass,
                                                    final List<? extends ScenarioSteps> instantiatedSteps) {
-
-        Enhancer enhancer = new Enhancer();
-        enhancer.setSuperclass(scenarioStepsClass);
-
         DataDrivenStepInterceptor stepInterceptor = new DataDrivenStepInterceptor(instantiatedSteps);
-        enhancer.setCallback(stepInterceptor);
-
-        Object[] arguments = new Object[1];
-        arguments[0] = instantiatedSteps.get(0).getPages();
-        ScenarioSteps steps = (ScenarioSteps) enhancer.create(CONSTRUCTOR_ARG_TYPES, arguments);
+        return StepLibraryProxies.newProxyFor(scenarioStepsClass, stepInterceptor,
+                                              instantiatedSteps.get(0).getPages());
+    }
 
-        return steps;
+    /**
+     * Create a proxy that runs the rows of test data in parallel, each row using the step library
+     * created by its worker.
+     */
+    public static ScenarioSteps newParallelDataDrivenSteps(final Class<? extends ScenarioSteps> scenarioStepsClass,
+                                                           final List<? extends ScenarioSteps> instantiatedSteps,
+                                                           final List<DataDrivenWorker> rowWorkers,
+                                                           final StepFactory factory) {
+        ParallelDataDrivenStepInterceptor stepInterceptor
+                = new ParallelDataDrivenStepInterceptor(instantiatedSteps, rowWorkers, factory.getListeners());
+        return StepLibraryProxies.newProxyFor(scenarioStepsClass, stepInterceptor,
+                                              instantiatedSteps.get(0).getPages());
     }
 }
@@ -0,0 +1,133 @@
+package net.thucydides.core.steps;
+
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.pages.Pages;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs rows of data-driven steps in its own browser, when data-driven steps are run in parallel.
+ * Each worker has its own step factory and step listener, so the rows it runs are recorded (and their
+ * screenshots taken) independently of the other workers. The recorded steps are then added to the test
+ * outcome of the test that is running the data-driven steps.
+ * The rows are run in a thread that belongs to the worker, and that is kept for the whole test run
+ * rather than being started for each data-driven step. Call close() once the worker is no longer needed.
+ */
+public class DataDrivenWorker {
+
+    private final StepFactory stepFactory;
+    private final BaseStepListener listener;
+    private ExecutorService executor;
+
+    public DataDrivenWorker(final Pages pages, final File outputDirectory) {
+        this.listener = new BaseStepListener(outputDirectory, pages);
+        this.stepFactory = new StepFactory(pages);
+        this.stepFactory.addListener(listener);
+    }
+
+    /**
+     * Run a task in this worker's thread, which is started the first time the worker is used.
+     */
+    synchronized <T> Future<T> submit(final Callable<T> task) {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
+        }
+        return executor.submit(task);
+    }
+
+    /**
+     * Stop the worker's thread. This does not close the worker's browser, which is managed elsewhere.
+     */
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * A worker that is never closed should not stop the JVM from exiting.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final ThreadFactory defaultThreadFactory = Executors.defaultThreadFactory();
+
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = defaultThreadFactory.newThread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public StepFactory getStepFactory() {
+        return stepFactory;
+    }
+
+    /**
+     * The steps recorded for one row of test data.
+     */
+    static class RowResult {
+        private final List<TestStep> steps;
+        private final Throwable stepError;
+
+        RowResult(final List<TestStep> steps, final Throwable stepError) {
+            this.steps = steps;
+            this.stepError = stepError;
+        }
+
+        public List<TestStep> getSteps() {
+            return steps;
+        }
+
+        /**
+         * The error that made a step in this row fail, or null if all the steps passed.
+         */
+        public Throwable getStepError() {
+            return stepError;
+        }
+    }
+
+    /**
+     * A call to a step method for one row of test data.
+     */
+    interface RowInvocation {
+        void invoke() throws Throwable;
+    }
+
+    /**
+     * Run the steps for one row of test data, recording them as a separate test.
+     * Must be called from the thread that runs the row, while a data-driven step is in progress.
+     */
+    RowResult runRow(final String rowName, final RowInvocation invocation) throws Throwable {
+        listener.noStepsHaveFailed();
+        listener.testStarted(rowName);
+        try {
+            invocation.invoke();
+            return new RowResult(recordedSteps(), listener.getStepError());
+        } finally {
+            listener.testFinished(null);
+        }
+    }
+
+    /**
+     * The rows are only recorded here until their steps have been added to the test that ran them.
+     */
+    void forgetRecordedRows() {
+        listener.clearTestOutcomes();
+    }
+
+    private List<TestStep> recordedSteps() {
+        TestOutcome rowOutcome = listener.getCurrentTestOutcome();
+        if (rowOutcome == null) {
+            return Collections.emptyList();
+        }
+        return rowOutcome.getTestSteps();
+    }
+}
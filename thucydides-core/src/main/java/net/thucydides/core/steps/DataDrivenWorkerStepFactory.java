@@ -0,0 +1,33 @@
+package net.thucydides.core.steps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out the step libraries for successive rows of test data from each worker in turn,
+ * remembering which worker each row belongs to.
+ */
+class DataDrivenWorkerStepFactory extends StepFactory {
+
+    private final List<DataDrivenWorker> workers;
+    private final List<DataDrivenWorker> rowWorkers = new ArrayList<DataDrivenWorker>();
+
+    DataDrivenWorkerStepFactory(final List<DataDrivenWorker> workers) {
+        super(null);
+        this.workers = workers;
+    }
+
+    @Override
+    public <T extends ScenarioSteps> T newSteps(final Class<T> scenarioStepsClass) {
+        DataDrivenWorker worker = workers.get(rowWorkers.size() % workers.size());
+        rowWorkers.add(worker);
+        return worker.getStepFactory().newSteps(scenarioStepsClass);
+    }
+
+    /**
+     * The worker that created the step library for each row, in row order.
+     */
+    public List<DataDrivenWorker> getRowWorkers() {
+        return rowWorkers;
+    }
+}
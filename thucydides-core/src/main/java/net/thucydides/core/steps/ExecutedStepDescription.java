@@ -1,5 +1,7 @@
 package net.thucydides.core.steps;
 
+import net.thucydides.core.util.MethodIndex;
+
 import java.lang.reflect.Method;
 
 import static net.thucydides.core.util.NameConverter.humanize;
@@ -81,11 +83,9 @@ public class ExecutedStepDescription {
 
 
     private Method methodCalled(final String methodName, final Class<?> testClass) {
-        Method[] methods = testClass.getMethods();
-        for (Method method : methods) {
-            if (method.getName().equals(methodName)) {
-                return method;
-            }
+        Method method = MethodIndex.of(testClass).findMethodCalled(methodName);
+        if (method != null) {
+            return method;
         }
         throw new IllegalArgumentException("No test method called " + methodName + " was found in " + testClass);
     }
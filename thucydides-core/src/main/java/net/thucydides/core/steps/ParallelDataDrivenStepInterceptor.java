@@ -0,0 +1,160 @@
+package net.thucydides.core.steps;
+
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Invoke a step for each set of test data, running the rows in parallel using several workers.
+ * Each worker runs its rows one after the other in its own browser. Once all of the rows are done,
+ * the steps recorded for each row are added to the current test, in row order.
+ */
+public class ParallelDataDrivenStepInterceptor implements MethodInterceptor {
+
+    private final List<? extends ScenarioSteps> instantiatedSteps;
+    private final List<DataDrivenWorker> rowWorkers;
+    private final StepListenerRegistry listeners;
+
+    public ParallelDataDrivenStepInterceptor(final List<? extends ScenarioSteps> instantiatedSteps,
+                                             final List<DataDrivenWorker> rowWorkers,
+                                             final StepListenerRegistry listeners) {
+        this.instantiatedSteps = instantiatedSteps;
+        this.rowWorkers = rowWorkers;
+        this.listeners = listeners;
+    }
+
+    public Object intercept(final Object obj, final Method method, final Object[] args, final MethodProxy proxy)
+            throws Throwable {
+        if (method.getName().equals("finalize")) {
+            return null;
+        }
+        try {
+            DataDrivenWorker.RowResult[] rowResults = runRowsInParallel(method, args, proxy);
+            recordRowResults(rowResults);
+        } finally {
+            forgetRecordedRows();
+        }
+        return null;
+    }
+
+    private DataDrivenWorker.RowResult[] runRowsInParallel(final Method method,
+                                                           final Object[] args,
+                                                           final MethodProxy proxy) throws Throwable {
+        DataDrivenWorker.RowResult[] rowResults = new DataDrivenWorker.RowResult[instantiatedSteps.size()];
+        Set<DataDrivenWorker> workers = new LinkedHashSet<DataDrivenWorker>(rowWorkers);
+        if (workers.isEmpty()) {
+            return rowResults;
+        }
+        List<Future<Void>> runningWorkers = new ArrayList<Future<Void>>();
+        for (DataDrivenWorker worker : workers) {
+            runningWorkers.add(worker.submit(rowsRunBy(worker, method, args, proxy, rowResults)));
+        }
+        waitForAll(runningWorkers);
+        return rowResults;
+    }
+
+    private Callable<Void> rowsRunBy(final DataDrivenWorker worker,
+                                     final Method method,
+                                     final Object[] args,
+                                     final MethodProxy proxy,
+                                     final DataDrivenWorker.RowResult[] rowResults) {
+        return new Callable<Void>() {
+            public Void call() throws Exception {
+                DataDrivenStep.startDataDrivenStep();
+                try {
+                    for (int row = 0; row < instantiatedSteps.size(); row++) {
+                        if (rowWorkers.get(row) == worker) {
+                            rowResults[row] = worker.runRow(rowNameFor(method, row),
+                                                            invocationOf(instantiatedSteps.get(row), args, proxy));
+                        }
+                    }
+                    return null;
+                } catch (Exception e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new ExecutionException(e);
+                } finally {
+                    DataDrivenStep.endDataDrivenStep();
+                }
+            }
+        };
+    }
+
+    private DataDrivenWorker.RowInvocation invocationOf(final ScenarioSteps steps,
+                                                        final Object[] args,
+                                                        final MethodProxy proxy) {
+        return new DataDrivenWorker.RowInvocation() {
+            public void invoke() throws Throwable {
+                proxy.invoke(steps, args);
+            }
+        };
+    }
+
+    private String rowNameFor(final Method method, final int row) {
+        return method.getName() + " [" + (row + 1) + "]";
+    }
+
+    /**
+     * The worker threads outlive this step, so they must all be finished before it returns, even if one of them failed.
+     */
+    private void waitForAll(final List<Future<Void>> runningWorkers) throws Throwable {
+        Throwable firstError = null;
+        for (Future<Void> runningWorker : runningWorkers) {
+            try {
+                waitFor(runningWorker);
+            } catch (Throwable error) {
+                if (firstError == null) {
+                    firstError = error;
+                }
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+
+    private void waitFor(final Future<Void> runningWorker) throws Throwable {
+        try {
+            runningWorker.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if ((cause instanceof ExecutionException) && (cause.getCause() != null)) {
+                cause = cause.getCause();
+            }
+            throw cause;
+        }
+    }
+
+    /**
+     * Only base step listeners record test outcomes, so they are the only ones that need the row results.
+     */
+    private void recordRowResults(final DataDrivenWorker.RowResult[] rowResults) {
+        DataDrivenStep.startDataDrivenStep();
+        try {
+            for (StepListener listener : listeners.getListeners()) {
+                if (listener instanceof BaseStepListener) {
+                    for (DataDrivenWorker.RowResult rowResult : rowResults) {
+                        ((BaseStepListener) listener).recordStepsRunElsewhere(rowResult.getSteps(),
+                                                                              rowResult.getStepError());
+                    }
+                }
+            }
+        } finally {
+            DataDrivenStep.endDataDrivenStep();
+        }
+    }
+
+    private void forgetRecordedRows() {
+        for (DataDrivenWorker worker : new LinkedHashSet<DataDrivenWorker>(rowWorkers)) {
+            worker.forgetRecordedRows();
+        }
+    }
+}
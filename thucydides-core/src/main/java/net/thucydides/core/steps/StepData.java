@@ -1,6 +1,6 @@
 package net.thucydides.core.steps;
 
-import net.thucydides.core.csv.CSVTestDataSource;
+import net.thucydides.core.csv.TestDataFormats;
 import net.thucydides.core.csv.TestDataSource;
 
 import java.io.IOException;
@@ -15,8 +15,11 @@ public final class StepData {
     private final String testDataSource;
     private char separator = ',';
     private StepFactory factory;
+    private List<DataDrivenWorker> workers;
 
     private static final ThreadLocal<StepFactory> factoryThreadLocal = new ThreadLocal();
+    private static final ThreadLocal<List<DataDrivenWorker>> workersThreadLocal
+            = new ThreadLocal<List<DataDrivenWorker>>();
 
     public StepData(final String testDataSource) {
         this.testDataSource = testDataSource;
@@ -29,9 +32,13 @@ public final class StepData {
     public <T extends ScenarioSteps> T run(final T steps) throws IOException {
 
         useDefaultStepFactoryIfUnassigned();
-        TestDataSource testdata = new CSVTestDataSource(testDataSource, separator);
+        useDefaultWorkersIfUnassigned();
+        TestDataSource testdata = TestDataFormats.open(testDataSource, separator);
 
         Class<? extends ScenarioSteps> scenarioStepsClass = (Class<? extends ScenarioSteps>) steps.getClass().getSuperclass();
+        if (runInParallel()) {
+            return (T) parallelStepsFor(scenarioStepsClass, testdata);
+        }
         List<T> instanciatedSteps = (List<T>) testdata.getInstanciatedInstancesFrom(scenarioStepsClass, factory);
 
         T stepsProxy = (T) DataDrivenStepFactory.newDataDrivenSteps(scenarioStepsClass, instanciatedSteps);
@@ -39,6 +46,29 @@ public final class StepData {
         return stepsProxy;
     }
 
+    /**
+     * Each row is run using a step library created by one of the workers, in its own browser.
+     */
+    private ScenarioSteps parallelStepsFor(final Class<? extends ScenarioSteps> scenarioStepsClass,
+                                           final TestDataSource testdata) {
+        DataDrivenWorkerStepFactory workerFactory = new DataDrivenWorkerStepFactory(workers);
+        List<? extends ScenarioSteps> instanciatedSteps
+                = testdata.getInstanciatedInstancesFrom(scenarioStepsClass, workerFactory);
+
+        return DataDrivenStepFactory.newParallelDataDrivenSteps(scenarioStepsClass, instanciatedSteps,
+                                                                workerFactory.getRowWorkers(), factory);
+    }
+
+    private boolean runInParallel() {
+        return (workers != null) && (!workers.isEmpty());
+    }
+
+    private void useDefaultWorkersIfUnassigned() {
+        if (workers == null) {
+            workers = getDefaultWorkers();
+        }
+    }
+
     private void useDefaultStepFactoryIfUnassigned() {
         if (factory == null) {
             factory = getDefaultStepFactory();
@@ -50,6 +80,22 @@ public final class StepData {
         return this;
     }
 
+    /**
+     * Run the rows of test data in parallel, sharing them out between these workers.
+     */
+    public StepData inParallelUsing(final List<DataDrivenWorker> workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    public static void setDefaultWorkers(final List<DataDrivenWorker> workers) {
+        workersThreadLocal.set(workers);
+    }
+
+    public static List<DataDrivenWorker> getDefaultWorkers() {
+        return workersThreadLocal.get();
+    }
+
     public static void setDefaultStepFactory(final StepFactory factory) {
         factoryThreadLocal.set(factory);
     }
@@ -1,6 +1,5 @@
 package net.thucydides.core.steps;
 
-import net.sf.cglib.proxy.Enhancer;
 import net.thucydides.core.pages.Pages;
 
 import java.util.ArrayList;
@@ -15,7 +14,7 @@ public class StepFactory {
 
     private final Pages pages;
     
-    private final List<StepListener> listeners = new ArrayList<StepListener>();
+    private final StepListenerRegistry listeners = new StepListenerRegistry();
     
     private final List<ScenarioSteps> managedSteps = new ArrayList<ScenarioSteps>();
 
@@ -29,27 +28,22 @@ public class StepFactory {
     }
     
     public void addListener(final StepListener listener) {
-        if (!listeners.contains(listener)) {
-            listeners.add(listener);
-        }
+        listeners.register(listener);
+    }
+
+    StepListenerRegistry getListeners() {
+        return listeners;
     }
-    
-    private static final Class<?>[] CONSTRUCTOR_ARG_TYPES = {Pages.class};
     
     /**
      * Returns a new ScenarioSteps instance, of the specified type.
      * This is actually a proxy that allows reporting and screenshots to
-     * be performed at each step.
+     * be performed at each step. The proxy class is only generated the first time
+     * a given step library is used.
      */
     public <T extends ScenarioSteps> T newSteps(final Class<T> scenarioStepsClass) {
-        Enhancer e = new Enhancer();
-        e.setSuperclass(scenarioStepsClass);
         StepInterceptor stepInterceptor = new StepInterceptor(scenarioStepsClass, listeners);
-        e.setCallback(stepInterceptor);
-        
-        Object[] arguments = new Object[1];
-        arguments[0] = pages;
-        T steps = (T) e.create(CONSTRUCTOR_ARG_TYPES, arguments);
+        T steps = StepLibraryProxies.newProxyFor(scenarioStepsClass, stepInterceptor, pages);
 
         instanciateAnyNestedStepLibrariesIn(steps, scenarioStepsClass);
 
@@ -7,6 +7,7 @@ import java.util.List;
 
 import net.thucydides.core.annotations.Step;
 import net.thucydides.core.annotations.StepProvider;
+import net.thucydides.core.util.MethodIndex;
 
 /**
  * The Step Index class is a way to allow the dynamic discovery of what test steps are available.
@@ -58,14 +59,7 @@ public abstract class StepIndex {
     }
 
     public List<Method> getStepsFor(final Class<? extends ScenarioSteps> scenarioClass) {
-        List<Method> steps = new ArrayList<Method>();
-        Method[] methods = scenarioClass.getMethods();
-        for(Method method : methods) {
-            if (method.isAnnotationPresent(Step.class)) {
-                steps.add(method);
-            }
-        }
-        return steps;
+        return MethodIndex.of(scenarioClass).getMethodsAnnotatedWith(Step.class);
     }
 
     @SuppressWarnings("unchecked")
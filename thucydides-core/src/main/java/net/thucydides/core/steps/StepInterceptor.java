@@ -3,10 +3,9 @@ package net.thucydides.core.steps;
 import com.google.common.collect.Lists;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
-import net.thucydides.core.annotations.Pending;
-import net.thucydides.core.annotations.Step;
-import net.thucydides.core.annotations.StepGroup;
-import net.thucydides.core.webdriver.WebdriverAssertionError;import org.junit.Ignore;
+import net.thucydides.core.metrics.Metrics;
+import net.thucydides.core.model.StepTimings;
+import net.thucydides.core.webdriver.WebdriverAssertionError;
 import org.openqa.selenium.WebDriverException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,8 +13,8 @@ import org.slf4j.LoggerFactory;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Listen to step results and publish notification messages.
@@ -26,7 +25,8 @@ import java.util.List;
  */
 public class StepInterceptor implements MethodInterceptor, Serializable {
 
-    private final List<StepListener> listeners;
+    private final StepListenerRegistry listeners;
+    private final ConcurrentMap<Method, StepMethod> stepMethods;
     private final Class<? extends ScenarioSteps> testStepClass;
     private TestStepResult resultTally;
     private List<Throwable> stepExceptions;
@@ -35,8 +35,18 @@ public class StepInterceptor implements MethodInterceptor, Serializable {
 
     public StepInterceptor(final Class<? extends ScenarioSteps> testStepClass,
                            final List<StepListener> listeners) {
+        this(testStepClass, new StepListenerRegistry(listeners));
+    }
+
+    /**
+     * The interceptor notifies the listeners currently in the registry, including any listeners
+     * registered after the interceptor was created.
+     */
+    public StepInterceptor(final Class<? extends ScenarioSteps> testStepClass,
+                           final StepListenerRegistry listeners) {
         this.testStepClass = testStepClass;
         this.listeners = listeners;
+        this.stepMethods = StepMethod.methodsOf(testStepClass);
         this.resultTally = new TestStepResult();
         this.stepExceptions = new ArrayList<Throwable>();
     }
@@ -44,94 +54,82 @@ public class StepInterceptor implements MethodInterceptor, Serializable {
     public Object intercept(final Object obj, final Method method,
                             final Object[] args, final MethodProxy proxy) throws Throwable {
 
-        if (invokingLast(method)) {
-            notifyFinished(method);
+        StepMethod stepMethod = StepMethod.from(stepMethods, method);
+        if (stepMethod.isLastMethod()) {
+            notifyFinished();
             return null;
         }
 
+        StepInvocation invocation = new StepInvocation(testStepClass, method, args);
         Object result = null;
-        if (baseClassMethod(method)) {
-            return runNormalMethod(obj, method, args, proxy);
-        } else if (isATestGroup(method)) {
-            notifyGroupStarted(method, args);
-            result = runTestGroupStep(obj, method, args, proxy);
-            notifyGroupFinished(method, args);
+        if (stepMethod.isObjectMethod()) {
+            return runNormalMethod(obj, invocation, args, proxy);
+        } else if (stepMethod.isStepGroup()) {
+            notifyGroupStarted(invocation);
+            result = runTestGroupStep(obj, invocation, args, proxy);
+            notifyGroupFinished();
         } else {
-            result = testStepResult(obj, method, args, proxy);
+            result = testStepResult(obj, invocation, stepMethod, args, proxy);
         }
         return result;
 
     }
 
-    private final List<String> OBJECT_METHODS
-       = Arrays.asList("toString",
-            "equals",
-            "hashcode",
-            "clone",
-            "notify",
-            "notifyAll",
-            "wait",
-            "finalize");
-
-    private boolean baseClassMethod(final Method method) {
-        return (OBJECT_METHODS.contains(method.getName()));
-    }
-
-    private Object testStepResult(final Object obj, final Method method,
+    private Object testStepResult(final Object obj, final StepInvocation invocation, final StepMethod stepMethod,
                                   final Object[] args, final MethodProxy proxy) throws Throwable {
 
-        if (!isATestStep(method) && !shouldSkip(method)) {
-            return runNormalMethod(obj, method, args, proxy);
+        boolean skipStep = shouldSkip(stepMethod);
+        if (!stepMethod.isStep() && !skipStep) {
+            return runNormalMethod(obj, invocation, args, proxy);
         }
 
-        notifyStepStarted(method, args);
+        long stepStartTime = System.currentTimeMillis();
+        notifyStepStarted(invocation);
 
-        if (shouldSkip(method)) {
-            notifyTestSkippedFor(method, args);
+        if (skipStep) {
+            notifyTestSkippedFor(invocation);
             return null;
         }
 
-        return runTestStep(obj, method, args, proxy);
+        return runTestStep(obj, invocation, args, proxy, stepStartTime);
 
     }
 
-    private boolean shouldSkip(final Method method) {
-        return aPreviousStepHasFailed() ||  isPending(method) || isIgnored(method);
+    private boolean shouldSkip(final StepMethod stepMethod) {
+        return aPreviousStepHasFailed() || stepMethod.isPending() || stepMethod.isIgnored();
     }
 
     private boolean aPreviousStepHasFailed() {
-        boolean aPreviousStepHasFailed = false;
-        for (StepListener listener : listeners) {
-            if (listener.aStepHasFailed() && !listener.isDataDriven()) {
-                aPreviousStepHasFailed = true;
-            }
-        }
-        return aPreviousStepHasFailed;
+        return listeners.aStepHasFailed();
     }
 
-    private Object runNormalMethod(final Object obj, final Method method, final Object[] args, final MethodProxy proxy)
-            throws Throwable {
-        LOGGER.info("Running test step " + getTestNameFrom(method, args, false));
+    private Object runNormalMethod(final Object obj, final StepInvocation invocation,
+                                   final Object[] args, final MethodProxy proxy) throws Throwable {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Running test step " + invocation.getPlainName());
+        }
         Object result = null;
         try {
-            result = invokeMethod(obj, method, args, proxy);
+            result = invokeMethod(obj, args, proxy);
         } catch (AssertionError assertionError) {
             error = assertionError;
             stepExceptions.add(assertionError);
-            notifyFailureOf(method, args, assertionError);
+            notifyFailureOf(invocation, assertionError);
         }
         catch (WebDriverException webdriverException) {
             error = webdriverException;
             stepExceptions.add(webdriverException);
-            notifyFailureOf(method, args, webdriverException);
+            notifyFailureOf(invocation, webdriverException);
         }
         return result;
     }
 
-    private Object runTestGroupStep(final Object obj, final Method method,
+    private Object runTestGroupStep(final Object obj, final StepInvocation invocation,
                                     final Object[] args, final MethodProxy proxy) throws Throwable {
 
-        LOGGER.info("Running test step group " + getTestNameFrom(method, args, false));
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Running test step group " + invocation.getPlainName());
+        }
         Object result = null;
         try {
             result = proxy.invokeSuper(obj, args);
@@ -139,174 +137,127 @@ public class StepInterceptor implements MethodInterceptor, Serializable {
             if (!stepExceptions.contains(assertionError)) {
                 error = assertionError;
                 stepExceptions.add(assertionError);
-                notifyFailureOf(method, args, assertionError);
+                notifyFailureOf(invocation, assertionError);
             }
         }
         return result;
     }
 
-    private boolean isATestGroup(final Method method) {
-        return (getTestGroupAnnotationFor(method) != null);
-    }
-
-    private StepGroup getTestGroupAnnotationFor(final Method method) {
-        return method.getAnnotation(StepGroup.class);
-    }
-
-    private boolean isATestStep(final Method method) {
-        Step stepAnnotation = method.getAnnotation(Step.class);
-        return (stepAnnotation != null);
-    }
-
-    private boolean isIgnored(final Method method) {
-        Ignore ignoreAnnotation = method.getAnnotation(Ignore.class);
-        return (ignoreAnnotation != null);
-    }
-
-    private Object runTestStep(final Object obj, final Method method,
-                               final Object[] args, final MethodProxy proxy) throws Throwable {
-        LOGGER.info("Running test step " + getTestNameFrom(method, args, false));
+    private Object runTestStep(final Object obj, final StepInvocation invocation,
+                               final Object[] args, final MethodProxy proxy,
+                               final long stepStartTime) throws Throwable {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Running test step " + invocation.getPlainName());
+        }
+        StepTimings timings = StepTimer.currentTimings();
+        long stepBodyStartTime = System.currentTimeMillis();
         Object result = null;
         try {
-            result = proxy.invokeSuper(obj, args);
+            result = invokeStepMethod(obj, args, proxy, timings);
         } catch (AssertionError assertionError) {
             error = assertionError;
             stepExceptions.add(assertionError);
-            LOGGER.debug("Addertion error caught - notifying of failure " + assertionError);
-            notifyFailureOf(method, args, assertionError);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Addertion error caught - notifying of failure " + assertionError);
+            }
+            notifyFailureOf(invocation, assertionError);
         } catch (WebDriverException webdriverException) {
             error = webdriverException;
             AssertionError webdriverAssertionError = new WebdriverAssertionError(error.getMessage(), error);
             stepExceptions.add(webdriverAssertionError);
-            notifyFailureOf(method, args, webdriverAssertionError);
+            notifyFailureOf(invocation, webdriverAssertionError);
         }
 
-        notifyTestFinishedFor(method, args);
+        notifyTestFinishedFor(invocation);
+        recordListenerOverhead(timings, stepStartTime, stepBodyStartTime);
 
         resultTally.logExecutedTest();
-        LOGGER.info("Test step done: " + getTestNameFrom(method, args, false));
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Test step done: " + invocation.getPlainName());
+        }
         return result;
     }
 
-    private Object invokeMethod(final Object obj, final Method method,
-                                final Object[] args, final MethodProxy proxy) throws Throwable {
-        return proxy.invokeSuper(obj, args);
-    }
-
-    private boolean isPending(final Method method) {
-        Pending pendingAnnotation = method.getAnnotation(Pending.class);
-        return (pendingAnnotation != null);
-    }
-
-    private void notifyTestFinishedFor(final Method method, final Object[] args) {
-        ExecutedStepDescription description = ExecutedStepDescription.of(testStepClass, getTestNameFrom(method, args));
-        for (StepListener listener : listeners) {
-            listener.stepFinished(description);
+    private Object invokeStepMethod(final Object obj, final Object[] args,
+                                    final MethodProxy proxy, final StepTimings timings) throws Throwable {
+        long startTime = System.currentTimeMillis();
+        try {
+            return proxy.invokeSuper(obj, args);
+        } finally {
+            timings.setStepTime(System.currentTimeMillis() - startTime);
+            Metrics.timer(Metrics.STEP_DURATION).record(timings.getStepTime());
         }
     }
 
-    private String getTestNameFrom(final Method method, final Object[] args) {
-        return getTestNameFrom(method, args, true);
+    /**
+     * Time spent notifying the listeners before and after the step method, not counting screenshots.
+     */
+    private void recordListenerOverhead(final StepTimings timings,
+                                        final long stepStartTime,
+                                        final long stepBodyStartTime) {
+        long stepBodyEndTime = stepBodyStartTime + timings.getStepTime();
+        long notificationTime = (stepBodyStartTime - stepStartTime)
+                                + (System.currentTimeMillis() - stepBodyEndTime);
+        long overhead = notificationTime - timings.getScreenshotTime() - timings.getPageSourceTime();
+        timings.setListenerOverhead(Math.max(0, overhead));
     }
 
-    private String getTestNameFrom(final Method method, final Object[] args, final boolean addMarkup) {
-        if ((args == null) || (args.length == 0)) {
-            return method.getName();
-        } else {
-            return testNameWithArguments(method, args, addMarkup);
-        }
+    private Object invokeMethod(final Object obj, final Object[] args, final MethodProxy proxy) throws Throwable {
+        return proxy.invokeSuper(obj, args);
     }
 
-    private String testNameWithArguments(final Method method,
-                                         final Object[] args, final boolean addMarkup) {
-        StringBuffer testName = new StringBuffer(method.getName());
-        testName.append(": ");
-        if (addMarkup) {
-            if (args.length == 1) {
-                testName.append("<span class='single-parameter'>");
-            } else {
-                testName.append("<span class='parameters'>");
-            }
-        }
-        boolean isFirst = true;
-        for (Object arg : args) {
-            if (!isFirst) {
-                testName.append(", ");
-            }
-            testName.append(arg);
-            isFirst = false;
-        }
-        if (addMarkup) {
-            testName.append("</span>");
+    private void notifyTestFinishedFor(final StepInvocation invocation) {
+        ExecutedStepDescription description = invocation.getDescription();
+        for (StepListener listener : listeners.getListeners()) {
+            listener.stepFinished(description);
         }
-        return testName.toString();
     }
 
-    private void notifyTestSkippedFor(final Method method, final Object[] args)
-            throws Exception {
-        ExecutedStepDescription description = ExecutedStepDescription.of(testStepClass, getTestNameFrom(method, args));
-        for (StepListener listener : listeners) {
+    private void notifyTestSkippedFor(final StepInvocation invocation) throws Exception {
+        ExecutedStepDescription description = invocation.getDescription();
+        for (StepListener listener : listeners.getListeners()) {
             listener.stepIgnored(description);
         }
 
         resultTally.logIgnoredTest();
     }
 
-    private void notifyFailureOf(final Method method, final Object[] args,
-                                 final Throwable cause) throws Exception {
-        ExecutedStepDescription description = ExecutedStepDescription.of(testStepClass, getTestNameFrom(method, args));
-
-        StepFailure failure = new StepFailure(description, cause);
+    private void notifyFailureOf(final StepInvocation invocation, final Throwable cause) throws Exception {
+        StepFailure failure = new StepFailure(invocation.getDescription(), cause);
+        Metrics.counter(Metrics.STEP_FAILURES).increment();
 
-        for (StepListener listener : listeners) {
+        for (StepListener listener : listeners.getListeners()) {
             listener.stepFailed(failure);
         }
         resultTally.logFailure(failure);
     }
 
-    private void notifyFinished(final Method method) throws Exception {
+    private void notifyFinished() throws Exception {
 
-        for (StepListener listener : listeners) {
+        for (StepListener listener : listeners.getListeners()) {
             listener.testFinished(resultTally);
         }
     }
 
-    private void notifyGroupStarted(final Method method, final Object[] args)
-            throws Exception {
-
-        ExecutedStepDescription description = ExecutedStepDescription.of(testStepClass, getTestNameFrom(method, args));
-        for (StepListener listener : listeners) {
+    private void notifyGroupStarted(final StepInvocation invocation) throws Exception {
+        ExecutedStepDescription description = invocation.getDescription();
+        for (StepListener listener : listeners.getListeners()) {
             listener.stepGroupStarted(description);
         }
     }
 
-    private void notifyGroupFinished(final Method method, final Object[] args)
-            throws Exception {
-        for (StepListener listener : listeners) {
+    private void notifyGroupFinished() throws Exception {
+        for (StepListener listener : listeners.getListeners()) {
             listener.stepGroupFinished();
         }
     }
 
 
-    private void notifyTestStarted(final Method method, final Object[] args) {
-
-        ExecutedStepDescription description = ExecutedStepDescription.of(testStepClass, getTestNameFrom(method, args));
-        for (StepListener listener : listeners) {
-            listener.testStarted(method.getName());
-        }
-    }
-
-    private void notifyStepStarted(final Method method, final Object[] args) {
-
-        ExecutedStepDescription description = ExecutedStepDescription.of(testStepClass, getTestNameFrom(method, args));
-        for (StepListener listener : listeners) {
+    private void notifyStepStarted(final StepInvocation invocation) {
+        ExecutedStepDescription description = invocation.getDescription();
+        for (StepListener listener : listeners.getListeners()) {
             listener.stepStarted(description);
         }
     }
 
-    private boolean invokingLast(final Method method) {
-        return (method.getName().equals("done") || (method.getName()
-                .equals("finalize")));
-    }
-
 }
@@ -0,0 +1,73 @@
+package net.thucydides.core.steps;
+
+import java.lang.reflect.Method;
+
+/**
+ * A single call to a step library method, as seen by the step interceptor.
+ * The step name is only built when it is first needed, and then reused for every notification
+ * about this call. The plain version of the name (without HTML markup) is only used for logging.
+ */
+class StepInvocation {
+
+    private final Class<? extends ScenarioSteps> testStepClass;
+    private final Method method;
+    private final Object[] args;
+
+    private ExecutedStepDescription description;
+    private String plainName;
+
+    StepInvocation(final Class<? extends ScenarioSteps> testStepClass, final Method method, final Object[] args) {
+        this.testStepClass = testStepClass;
+        this.method = method;
+        this.args = args;
+    }
+
+    /**
+     * The step description sent to the step listeners, with the arguments marked up for the reports.
+     */
+    public ExecutedStepDescription getDescription() {
+        if (description == null) {
+            description = ExecutedStepDescription.of(testStepClass, nameOf(true));
+        }
+        return description;
+    }
+
+    public String getPlainName() {
+        if (plainName == null) {
+            plainName = nameOf(false);
+        }
+        return plainName;
+    }
+
+    private String nameOf(final boolean addMarkup) {
+        if ((args == null) || (args.length == 0)) {
+            return method.getName();
+        } else {
+            return nameWithArguments(addMarkup);
+        }
+    }
+
+    private String nameWithArguments(final boolean addMarkup) {
+        StringBuilder testName = new StringBuilder(method.getName());
+        testName.append(": ");
+        if (addMarkup) {
+            if (args.length == 1) {
+                testName.append("<span class='single-parameter'>");
+            } else {
+                testName.append("<span class='parameters'>");
+            }
+        }
+        boolean isFirst = true;
+        for (Object arg : args) {
+            if (!isFirst) {
+                testName.append(", ");
+            }
+            testName.append(arg);
+            isFirst = false;
+        }
+        if (addMarkup) {
+            testName.append("</span>");
+        }
+        return testName.toString();
+    }
+}
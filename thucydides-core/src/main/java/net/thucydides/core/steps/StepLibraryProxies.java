@@ -0,0 +1,78 @@
+package net.thucydides.core.steps;
+
+import com.google.common.collect.MapMaker;
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.thucydides.core.pages.Pages;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates the proxies used to intercept calls to step libraries.
+ * Generating a proxy class is expensive, so the proxy class for each step library is only generated once.
+ * Each proxy instance still gets its own interceptor.
+ */
+final class StepLibraryProxies {
+
+    private static final Class<?>[] CONSTRUCTOR_ARG_TYPES = {Pages.class};
+
+    /**
+     * A proxy class extends its step library class, so the constructors are soft references:
+     * a strongly held proxy constructor would keep the weakly held step library class alive.
+     */
+    private static final ConcurrentMap<Class<?>, Constructor<?>> PROXY_CONSTRUCTORS
+            = new MapMaker().weakKeys().softValues().makeMap();
+
+    private StepLibraryProxies() {}
+
+    /**
+     * Create a proxy for a step library, sending every method call (including calls made by the
+     * step library's constructor) to the interceptor.
+     */
+    static <T extends ScenarioSteps> T newProxyFor(final Class<T> stepLibraryClass,
+                                                   final MethodInterceptor interceptor,
+                                                   final Pages pages) {
+        Constructor<?> constructor = proxyConstructorFor(stepLibraryClass);
+        Class<?> proxyClass = constructor.getDeclaringClass();
+        Enhancer.registerCallbacks(proxyClass, new Callback[] {interceptor});
+        try {
+            return stepLibraryClass.cast(constructor.newInstance(pages));
+        } catch (InvocationTargetException e) {
+            throw new IllegalArgumentException("Could not create step library " + stepLibraryClass, e.getCause());
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Could not create step library " + stepLibraryClass, e);
+        } finally {
+            Enhancer.registerCallbacks(proxyClass, null);
+        }
+    }
+
+    private static Constructor<?> proxyConstructorFor(final Class<? extends ScenarioSteps> stepLibraryClass) {
+        Constructor<?> constructor = PROXY_CONSTRUCTORS.get(stepLibraryClass);
+        if (constructor == null) {
+            constructor = constructorOf(proxyClassFor(stepLibraryClass));
+            PROXY_CONSTRUCTORS.putIfAbsent(stepLibraryClass, constructor);
+        }
+        return constructor;
+    }
+
+    private static Class<?> proxyClassFor(final Class<? extends ScenarioSteps> stepLibraryClass) {
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(stepLibraryClass);
+        enhancer.setCallbackType(MethodInterceptor.class);
+        return enhancer.createClass();
+    }
+
+    private static Constructor<?> constructorOf(final Class<?> proxyClass) {
+        try {
+            Constructor<?> constructor = proxyClass.getDeclaredConstructor(CONSTRUCTOR_ARG_TYPES);
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Step libraries need a constructor taking a Pages object: "
+                                               + proxyClass.getSuperclass(), e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package net.thucydides.core.steps;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * The step listeners to be notified by the step interceptors of a step factory.
+ * Listeners are kept in an immutable snapshot that is replaced whenever a new listener is registered,
+ * so interceptors can notify the listeners without locking or copying, even when steps run in
+ * several threads, and always see a consistent list.
+ */
+public class StepListenerRegistry {
+
+    private volatile ImmutableList<StepListener> listeners = ImmutableList.of();
+
+    public StepListenerRegistry() {
+    }
+
+    public StepListenerRegistry(final List<StepListener> listeners) {
+        for (StepListener listener : listeners) {
+            register(listener);
+        }
+    }
+
+    /**
+     * Registering a listener that is already registered has no effect, so runners can safely
+     * register their listener before each test.
+     */
+    public synchronized void register(final StepListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners = ImmutableList.<StepListener>builder().addAll(listeners).add(listener).build();
+        }
+    }
+
+    /**
+     * The listeners registered so far. The list is not affected by listeners registered later on.
+     */
+    public List<StepListener> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Has a step failed in any listener's current test? Failures in data-driven steps are not counted,
+     * as the other rows still need to run.
+     * The listeners are asked each time rather than caching the answer here, as their failure state is
+     * per thread and is also changed without going through this registry (e.g. by the test runner, or
+     * when the steps of parallel data-driven rows are recorded).
+     */
+    public boolean aStepHasFailed() {
+        for (StepListener listener : listeners) {
+            if (listener.aStepHasFailed() && !listener.isDataDriven()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,105 @@
+package net.thucydides.core.steps;
+
+import com.google.common.collect.MapMaker;
+import net.thucydides.core.annotations.Pending;
+import net.thucydides.core.annotations.Step;
+import net.thucydides.core.annotations.StepGroup;
+import org.junit.Ignore;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * What the step interceptor needs to know about a method of a step library.
+ * Reading annotations on every intercepted call is relatively expensive, so each method is
+ * only classified once, the first time it is called, and shared by every instance of the step library.
+ */
+class StepMethod {
+
+    private static final List<String> OBJECT_METHODS
+       = Arrays.asList("toString",
+            "equals",
+            "hashcode",
+            "clone",
+            "notify",
+            "notifyAll",
+            "wait",
+            "finalize");
+
+    /**
+     * The Method keys of each entry refer back to the step library class, so the entries are soft references,
+     * letting the class be unloaded once its entry has been reclaimed.
+     */
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<Method, StepMethod>> METHODS_BY_CLASS
+            = new MapMaker().weakKeys().softValues().makeMap();
+
+    private final boolean lastMethod;
+    private final boolean objectMethod;
+    private final boolean stepGroup;
+    private final boolean step;
+    private final boolean pending;
+    private final boolean ignored;
+
+    StepMethod(final Method method) {
+        this.lastMethod = method.getName().equals("done") || method.getName().equals("finalize");
+        this.objectMethod = OBJECT_METHODS.contains(method.getName());
+        this.stepGroup = (method.getAnnotation(StepGroup.class) != null);
+        this.step = (method.getAnnotation(Step.class) != null);
+        this.pending = (method.getAnnotation(Pending.class) != null);
+        this.ignored = (method.getAnnotation(Ignore.class) != null);
+    }
+
+    /**
+     * The methods of a step library class that have been classified so far.
+     */
+    static ConcurrentMap<Method, StepMethod> methodsOf(final Class<?> stepLibraryClass) {
+        ConcurrentMap<Method, StepMethod> methods = METHODS_BY_CLASS.get(stepLibraryClass);
+        if (methods == null) {
+            methods = new ConcurrentHashMap<Method, StepMethod>();
+            ConcurrentMap<Method, StepMethod> existingMethods = METHODS_BY_CLASS.putIfAbsent(stepLibraryClass, methods);
+            if (existingMethods != null) {
+                methods = existingMethods;
+            }
+        }
+        return methods;
+    }
+
+    static StepMethod from(final ConcurrentMap<Method, StepMethod> methods, final Method method) {
+        StepMethod stepMethod = methods.get(method);
+        if (stepMethod == null) {
+            stepMethod = new StepMethod(method);
+            methods.putIfAbsent(method, stepMethod);
+        }
+        return stepMethod;
+    }
+
+    /**
+     * Calling done() (or finalizing the step library) marks the end of the test.
+     */
+    public boolean isLastMethod() {
+        return lastMethod;
+    }
+
+    public boolean isObjectMethod() {
+        return objectMethod;
+    }
+
+    public boolean isStepGroup() {
+        return stepGroup;
+    }
+
+    public boolean isStep() {
+        return step;
+    }
+
+    public boolean isPending() {
+        return pending;
+    }
+
+    public boolean isIgnored() {
+        return ignored;
+    }
+}
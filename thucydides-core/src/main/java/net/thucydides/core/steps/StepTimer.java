@@ -0,0 +1,34 @@
+package net.thucydides.core.steps;
+
+import net.thucydides.core.model.StepTimings;
+
+/**
+ * Gives the step interceptor access to the timings of the step being recorded in the current thread.
+ * The step listener starts timing when a step starts, and the interceptor adds the time spent in
+ * the step method and in the listeners.
+ */
+public final class StepTimer {
+
+    private static final ThreadLocal<StepTimings> CURRENT_TIMINGS = new ThreadLocal<StepTimings>();
+
+    private StepTimer() {}
+
+    public static void startTiming(final StepTimings timings) {
+        CURRENT_TIMINGS.set(timings);
+    }
+
+    public static void stopTiming() {
+        CURRENT_TIMINGS.remove();
+    }
+
+    /**
+     * The timings of the current step. If no step is being recorded, the timings are simply discarded.
+     */
+    public static StepTimings currentTimings() {
+        StepTimings timings = CURRENT_TIMINGS.get();
+        if (timings == null) {
+            return new StepTimings();
+        }
+        return timings;
+    }
+}
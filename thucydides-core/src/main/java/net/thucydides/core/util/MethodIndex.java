@@ -0,0 +1,86 @@
+package net.thucydides.core.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The public methods of a class, indexed by name.
+ * Step and test methods are looked up by name every time a step is reported, so the methods of each class
+ * are only listed once, and the index is shared by everything that needs to find a method by name.
+ */
+public final class MethodIndex {
+
+    /**
+     * An index holds the methods of its class, and so the class itself: indexes are soft references,
+     * so that the weak keys can be cleared once an index has been reclaimed.
+     */
+    private static final ConcurrentMap<Class<?>, MethodIndex> INDEXES
+            = new MapMaker().weakKeys().softValues().makeMap();
+
+    private final List<Method> methods;
+    private final Map<String, Method> methodsByName;
+
+    private MethodIndex(final Class<?> indexedClass) {
+        this.methods = ImmutableList.of(indexedClass.getMethods());
+        this.methodsByName = new HashMap<String, Method>();
+        for (Method method : methods) {
+            Method indexedMethod = methodsByName.get(method.getName());
+            if ((indexedMethod == null) || (hasFewerParameters(method, indexedMethod))) {
+                methodsByName.put(method.getName(), method);
+            }
+        }
+    }
+
+    private boolean hasFewerParameters(final Method method, final Method otherMethod) {
+        return method.getParameterTypes().length < otherMethod.getParameterTypes().length;
+    }
+
+    public static MethodIndex of(final Class<?> indexedClass) {
+        MethodIndex index = INDEXES.get(indexedClass);
+        if (index == null) {
+            index = new MethodIndex(indexedClass);
+            INDEXES.putIfAbsent(indexedClass, index);
+        }
+        return index;
+    }
+
+    /**
+     * The public method with this name, or null if there is none.
+     * If the method is overloaded, the version with the fewest parameters is used.
+     */
+    public Method findMethodCalled(final String methodName) {
+        return methodsByName.get(methodName);
+    }
+
+    /**
+     * The public method with this name that takes no parameters, or null if there is none.
+     */
+    public Method findMethodWithNoParametersCalled(final String methodName) {
+        Method method = findMethodCalled(methodName);
+        if ((method != null) && (method.getParameterTypes().length == 0)) {
+            return method;
+        }
+        return null;
+    }
+
+    /**
+     * The public methods with a given annotation, in the order returned by Class.getMethods().
+     */
+    public List<Method> getMethodsAnnotatedWith(final Class<? extends Annotation> annotation) {
+        List<Method> annotatedMethods = new ArrayList<Method>();
+        for (Method method : methods) {
+            if (method.isAnnotationPresent(annotation)) {
+                annotatedMethods.add(method);
+            }
+        }
+        return annotatedMethods;
+    }
+}
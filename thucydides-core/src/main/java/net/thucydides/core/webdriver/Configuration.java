@@ -40,6 +40,11 @@ public class Configuration {
      */
     private static final String DEFAULT_OUTPUT_DIRECTORY = "target/thucydides";
 
+    /**
+     * By default, the test history is kept in the output directory.
+     */
+    private static final String DEFAULT_TEST_HISTORY_FILE = "test-history.properties";
+
     /**
      * HTML and XML reports will be generated in this directory.
      */
@@ -95,6 +100,134 @@ public class Configuration {
         return uniqueBrowser;
     }
 
+    /**
+     * How long to wait for something to appear on a page, in milliseconds.
+     * The default value is used if the thucydides.wait.for.timeout property is not set.
+     */
+    public static long getWaitForTimeout(final long defaultTimeout) {
+        return getMillisecondsFrom(ThucydidesSystemProperty.WAIT_FOR_TIMEOUT, defaultTimeout);
+    }
+
+    /**
+     * The total time a test can spend waiting for pages, in milliseconds, or 0 for no limit.
+     */
+    public static long getTestWaitBudget() {
+        return getMillisecondsFrom(ThucydidesSystemProperty.TEST_WAIT_BUDGET, 0);
+    }
+
+    /**
+     * The total time a test step can spend waiting for pages, in milliseconds, or 0 for no limit.
+     */
+    public static long getStepWaitBudget() {
+        return getMillisecondsFrom(ThucydidesSystemProperty.STEP_WAIT_BUDGET, 0);
+    }
+
+    private static long getMillisecondsFrom(final ThucydidesSystemProperty property, final long defaultValue) {
+        long value = defaultValue;
+        String propertyValue = System.getProperty(property.getPropertyName());
+        if ((propertyValue != null) && (!propertyValue.isEmpty())) {
+            value = Long.valueOf(propertyValue);
+        }
+        return value;
+    }
+
+    public static boolean getWaitForDomChanges() {
+        boolean waitForDomChanges = false;
+        String waitForDomChangesValue
+                = System.getProperty(ThucydidesSystemProperty.WAIT_FOR_DOM_CHANGES.getPropertyName());
+        if (waitForDomChangesValue != null) {
+            waitForDomChanges = Boolean.valueOf(waitForDomChangesValue);
+        }
+        return waitForDomChanges;
+    }
+
+    /**
+     * Where the run metrics should be written, or null if they should not be written to a file.
+     */
+    public static String getMetricsFile() {
+        String metricsFile = System.getProperty(ThucydidesSystemProperty.METRICS_FILE.getPropertyName());
+        if ((metricsFile == null) || (metricsFile.isEmpty())) {
+            return null;
+        }
+        return metricsFile;
+    }
+
+    public static boolean getMetricsJmxEnabled() {
+        return Boolean.valueOf(System.getProperty(ThucydidesSystemProperty.METRICS_JMX.getPropertyName()));
+    }
+
+    /**
+     * How many browsers should be used to run the rows of data-driven steps.
+     * Rows are run one after the other in the test's own browser unless this is more than 1.
+     */
+    public static int getDataDrivenThreadCount() {
+        int threadCount = 1;
+        String threadCountValue = System.getProperty(ThucydidesSystemProperty.DATA_DRIVEN_THREADS.getPropertyName());
+        if ((threadCountValue != null) && (!threadCountValue.isEmpty())) {
+            threadCount = Integer.valueOf(threadCountValue);
+        }
+        return threadCount;
+    }
+
+    /**
+     * Should CSV test data be parsed once and kept in memory? Test data is read one row at a time by default.
+     */
+    public static boolean getTestDataCacheEnabled() {
+        String cacheEnabled = System.getProperty(ThucydidesSystemProperty.TEST_DATA_CACHE.getPropertyName());
+        return Boolean.valueOf(cacheEnabled) || (getTestDataCacheDirectory() != null);
+    }
+
+    /**
+     * Where parsed test data should be kept between test runs, or null if it should only be kept in memory.
+     */
+    public static File getTestDataCacheDirectory() {
+        String cacheDirectory = System.getProperty(ThucydidesSystemProperty.TEST_DATA_CACHE_DIR.getPropertyName());
+        if ((cacheDirectory == null) || (cacheDirectory.isEmpty())) {
+            return null;
+        }
+        return new File(cacheDirectory);
+    }
+
+    /**
+     * How many shards the rows of data-driven tests are split into. All rows are run in a single shard by default.
+     */
+    public static int getDataShardCount() {
+        return getIntegerPropertyValue(ThucydidesSystemProperty.DATA_SHARD_COUNT, 1);
+    }
+
+    /**
+     * Which shard of the data-driven test rows should be run, counting from 0.
+     */
+    public static int getDataShardIndex() {
+        return getIntegerPropertyValue(ThucydidesSystemProperty.DATA_SHARD_INDEX, 0);
+    }
+
+    /**
+     * How many browsers can be run at the same time, or 0 if there is no limit.
+     */
+    public static int getBrowserSlots() {
+        return getIntegerPropertyValue(ThucydidesSystemProperty.BROWSER_SLOTS, 0);
+    }
+
+    /**
+     * Where the durations and results of previous test runs are kept.
+     */
+    public static String getTestHistoryFile() {
+        String historyFile = System.getProperty(ThucydidesSystemProperty.TEST_HISTORY_FILE.getPropertyName());
+        if ((historyFile == null) || (historyFile.isEmpty())) {
+            return DEFAULT_TEST_HISTORY_FILE;
+        }
+        return historyFile;
+    }
+
+    private static int getIntegerPropertyValue(final ThucydidesSystemProperty property, final int defaultValue) {
+        String value = System.getProperty(property.getPropertyName());
+        if ((value == null) || (value.isEmpty())) {
+            return defaultValue;
+        }
+        return Integer.valueOf(value.trim());
+    }
+
     public void setOutputDirectory(final File outputDirectory) {
         this.outputDirectory = outputDirectory;
     }
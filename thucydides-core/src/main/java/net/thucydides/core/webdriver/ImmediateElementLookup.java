@@ -0,0 +1,25 @@
+package net.thucydides.core.webdriver;
+
+/**
+ * Keep track of whether the current thread wants page object elements to be located straight away,
+ * rather than waiting for them to be displayed.
+ */
+public class ImmediateElementLookup {
+    private static ThreadLocal<Boolean> immediateLookupInProgress = new ThreadLocal<Boolean>();
+
+    public static void startImmediateLookup() {
+        immediateLookupInProgress.set(true);
+    }
+
+    public static void endImmediateLookup() {
+        immediateLookupInProgress.set(false);
+    }
+
+    public static boolean inProgress() {
+        if (immediateLookupInProgress.get() == null) {
+            return false;
+        } else {
+            return immediateLookupInProgress.get();
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package net.thucydides.core.webdriver;
 
+import net.thucydides.core.metrics.Metrics;
 import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotVisibleException;
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
@@ -21,6 +26,12 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot {
 
     protected WebDriver proxiedWebDriver;
 
+    /**
+     * The validity check costs an extra round-trip to the browser, so we only do it when there is
+     * a reason to suspect the driver state: when it has just been created, or after an error.
+     */
+    private boolean driverNeedsValidation = true;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverFacade.class);
 
     public WebDriverFacade(final Class<? extends WebDriver> driverClass) {
@@ -29,10 +40,15 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot {
 
     public WebDriver getProxiedDriver() {
         if (proxiedWebDriver == null) {
+            long startTime = System.currentTimeMillis();
             proxiedWebDriver = newProxyDriver();
+            Metrics.timer(Metrics.DRIVER_STARTUP).record(System.currentTimeMillis() - startTime);
+            driverNeedsValidation = true;
             WebdriverProxyFactory.getFactory().notifyListenersOfWebdriverCreationIn(this);
         }
-        ensureValidDriver();
+        if (driverNeedsValidation) {
+            ensureValidDriver();
+        }
         return proxiedWebDriver;
     }
 
@@ -45,6 +61,26 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot {
         } catch (WebDriverException e) {
             proxiedWebDriver.switchTo().defaultContent();
         }
+        driverNeedsValidation = false;
+    }
+
+    /**
+     * Once a call to the browser has failed, the driver will be checked again before it is next used.
+     * Errors about a particular element (e.g. one that has not appeared yet, or has been redrawn) are
+     * routine while polling a page and say nothing about the state of the driver, so they are ignored.
+     */
+    private WebDriverException invalidatedBy(final WebDriverException error) {
+        if (!isAnElementError(error)) {
+            driverNeedsValidation = true;
+        }
+        return error;
+    }
+
+    private boolean isAnElementError(final WebDriverException error) {
+        return (error instanceof NoSuchElementException)
+                || (error instanceof StaleElementReferenceException)
+                || (error instanceof ElementNotVisibleException)
+                || (error instanceof InvalidElementStateException);
     }
 
     public void reset() {
@@ -104,27 +140,51 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot {
     }
 
     public void get(final String url) {
-        getProxiedDriver().get(url);
+        try {
+            getProxiedDriver().get(url);
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     public String getCurrentUrl() {
-        return getProxiedDriver().getCurrentUrl();
+        try {
+            return getProxiedDriver().getCurrentUrl();
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     public String getTitle() {
-        return getProxiedDriver().getTitle();
+        try {
+            return getProxiedDriver().getTitle();
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     public List<WebElement> findElements(final By by) {
-        return getProxiedDriver().findElements(by);
+        try {
+            return getProxiedDriver().findElements(by);
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     public WebElement findElement(final By by) {
-        return getProxiedDriver().findElement(by);
+        try {
+            return getProxiedDriver().findElement(by);
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     public String getPageSource() {
-        return getProxiedDriver().getPageSource();
+        try {
+            return getProxiedDriver().getPageSource();
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     protected WebDriver getDriverInstance() {
@@ -153,22 +213,42 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot {
     }
 
     public Set<String> getWindowHandles() {
-        return getProxiedDriver().getWindowHandles();
+        try {
+            return getProxiedDriver().getWindowHandles();
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     public String getWindowHandle() {
-        return getProxiedDriver().getWindowHandle();
+        try {
+            return getProxiedDriver().getWindowHandle();
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     public TargetLocator switchTo() {
-        return getProxiedDriver().switchTo();
+        try {
+            return getProxiedDriver().switchTo();
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     public Navigation navigate() {
-        return getProxiedDriver().navigate();
+        try {
+            return getProxiedDriver().navigate();
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 
     public Options manage() {
-        return getProxiedDriver().manage();
+        try {
+            return getProxiedDriver().manage();
+        } catch (WebDriverException e) {
+            throw invalidatedBy(e);
+        }
     }
 }
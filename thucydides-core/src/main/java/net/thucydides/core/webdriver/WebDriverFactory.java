@@ -1,23 +1,15 @@
 package net.thucydides.core.webdriver;
 
-import net.thucydides.core.pages.WebElementFacade;
-import org.omg.CORBA.TIMEOUT;
-import org.openqa.selenium.By;
+import net.thucydides.core.pages.InternalClock;
+import net.thucydides.core.pages.PollingWait;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.pagefactory.AjaxElementLocator;
-import org.openqa.selenium.support.pagefactory.AjaxElementLocatorFactory;
-import org.openqa.selenium.support.pagefactory.Annotations;
-import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
 import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
 
-import javax.xml.transform.Templates;
 import java.lang.reflect.Field;
-import java.sql.Driver;
-import java.util.Arrays;
-import java.util.List;
 
 /**
  * Provides an instance of a supported WebDriver.
@@ -53,72 +45,158 @@ public class WebDriverFactory {
     }
 
 
-    static class DisplayedElementLocator extends AjaxElementLocator {
-
-        private static final List<String> QUICK_METHODS = Arrays.asList("isCurrentlyVisible");
-        private static final List<String> QUICK_CLASSES = Arrays.asList(WebElementFacade.class.getName());
+    /**
+     * Locates a page object element, waiting for it to be displayed unless an immediate lookup is in progress.
+     * Locators come from the per-class WebElementField cache, so the field annotations are not parsed again
+     * for each page object instance.
+     */
+    static class DisplayedElementLocator implements ElementLocator {
 
-        private final Field field;
         private final WebDriver driver;
+        private final WebElementField field;
+        private final int timeOutInSeconds;
+        private final InternalClock clock;
+        private WebElement cachedElement;
 
-        DisplayedElementLocator(WebDriver driver, Field field, int timeOutInSeconds) {
-            super(driver, field, timeOutInSeconds);
-            this.field = field;
+        DisplayedElementLocator(final WebDriver driver, final WebElementField field, final int timeOutInSeconds) {
+            this(driver, field, timeOutInSeconds, new InternalClock());
+        }
+
+        DisplayedElementLocator(final WebDriver driver, final Field field, final int timeOutInSeconds) {
+            this(driver, new WebElementField(field), timeOutInSeconds);
+        }
+
+        /**
+         * The lookups wait on the page object's clock, and are capped by the current wait budget.
+         */
+        DisplayedElementLocator(final WebDriver driver, final WebElementField field, final int timeOutInSeconds,
+                                final InternalClock clock) {
             this.driver = driver;
+            this.field = field;
+            this.timeOutInSeconds = timeOutInSeconds;
+            this.clock = clock;
         }
 
-        @Override
         public WebElement findElement() {
             if (shouldFindElementImmediately()) {
                 return findElementImmediately();
             } else {
-                return super.findElement();
+                return findDisplayedElement();
             }
         }
 
         private boolean shouldFindElementImmediately() {
-            for(StackTraceElement elt : Thread.currentThread().getStackTrace()){
-                if (QUICK_METHODS.contains(elt.getMethodName())
-                    &&  QUICK_CLASSES.contains(elt.getClassName())) {
-                    return true;
-                }
-            }
-            return false;
+            return ImmediateElementLookup.inProgress();
         }
 
         public WebElement findElementImmediately() {
-            Annotations annotations = new Annotations(field);
-            By by = annotations.buildBy();
-            return driver.findElement(by);
+            return driver.findElement(field.getLocator());
+        }
+
+        private WebElement findElementUsingCacheIfAllowed() {
+            if ((cachedElement != null) && field.isLookupCached()) {
+                return cachedElement;
+            }
+            WebElement element = driver.findElement(field.getLocator());
+            if (field.isLookupCached()) {
+                cachedElement = element;
+            }
+            return element;
         }
 
-        @Override
-        protected boolean isElementUsable(WebElement element) {
+        private WebElement findDisplayedElement() {
+            DisplayedElement displayedElement = new DisplayedElement();
+            if (!new PollingWait(clock).waitUntil(displayedElement, timeOutInSeconds * 1000L)) {
+                throw new NoSuchElementException(String.format("Timed out after %d seconds. Unable to locate the element",
+                                                               timeOutInSeconds), displayedElement.getLastError());
+            }
+            return displayedElement.getElement();
+        }
+
+        protected boolean isElementUsable(final WebElement element) {
             return element.isDisplayed();
         }
+
+        private class DisplayedElement implements PollingWait.ExpectedState {
+            private WebElement element;
+            private NoSuchElementException lastError;
+
+            public boolean isReached() {
+                try {
+                    element = findElementUsingCacheIfAllowed();
+                    if (!isElementUsable(element)) {
+                        throw new NoSuchElementException("Element is not usable");
+                    }
+                    return true;
+                } catch (NoSuchElementException e) {
+                    lastError = e;
+                    return false;
+                }
+            }
+
+            public WebElement getElement() {
+                return element;
+            }
+
+            public NoSuchElementException getLastError() {
+                return lastError;
+            }
+        }
     }
 
-    static class DisplayedElementLocatorFactory extends AjaxElementLocatorFactory {
+    static class DisplayedElementLocatorFactory implements ElementLocatorFactory {
         private final WebDriver driver;
         private final int timeOutInSeconds;
-        public DisplayedElementLocatorFactory(WebDriver driver, int timeOutInSeconds) {
-            super(driver, timeOutInSeconds);
+        private final InternalClock clock;
+
+        public DisplayedElementLocatorFactory(final WebDriver driver, final int timeOutInSeconds,
+                                              final InternalClock clock) {
             this.driver = driver;
             this.timeOutInSeconds = timeOutInSeconds;
+            this.clock = clock;
+        }
+
+        public ElementLocator createLocator(final Field field) {
+            return createLocator(new WebElementField(field));
         }
 
-        @Override
-        public ElementLocator createLocator(Field field) {
-            return new DisplayedElementLocator(driver, field, timeOutInSeconds);    //To change body of overridden methods use File | Settings | File Templates.
+        public ElementLocator createLocator(final WebElementField field) {
+            return new DisplayedElementLocator(driver, field, timeOutInSeconds, clock);
         }
     }
+
+    static class DisplayedElementFieldDecorator extends DefaultFieldDecorator {
+        private final DisplayedElementLocatorFactory locatorFactory;
+
+        public DisplayedElementFieldDecorator(final DisplayedElementLocatorFactory locatorFactory) {
+            super(locatorFactory);
+            this.locatorFactory = locatorFactory;
+        }
+
+        public WebElement proxyFor(final Object pageObject, final WebElementField field) {
+            return proxyForLocator(pageObject.getClass().getClassLoader(), locatorFactory.createLocator(field));
+        }
+    }
+
     /**
      * Initialize a page object's fields using the specified WebDriver instance.
      */
     public static void initElementsWithAjaxSupport(final Object pageObject, final WebDriver driver) {
-        ElementLocatorFactory finder = new DisplayedElementLocatorFactory(driver, Configuration.getElementTimeout());
-        PageFactory.initElements(finder, pageObject);
+        initElementsWithAjaxSupport(pageObject, driver, new InternalClock());
+    }
 
+    /**
+     * Initialize a page object's fields, waiting for the elements on the given clock.
+     */
+    public static void initElementsWithAjaxSupport(final Object pageObject, final WebDriver driver,
+                                                   final InternalClock clock) {
+        DisplayedElementLocatorFactory finder = new DisplayedElementLocatorFactory(driver,
+                                                                                   Configuration.getElementTimeout(),
+                                                                                   clock);
+        DisplayedElementFieldDecorator decorator = new DisplayedElementFieldDecorator(finder);
+        for (WebElementField field : WebElementField.findFieldsIn(pageObject.getClass())) {
+            field.setValue(pageObject, decorator.proxyFor(pageObject, field));
+        }
     }
 
     /**
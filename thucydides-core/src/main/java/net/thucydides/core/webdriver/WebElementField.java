@@ -0,0 +1,95 @@
+package net.thucydides.core.webdriver;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A WebElement field in a page object, along with the locator defined by its annotations.
+ * Parsing the locator annotations is relatively expensive, so the fields of each page object class
+ * are only analysed once, and then shared by every instance of that class.
+ */
+public class WebElementField {
+
+    /**
+     * The cached fields refer back to the page object class, so they are held softly: otherwise the class
+     * could never be unloaded, however weakly it is held as a key.
+     */
+    private static final ConcurrentMap<Class<?>, List<WebElementField>> FIELDS_BY_CLASS
+            = new MapMaker().weakKeys().softValues().makeMap();
+
+    private final Field field;
+    private final By locator;
+    private final boolean lookupCached;
+
+    protected WebElementField(final Field field) {
+        Annotations annotations = new Annotations(field);
+        this.field = field;
+        this.locator = annotations.buildBy();
+        this.lookupCached = annotations.isLookupCached();
+        this.field.setAccessible(true);
+    }
+
+    /**
+     * Find the WebElement fields in a page object class and its superclasses.
+     */
+    public static List<WebElementField> findFieldsIn(final Class<?> pageObjectClass) {
+        List<WebElementField> fields = FIELDS_BY_CLASS.get(pageObjectClass);
+        if (fields == null) {
+            fields = ImmutableList.copyOf(webElementFieldsDeclaredIn(pageObjectClass));
+            FIELDS_BY_CLASS.putIfAbsent(pageObjectClass, fields);
+        }
+        return fields;
+    }
+
+    private static List<WebElementField> webElementFieldsDeclaredIn(final Class<?> pageObjectClass) {
+        List<WebElementField> fields = new ArrayList<WebElementField>();
+        Class<?> currentClass = pageObjectClass;
+        while ((currentClass != null) && (currentClass != Object.class)) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                if (isAWebElement(field)) {
+                    fields.add(new WebElementField(field));
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+        return fields;
+    }
+
+    private static boolean isAWebElement(final Field field) {
+        return WebElement.class.isAssignableFrom(field.getType());
+    }
+
+    public String getName() {
+        return field.getName();
+    }
+
+    /**
+     * How to find this element on the page.
+     */
+    public By getLocator() {
+        return locator;
+    }
+
+    /**
+     * Can the element be looked up once and reused (the CacheLookup annotation)?
+     */
+    public boolean isLookupCached() {
+        return lookupCached;
+    }
+
+    public void setValue(final Object pageObject, final WebElement value) {
+        try {
+            field.set(pageObject, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not set WebElement field: " + field, e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package net.thucydides.core.csv;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WhenBindingTestDataToBeans {
+
+    public static class Account {
+        private String owner;
+        private int balance;
+
+        public void setOwner(String owner) {
+            this.owner = owner;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public void setBalance(int balance) {
+            this.balance = balance;
+        }
+    }
+
+    private Map<String, String> rowWith(String... headingsAndValues) {
+        Map<String, String> rowData = new HashMap<String, String>();
+        for (int i = 0; i < headingsAndValues.length; i += 2) {
+            rowData.put(headingsAndValues[i], headingsAndValues[i + 1]);
+        }
+        return rowData;
+    }
+
+    @Test
+    public void should_assign_values_using_setters() {
+        Person person = new Person();
+
+        PropertyBinder.forClass(Person.class).assignValues(person, rowWith("name", "Bill", "Date of birth", "10/10/1970"));
+
+        assertThat(person.getName(), is("Bill"));
+        assertThat(person.getDateOfBirth(), is("10/10/1970"));
+    }
+
+    @Test
+    public void should_assign_values_to_public_fields_if_there_is_no_setter() {
+        Person person = new Person();
+
+        PropertyBinder.forClass(Person.class).assignValues(person, rowWith("nickname", "Billy"));
+
+        assertThat(person.nickname, is("Billy"));
+    }
+
+    @Test
+    public void should_report_when_no_values_could_be_assigned() {
+        Person person = new Person();
+
+        boolean valueAssigned = PropertyBinder.forClass(Person.class).assignValues(person, rowWith("unknown", "value"));
+
+        assertThat(valueAssigned, is(false));
+    }
+
+    @Test
+    public void should_skip_properties_that_cannot_take_a_text_value() {
+        Account account = new Account();
+
+        boolean valueAssigned = PropertyBinder.forClass(Account.class).assignValues(account, rowWith("balance", "100"));
+
+        assertThat(valueAssigned, is(false));
+    }
+
+    @Test
+    public void should_assign_the_values_that_can_be_assigned() {
+        Account account = new Account();
+
+        boolean valueAssigned = PropertyBinder.forClass(Account.class).assignValues(account,
+                                                                                      rowWith("balance", "100",
+                                                                                              "owner", "Bill"));
+        assertThat(valueAssigned, is(true));
+        assertThat(account.getOwner(), is("Bill"));
+    }
+
+    @Test
+    public void the_properties_should_only_be_looked_up_once_per_class() {
+        assertThat(PropertyBinder.forClass(Person.class), is(sameInstance(PropertyBinder.forClass(Person.class))));
+    }
+
+    @Test
+    public void column_headings_should_only_be_converted_once_per_class() {
+        PropertyBinder binder = PropertyBinder.forClass(Person.class);
+
+        assertThat(binder.writerForHeading("Date of birth"), is(sameInstance(binder.writerForHeading("Date of birth"))));
+    }
+}
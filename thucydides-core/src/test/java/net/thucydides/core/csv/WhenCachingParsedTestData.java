@@ -0,0 +1,140 @@
+package net.thucydides.core.csv;
+
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.junit.rules.SaveWebdriverSystemPropertiesRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.MethodRule;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WhenCachingParsedTestData {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public MethodRule saveSystemProperties = new SaveWebdriverSystemPropertiesRule();
+
+    File temporaryDirectory;
+
+    @Before
+    public void setupTemporaryDirectory() {
+        temporaryDirectory = temporaryFolder.newFolder("testdata");
+        TestDataCache.clear();
+    }
+
+    @After
+    public void clearCache() {
+        TestDataCache.clear();
+    }
+
+    protected File useTestDataIn(String filename, String... data) throws IOException {
+        File testDataFile = new File(temporaryDirectory, filename);
+
+        BufferedWriter out = new BufferedWriter(new FileWriter(testDataFile));
+
+        for (String row : data) {
+            out.write(row);
+            out.newLine();
+        }
+        out.close();
+
+        return testDataFile;
+    }
+
+    @Test
+    public void should_only_parse_the_same_test_data_once() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address",
+                "Bill, 10 main street");
+
+        ParsedTestData firstLoad = TestDataCache.parsedTestDataFrom(testDataFile.getAbsolutePath(), ',');
+        ParsedTestData secondLoad = TestDataCache.parsedTestDataFrom(testDataFile.getAbsolutePath(), ',');
+
+        assertThat(secondLoad, is(sameInstance(firstLoad)));
+    }
+
+    @Test
+    public void should_share_parsed_data_between_files_with_the_same_contents() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv", "name, address", "Bill, 10 main street");
+        File copiedTestDataFile = useTestDataIn("copy.csv", "name, address", "Bill, 10 main street");
+
+        ParsedTestData firstLoad = TestDataCache.parsedTestDataFrom(testDataFile.getAbsolutePath(), ',');
+        ParsedTestData secondLoad = TestDataCache.parsedTestDataFrom(copiedTestDataFile.getAbsolutePath(), ',');
+
+        assertThat(secondLoad, is(sameInstance(firstLoad)));
+    }
+
+    @Test
+    public void should_parse_modified_test_data_again() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv", "name, address", "Bill, 10 main street");
+        ParsedTestData firstLoad = TestDataCache.parsedTestDataFrom(testDataFile.getAbsolutePath(), ',');
+
+        useTestDataIn("testdata.csv", "name, address", "Tim, 12 main street");
+        ParsedTestData secondLoad = TestDataCache.parsedTestDataFrom(testDataFile.getAbsolutePath(), ',');
+
+        assertThat(secondLoad, is(not(sameInstance(firstLoad))));
+        assertThat(secondLoad.iterator().next().get("name"), is("Tim"));
+    }
+
+    @Test
+    public void should_parse_the_same_data_again_with_a_different_separator() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv", "name; address", "Bill; 10 main street");
+
+        ParsedTestData firstLoad = TestDataCache.parsedTestDataFrom(testDataFile.getAbsolutePath(), ',');
+        ParsedTestData secondLoad = TestDataCache.parsedTestDataFrom(testDataFile.getAbsolutePath(), ';');
+
+        assertThat(secondLoad, is(not(sameInstance(firstLoad))));
+        assertThat(secondLoad.iterator().next().get("address"), is("10 main street"));
+    }
+
+    @Test
+    public void should_keep_parsed_test_data_on_disk_if_requested() throws IOException {
+        File cacheDirectory = temporaryFolder.newFolder("cache");
+        System.setProperty(ThucydidesSystemProperty.TEST_DATA_CACHE_DIR.getPropertyName(),
+                           cacheDirectory.getAbsolutePath());
+        File testDataFile = useTestDataIn("testdata.csv", "name, address", "Bill, 10 main street");
+
+        TestDataCache.parsedTestDataFrom(testDataFile.getAbsolutePath(), ',');
+        TestDataCache.clear();
+        ParsedTestData reloadedData = TestDataCache.parsedTestDataFrom(testDataFile.getAbsolutePath(), ',');
+
+        assertThat(cacheDirectory.list().length, is(1));
+        Iterator<TestDataRow> rows = reloadedData.iterator();
+        assertThat(rows.next().get("name"), is("Bill"));
+        assertThat(rows.hasNext(), is(false));
+    }
+
+    @Test
+    public void cached_data_sources_should_read_the_same_data_as_csv_data_sources() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone, date of birth",
+                "Bill, 10 main street, 123456789",
+                "Tim,  12 main street, 123456700, 10/10/1971");
+
+        List<Person> cachedPeople
+                = new CachedCSVTestDataSource(testDataFile.getAbsolutePath()).getDataAsInstancesOf(Person.class);
+        List<Person> loadedPeople
+                = new CSVTestDataSource(testDataFile.getAbsolutePath()).getDataAsInstancesOf(Person.class);
+
+        assertThat(cachedPeople.size(), is(loadedPeople.size()));
+        for (int i = 0; i < cachedPeople.size(); i++) {
+            assertThat(cachedPeople.get(i).getName(), is(loadedPeople.get(i).getName()));
+            assertThat(cachedPeople.get(i).getDateOfBirth(), is(loadedPeople.get(i).getDateOfBirth()));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package net.thucydides.core.csv;
+
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.junit.rules.SaveWebdriverSystemPropertiesRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WhenReadingTestDataInOtherFormats {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public SaveWebdriverSystemPropertiesRule saveWebdriverSystemPropertiesRule = new SaveWebdriverSystemPropertiesRule();
+
+    File temporaryDirectory;
+
+    @Before
+    public void setupTemporaryDirectory() {
+        temporaryDirectory = temporaryFolder.newFolder("testdata");
+    }
+
+    protected File useTestDataIn(String filename, String... data) throws IOException {
+        File testDataFile = new File(temporaryDirectory, filename);
+
+        BufferedWriter out = new BufferedWriter(new FileWriter(testDataFile));
+
+        for (String row : data) {
+            out.write(row);
+            out.newLine();
+        }
+        out.close();
+
+        return testDataFile;
+    }
+
+    @Test
+    public void should_read_tab_separated_test_data() throws IOException {
+        File testDataFile = useTestDataIn("testdata.tsv",
+                "name\taddress\tphone",
+                "Bill\t10 main street, BillVille\t123456789",
+                "Tim\t\"12 main street\"");
+
+        List<Map<String, String>> loadedData = new TsvTestDataSource(testDataFile.getAbsolutePath()).getData();
+
+        assertThat(loadedData.size(), is(2));
+        assertThat(loadedData.get(0).get("address"), is("10 main street, BillVille"));
+        assertThat(loadedData.get(0).get("phone"), is("123456789"));
+        assertThat(loadedData.get(1).get("address"), is("\"12 main street\""));
+        assertThat(loadedData.get(1).get("phone"), is(nullValue()));
+    }
+
+    @Test
+    public void should_ignore_blank_lines() throws IOException {
+        File testDataFile = useTestDataIn("testdata.tsv",
+                "name\taddress",
+                "",
+                "Bill\t10 main street",
+                "");
+
+        assertThat(new TsvTestDataSource(testDataFile.getAbsolutePath()).getData().size(), is(1));
+    }
+
+    @Test
+    public void should_read_json_lines_test_data() throws IOException {
+        File testDataFile = useTestDataIn("testdata.jsonl",
+                "{\"name\":\"Bill\", \"address\":\"10 main street\", \"age\":42}",
+                "{\"name\":\"Tim\", \"phone\":\"123456700\"}");
+
+        Iterator<TestDataRow> rows = new JsonLinesTestDataSource(testDataFile.getAbsolutePath()).iterator();
+
+        TestDataRow bill = rows.next();
+        assertThat(bill.get("name"), is("Bill"));
+        assertThat(bill.get("age"), is("42"));
+        TestDataRow tim = rows.next();
+        assertThat(tim.get("name"), is("Tim"));
+        assertThat(tim.get("address"), is(nullValue()));
+        assertThat(tim.get("phone"), is("123456700"));
+        assertThat(rows.hasNext(), is(false));
+    }
+
+    @Test
+    public void should_use_json_field_names_as_property_names() throws IOException {
+        File testDataFile = useTestDataIn("testdata.jsonl",
+                "{\"name\":\"Bill\", \"dateOfBirth\":\"10/10/1970\"}",
+                "{\"name\":\"Tim\", \"date of birth\":\"10/10/1971\", \"nickname\":\"Timmy\"}");
+
+        List<Person> people
+                = new JsonLinesTestDataSource(testDataFile.getAbsolutePath()).getDataAsInstancesOf(Person.class);
+
+        assertThat(people.get(0).getName(), is("Bill"));
+        assertThat(people.get(0).getDateOfBirth(), is("10/10/1970"));
+        assertThat(people.get(1).getDateOfBirth(), is("10/10/1971"));
+        assertThat(people.get(1).nickname, is("Timmy"));
+    }
+
+    @Test(expected = FailedToInitializeTestData.class)
+    public void should_reject_lines_that_are_not_json_objects() throws IOException {
+        File testDataFile = useTestDataIn("testdata.jsonl", "[\"Bill\", \"10 main street\"]");
+
+        new JsonLinesTestDataSource(testDataFile.getAbsolutePath()).getData();
+    }
+
+    @Test
+    public void should_choose_the_data_source_from_the_file_extension() throws IOException {
+        File csvFile = useTestDataIn("testdata.csv", "name", "Bill");
+        File tsvFile = useTestDataIn("testdata.tsv", "name", "Bill");
+        File jsonLinesFile = useTestDataIn("testdata.jsonl", "{\"name\":\"Bill\"}");
+        File unknownFile = useTestDataIn("testdata.txt", "name", "Bill");
+
+        assertThat(TestDataFormats.open(csvFile.getAbsolutePath(), ','), is(instanceOf(StreamingCSVTestDataSource.class)));
+        assertThat(TestDataFormats.open(tsvFile.getAbsolutePath(), ','), is(instanceOf(TsvTestDataSource.class)));
+        assertThat(TestDataFormats.open(jsonLinesFile.getAbsolutePath(), ','),
+                   is(instanceOf(JsonLinesTestDataSource.class)));
+        assertThat(TestDataFormats.open(unknownFile.getAbsolutePath(), ','),
+                   is(instanceOf(StreamingCSVTestDataSource.class)));
+    }
+
+    @Test
+    public void csv_test_data_should_only_be_cached_if_requested() throws IOException {
+        File csvFile = useTestDataIn("testdata.csv", "name", "Bill");
+
+        System.setProperty(ThucydidesSystemProperty.TEST_DATA_CACHE.getPropertyName(), "true");
+
+        assertThat(TestDataFormats.open(csvFile.getAbsolutePath(), ','), is(instanceOf(CachedCSVTestDataSource.class)));
+    }
+
+    @Test
+    public void csv_test_data_should_be_cached_if_a_cache_directory_is_given() throws IOException {
+        File csvFile = useTestDataIn("testdata.csv", "name", "Bill");
+
+        System.setProperty(ThucydidesSystemProperty.TEST_DATA_CACHE_DIR.getPropertyName(),
+                           temporaryFolder.newFolder("cache").getAbsolutePath());
+
+        assertThat(TestDataFormats.open(csvFile.getAbsolutePath(), ','), is(instanceOf(CachedCSVTestDataSource.class)));
+    }
+
+    @Test
+    public void should_be_able_to_register_other_formats() {
+        TestDataFormat pipeSeparatedFormat = new TestDataFormat() {
+            public List<String> getFileExtensions() {
+                return Arrays.asList("psv");
+            }
+
+            public TestDataSource open(String path, char separator) throws IOException {
+                return new CachedCSVTestDataSource(path, '|');
+            }
+        };
+
+        TestDataFormats.register(pipeSeparatedFormat);
+
+        assertThat(TestDataFormats.formatFor("testdata/people.PSV"), is(sameInstance(pipeSeparatedFormat)));
+    }
+}
@@ -0,0 +1,181 @@
+package net.thucydides.core.csv;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+public class WhenStreamingTestDataFromACSVFile {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    File temporaryDirectory;
+
+    @Before
+    public void setupTemporaryDirectory() {
+        temporaryDirectory = temporaryFolder.newFolder("testdata");
+    }
+
+    protected File useTestDataIn(String filename, String... data) throws IOException {
+        File testDataFile = new File(temporaryDirectory, filename);
+
+        BufferedWriter out = new BufferedWriter(new FileWriter(testDataFile));
+
+        for (String row : data) {
+            out.write(row);
+            out.newLine();
+        }
+        out.close();
+
+        return testDataFile;
+    }
+
+    @Test
+    public void should_read_the_rows_one_at_a_time() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone",
+                "Bill, 10 main street, 123456789",
+                "Tim,  12 main street, 123456700");
+
+        Iterator<TestDataRow> rows = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath()).iterator();
+
+        TestDataRow row1 = rows.next();
+        assertThat(row1.get("name"), is("Bill"));
+        assertThat(row1.get("address"), is("10 main street"));
+        TestDataRow row2 = rows.next();
+        assertThat(row2.get("name"), is("Tim"));
+        assertThat(row2.get("phone"), is("123456700"));
+        assertThat(rows.hasNext(), is(false));
+    }
+
+    @Test
+    public void the_first_instance_should_be_created_before_the_whole_file_has_been_read() throws IOException {
+        int rowCount = 100000;
+        String[] data = new String[rowCount + 1];
+        data[0] = "name, address, phone";
+        for (int row = 1; row <= rowCount; row++) {
+            data[row] = "Person " + row + ", " + row + " main street, 123456789";
+        }
+        File testDataFile = useTestDataIn("testdata.csv", data);
+
+        RowBasedTestDataSource testData
+                = (RowBasedTestDataSource) TestDataFormats.open(testDataFile.getAbsolutePath(), ',');
+        Iterator<Person> people = testData.instancesOf(Person.class);
+        Person firstPerson = people.next();
+
+        RandomAccessFile truncatedFile = new RandomAccessFile(testDataFile, "rw");
+        truncatedFile.setLength(0);
+        truncatedFile.close();
+        int peopleReadAfterTruncation = 0;
+        while (people.hasNext()) {
+            people.next();
+            peopleReadAfterTruncation++;
+        }
+
+        assertThat(firstPerson.getName(), is("Person 1"));
+        assertThat(peopleReadAfterTruncation, is(lessThan(rowCount - 1)));
+    }
+
+    @Test
+    public void should_be_able_to_load_test_data_from_the_classpath() throws IOException {
+
+        TestDataSource testdata = new StreamingCSVTestDataSource("testdata/test.csv");
+
+        assertThat(testdata.getData().size(), is(3));
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void should_report_missing_test_data() throws IOException {
+        new StreamingCSVTestDataSource("testdata/no-such-file.csv");
+    }
+
+    @Test
+    public void should_share_the_column_headings_between_rows() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address",
+                "Bill, 10 main street",
+                "Tim,  12 main street");
+
+        Iterator<TestDataRow> rows = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath()).iterator();
+
+        assertThat(rows.next().getColumnIndex() == rows.next().getColumnIndex(), is(true));
+    }
+
+    @Test
+    public void should_give_the_same_data_as_the_csv_test_data_source() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone, unused",
+                "Bill, 10 main street, 123456789",
+                "Tim,  12 main street, 123456700,   extra data here, more extra data");
+
+        List<Map<String, String>> streamedData
+                = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath()).getData();
+        List<Map<String, String>> loadedData = new CSVTestDataSource(testDataFile.getAbsolutePath()).getData();
+
+        assertThat(streamedData, is(loadedData));
+    }
+
+    @Test
+    public void should_return_null_for_missing_values() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone",
+                "Bill, 10 main street");
+
+        TestDataRow row = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath()).iterator().next();
+
+        assertThat(row.get("phone"), is(nullValue()));
+        assertThat(row.get("unknown"), is(nullValue()));
+    }
+
+    @Test
+    public void should_load_nothing_if_no_data_is_present() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv", "");
+
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath());
+
+        assertThat(testdata.iterator().hasNext(), is(false));
+    }
+
+    @Test
+    public void should_create_test_data_instances_as_the_rows_are_read() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone,      date of birth",
+                "Bill, 10 main street, 123456789,  10/10/1970",
+                "Tim,  12 main street, 123456700,  10/10/1971");
+
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath());
+        Iterator<Person> people = testdata.instancesOf(Person.class);
+
+        Person bill = people.next();
+        assertThat(bill.getName(), is("Bill"));
+        assertThat(bill.getDateOfBirth(), is("10/10/1970"));
+        Person tim = people.next();
+        assertThat(tim.getName(), is("Tim"));
+        assertThat(people.hasNext(), is(false));
+    }
+
+    @Test(expected = FailedToInitializeTestData.class)
+    public void should_fail_if_no_properties_can_be_assigned() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "unknown, other",
+                "Bill,    10 main street");
+
+        new StreamingCSVTestDataSource(testDataFile.getAbsolutePath()).getDataAsInstancesOf(Person.class);
+    }
+}
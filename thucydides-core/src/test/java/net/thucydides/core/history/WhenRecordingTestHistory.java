@@ -0,0 +1,181 @@
+package net.thucydides.core.history;
+
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.junit.rules.SaveWebdriverSystemPropertiesRule;
+import net.thucydides.core.model.ConcreteTestStep;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class WhenRecordingTestHistory {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public SaveWebdriverSystemPropertiesRule saveWebdriverSystemPropertiesRule = new SaveWebdriverSystemPropertiesRule();
+
+    File outputDirectory;
+
+    @Before
+    public void setupOutputDirectory() {
+        outputDirectory = temporaryFolder.newFolder("thucydides");
+    }
+
+    class SomeTestCase {
+        public void a_test() {}
+        public void another_test() {}
+    }
+
+    private TestOutcome outcomeOf(final String testName, final long duration, final TestResult result) {
+        TestOutcome testOutcome = TestOutcome.forTestInStory(testName, Story.from(SomeTestCase.class), SomeTestCase.class);
+        ConcreteTestStep step = new ConcreteTestStep("step");
+        step.setDuration(duration);
+        step.setResult(result);
+        testOutcome.recordStep(step);
+        return testOutcome;
+    }
+
+    private String nameOf(final String testName) {
+        return TestHistory.testNameFor(SomeTestCase.class, testName, null);
+    }
+
+    @Test
+    public void should_remember_how_long_each_test_took() {
+        new TestHistory(new File(outputDirectory, "history.properties"))
+                .recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 100, TestResult.SUCCESS),
+                                                outcomeOf("another_test", 250, TestResult.FAILURE)), null);
+
+        TestHistory testHistory = new TestHistory(new File(outputDirectory, "history.properties"));
+
+        assertThat(testHistory.getDurationOf(nameOf("a_test")), is(100L));
+        assertThat(testHistory.getDurationOf(nameOf("another_test")), is(250L));
+    }
+
+    @Test
+    public void tests_that_have_never_run_should_have_no_history() {
+        TestHistory testHistory = new TestHistory(new File(outputDirectory, "history.properties"));
+
+        assertThat(testHistory.getDurationOf(nameOf("a_test")), is(nullValue()));
+        assertThat(testHistory.getFailureRateOf(nameOf("a_test")), is(0.0));
+    }
+
+    @Test
+    public void should_remember_the_most_recent_duration() {
+        TestHistory testHistory = new TestHistory(new File(outputDirectory, "history.properties"));
+
+        testHistory.recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 100, TestResult.SUCCESS)), null);
+        testHistory.recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 300, TestResult.SUCCESS)), null);
+
+        assertThat(testHistory.getDurationOf(nameOf("a_test")), is(300L));
+    }
+
+    @Test
+    public void should_know_how_often_a_test_failed_in_the_last_few_runs() {
+        TestHistory testHistory = new TestHistory(new File(outputDirectory, "history.properties"));
+
+        testHistory.recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 100, TestResult.FAILURE)), null);
+        for (int run = 0; run < TestHistory.REMEMBERED_RESULTS - 1; run++) {
+            testHistory.recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 100, TestResult.SUCCESS)), null);
+        }
+        testHistory.recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 100, TestResult.FAILURE)), null);
+
+        assertThat(testHistory.getFailureRateOf(nameOf("a_test")), is(1.0 / TestHistory.REMEMBERED_RESULTS));
+    }
+
+    @Test
+    public void tests_that_did_not_run_should_not_be_recorded() {
+        TestHistory testHistory = new TestHistory(new File(outputDirectory, "history.properties"));
+
+        testHistory.recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 100, TestResult.PENDING)), null);
+
+        assertThat(testHistory.getDurationOf(nameOf("a_test")), is(nullValue()));
+    }
+
+    @Test
+    public void data_driven_rows_should_have_their_own_history() {
+        TestHistory testHistory = new TestHistory(new File(outputDirectory, "history.properties"));
+
+        testHistory.recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 100, TestResult.SUCCESS)), "row_1");
+        testHistory.recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 200, TestResult.SUCCESS)), "row_2");
+
+        assertThat(testHistory.getDurationOf(TestHistory.testNameFor(SomeTestCase.class, "a_test", "row_1")), is(100L));
+        assertThat(testHistory.getDurationOf(TestHistory.testNameFor(SomeTestCase.class, "a_test", "row_2")), is(200L));
+    }
+
+    @Test
+    public void the_rows_of_a_data_driven_test_can_be_recorded_together() {
+        TestHistory testHistory = new TestHistory(new File(outputDirectory, "history.properties"));
+        Map<String, List<TestOutcome>> rows = new HashMap<String, List<TestOutcome>>();
+        rows.put("row_1", Arrays.asList(outcomeOf("a_test", 100, TestResult.SUCCESS)));
+        rows.put("row_2", Arrays.asList(outcomeOf("a_test", 200, TestResult.FAILURE)));
+
+        testHistory.recordOutcomesByQualifier(rows);
+
+        assertThat(testHistory.getDurationOf(TestHistory.testNameFor(SomeTestCase.class, "a_test", "row_1")), is(100L));
+        assertThat(testHistory.getDurationOf(TestHistory.testNameFor(SomeTestCase.class, "a_test", "row_2")), is(200L));
+        assertThat(testHistory.getFailureRateOf(TestHistory.testNameFor(SomeTestCase.class, "a_test", "row_2")), is(1.0));
+    }
+
+    @Test
+    public void updates_from_different_threads_should_all_be_kept() throws InterruptedException {
+        final File historyFile = new File(outputDirectory, "history.properties");
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        final List<String> rows = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            rows.add("row_" + i);
+        }
+        for (final String row : rows) {
+            executorService.submit(new Runnable() {
+                public void run() {
+                    new TestHistory(historyFile).recordOutcomesOf(
+                            Arrays.asList(outcomeOf("a_test", 100, TestResult.SUCCESS)), row);
+                }
+            });
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(30, TimeUnit.SECONDS);
+
+        TestHistory testHistory = new TestHistory(historyFile);
+        for (String row : rows) {
+            assertThat(testHistory.getDurationOf(TestHistory.testNameFor(SomeTestCase.class, "a_test", row)), is(100L));
+        }
+    }
+
+    @Test
+    public void the_history_file_can_be_configured() {
+        File historyFile = new File(temporaryFolder.newFolder("history"), "shared-history.properties");
+        System.setProperty(ThucydidesSystemProperty.TEST_HISTORY_FILE.getPropertyName(), historyFile.getAbsolutePath());
+
+        TestHistory.inOutputDirectory(outputDirectory)
+                   .recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 100, TestResult.SUCCESS)), null);
+
+        assertThat(historyFile.exists(), is(true));
+    }
+
+    @Test
+    public void the_history_is_kept_in_the_output_directory_by_default() {
+        TestHistory.inOutputDirectory(outputDirectory)
+                   .recordOutcomesOf(Arrays.asList(outcomeOf("a_test", 100, TestResult.SUCCESS)), null);
+
+        assertThat(new File(outputDirectory, "test-history.properties").exists(), is(true));
+    }
+}
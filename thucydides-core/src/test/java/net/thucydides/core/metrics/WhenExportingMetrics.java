@@ -0,0 +1,121 @@
+package net.thucydides.core.metrics;
+
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.junit.rules.SaveWebdriverSystemPropertiesRule;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+public class WhenExportingMetrics {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public SaveWebdriverSystemPropertiesRule saveWebdriverSystemPropertiesRule = new SaveWebdriverSystemPropertiesRule();
+
+    SimpleMetricsRegistry registry;
+
+    @Before
+    public void useANewRegistry() {
+        registry = new SimpleMetricsRegistry();
+        Metrics.useRegistry(registry);
+    }
+
+    @After
+    public void restoreTheDefaultRegistry() {
+        Metrics.useRegistry(new SimpleMetricsRegistry());
+    }
+
+    @Test
+    public void timers_should_be_written_as_prometheus_summaries_in_seconds() {
+        registry.timer("thucydides_step_duration").record(1500);
+        registry.timer("thucydides_step_duration").record(250);
+
+        String output = prometheusFormOf(registry);
+
+        assertThat(output, containsString("# TYPE thucydides_step_duration_seconds summary\n"));
+        assertThat(output, containsString("thucydides_step_duration_seconds_count 2\n"));
+        assertThat(output, containsString("thucydides_step_duration_seconds_sum 1.750\n"));
+        assertThat(output, containsString("thucydides_step_duration_seconds_max 1.500\n"));
+    }
+
+    @Test
+    public void counters_should_be_written_as_prometheus_counters() {
+        registry.counter("thucydides_step_failures_total").increment();
+
+        String output = prometheusFormOf(registry);
+
+        assertThat(output, containsString("# TYPE thucydides_step_failures_total counter\n"));
+        assertThat(output, containsString("thucydides_step_failures_total 1\n"));
+    }
+
+    private String prometheusFormOf(final MetricsRegistry registry) {
+        StringWriter writer = new StringWriter();
+        new PrometheusFormatWriter(registry).writeTo(writer);
+        return writer.toString().replace(System.getProperty("line.separator"), "\n");
+    }
+
+    @Test
+    public void metrics_should_be_written_to_the_configured_file_in_the_output_directory() throws Exception {
+        File outputDirectory = temporaryFolder.newFolder("thucydides");
+        System.setProperty(ThucydidesSystemProperty.METRICS_FILE.getPropertyName(), "metrics.prom");
+        registry.timer(Metrics.REPORT_GENERATION).record(20);
+
+        Metrics.writeMetricsFileIn(outputDirectory);
+
+        String metrics = FileUtils.readFileToString(new File(outputDirectory, "metrics.prom"));
+        assertThat(metrics, containsString("thucydides_report_generation_seconds_count 1"));
+    }
+
+    @Test
+    public void no_metrics_file_should_be_written_by_default() throws Exception {
+        File outputDirectory = temporaryFolder.newFolder("thucydides");
+        registry.timer(Metrics.REPORT_GENERATION).record(20);
+
+        Metrics.writeMetricsFileIn(outputDirectory);
+
+        assertThat(outputDirectory.list().length, is(0));
+    }
+
+    @Test
+    public void metrics_should_be_readable_over_jmx() throws Exception {
+        registry.timer(Metrics.DRIVER_STARTUP).record(800);
+        registry.counter(Metrics.PAGE_WAIT_TIMEOUTS).increment();
+
+        new JmxMetricsExporter(registry).register();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(JmxMetricsExporter.OBJECT_NAME);
+        assertThat((Long) server.getAttribute(name, "thucydides_driver_startup.count"), is(1L));
+        assertThat((Long) server.getAttribute(name, "thucydides_driver_startup.totalTime"), is(800L));
+        assertThat((Long) server.getAttribute(name, "thucydides_page_wait_timeouts_total"), is(1L));
+        server.unregisterMBean(name);
+    }
+
+    @Test
+    public void metrics_should_be_published_over_jmx_when_requested() throws Exception {
+        System.setProperty(ThucydidesSystemProperty.METRICS_JMX.getPropertyName(), "true");
+
+        Metrics.timer(Metrics.STEP_DURATION).record(10);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(JmxMetricsExporter.OBJECT_NAME);
+        assertThat(server.isRegistered(name), is(true));
+        assertThat((Long) server.getAttribute(name, "thucydides_step_duration.count"), is(1L));
+        server.unregisterMBean(name);
+    }
+}
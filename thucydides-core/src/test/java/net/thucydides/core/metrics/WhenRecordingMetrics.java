@@ -0,0 +1,110 @@
+package net.thucydides.core.metrics;
+
+import net.thucydides.core.pages.WaitBudget;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WhenRecordingMetrics {
+
+    SimpleMetricsRegistry registry;
+
+    @Before
+    public void useANewRegistry() {
+        registry = new SimpleMetricsRegistry();
+        Metrics.useRegistry(registry);
+    }
+
+    @After
+    public void restoreTheDefaultRegistry() {
+        Metrics.useRegistry(new SimpleMetricsRegistry());
+    }
+
+    @Test
+    public void a_timer_should_record_the_number_of_measurements_and_the_total_and_maximum_times() {
+        Timer timer = registry.timer("a_timer");
+
+        timer.record(100);
+        timer.record(300);
+        timer.record(200);
+
+        assertThat(timer.getCount(), is(3L));
+        assertThat(timer.getTotalTime(), is(600L));
+        assertThat(timer.getMaxTime(), is(300L));
+    }
+
+    @Test
+    public void a_counter_should_count_increments() {
+        Counter counter = registry.counter("a_counter");
+
+        counter.increment();
+        counter.increment();
+
+        assertThat(counter.getCount(), is(2L));
+    }
+
+    @Test
+    public void the_registry_should_return_the_same_timer_for_the_same_name() {
+        assertThat(registry.timer("a_timer"), is(sameInstance(registry.timer("a_timer"))));
+    }
+
+    @Test
+    public void the_registry_should_list_timers_and_counters_by_name() {
+        registry.timer("b_timer");
+        registry.timer("a_timer");
+        registry.counter("a_counter");
+
+        assertThat(registry.getTimers().keySet(), hasItems("a_timer", "b_timer"));
+        assertThat(registry.getTimers().firstKey(), is("a_timer"));
+        assertThat(registry.getCounters().keySet(), hasItems("a_counter"));
+    }
+
+    @Test
+    public void metrics_should_be_recorded_in_the_registry_in_use() {
+        Metrics.timer(Metrics.STEP_DURATION).record(50);
+
+        assertThat(registry.timer(Metrics.STEP_DURATION).getTotalTime(), is(50L));
+    }
+
+    @Test
+    public void time_spent_waiting_for_pages_should_be_recorded() {
+        new WaitBudget(WaitBudget.UNLIMITED, WaitBudget.UNLIMITED).recordTimeSpentWaiting(250);
+
+        assertThat(registry.timer(Metrics.PAGE_WAIT).getCount(), is(1L));
+        assertThat(registry.timer(Metrics.PAGE_WAIT).getTotalTime(), is(250L));
+    }
+
+    @Test
+    public void timers_should_be_safe_to_update_from_several_threads() throws InterruptedException {
+        final Timer timer = registry.timer("a_timer");
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 1; j <= 1000; j++) {
+                        timer.record(j);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(timer.getCount(), is(4000L));
+        assertThat(timer.getTotalTime(), is(4 * 500500L));
+        assertThat(timer.getMaxTime(), is(1000L));
+    }
+}
@@ -0,0 +1,168 @@
+package net.thucydides.core.pages;
+
+import net.thucydides.core.junit.rules.SaveWebdriverSystemPropertiesRule;
+import net.thucydides.core.metrics.Metrics;
+import net.thucydides.core.metrics.SimpleMetricsRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.MethodRule;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotVisibleException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WhenBudgetingTimeSpentWaiting {
+
+    private static final long ONE_MINUTE = 60000;
+
+    @Mock
+    WebDriver driver;
+
+    @Rule
+    public MethodRule saveSystemProperties = new SaveWebdriverSystemPropertiesRule();
+
+    VirtualClock clock;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        clock = new VirtualClock();
+        when(driver.findElements(any(By.class))).thenReturn(new ArrayList<WebElement>());
+    }
+
+    @After
+    public void resetBudget() {
+        System.clearProperty("thucydides.wait.budget.per.test");
+        System.clearProperty("thucydides.wait.budget.per.step");
+        WaitBudget.startTest();
+        Metrics.useRegistry(new SimpleMetricsRegistry());
+    }
+
+    @Test
+    public void waits_should_not_be_limited_by_default() {
+        WaitBudget budget = new WaitBudget(WaitBudget.UNLIMITED, WaitBudget.UNLIMITED);
+
+        assertThat(budget.allowedWaitFor(ONE_MINUTE), is(ONE_MINUTE));
+    }
+
+    @Test
+    public void waits_should_be_capped_by_the_time_left_in_the_test_budget() {
+        WaitBudget budget = new WaitBudget(10000, WaitBudget.UNLIMITED);
+
+        budget.recordTimeSpentWaiting(8000);
+
+        assertThat(budget.allowedWaitFor(ONE_MINUTE), is(2000L));
+    }
+
+    @Test
+    public void waits_should_be_capped_by_the_time_left_in_the_step_budget() {
+        WaitBudget budget = new WaitBudget(ONE_MINUTE, 5000);
+
+        budget.recordTimeSpentWaiting(4000);
+
+        assertThat(budget.allowedWaitFor(ONE_MINUTE), is(1000L));
+    }
+
+    @Test
+    public void the_step_budget_should_be_restored_for_each_step() {
+        WaitBudget budget = new WaitBudget(ONE_MINUTE, 5000);
+
+        budget.recordTimeSpentWaiting(5000);
+        budget.startStep();
+
+        assertThat(budget.allowedWaitFor(ONE_MINUTE), is(5000L));
+        assertThat(budget.getTimeWaitedInTest(), is(5000L));
+    }
+
+    @Test
+    public void a_used_up_budget_should_not_allow_any_more_waiting() {
+        WaitBudget budget = new WaitBudget(1000, WaitBudget.UNLIMITED);
+
+        budget.recordTimeSpentWaiting(1500);
+
+        assertThat(budget.allowedWaitFor(ONE_MINUTE), is(0L));
+    }
+
+    @Test
+    public void page_waits_should_fail_fast_once_the_test_budget_is_used_up() {
+        System.setProperty("thucydides.wait.budget.per.test", "5000");
+        WaitBudget.startTest();
+        RenderedPageObjectView view = new RenderedPageObjectView(driver, ONE_MINUTE, clock);
+
+        waitForMissingTextIn(view);
+        long timeAfterFirstWait = clock.getCurrentTime();
+        waitForMissingTextIn(view);
+
+        assertThat(timeAfterFirstWait, is(5000L));
+        assertThat(clock.getCurrentTime(), is(5000L));
+    }
+
+    @Test
+    public void page_waits_should_record_the_time_spent_waiting() {
+        WaitBudget.startTest();
+        RenderedPageObjectView view = new RenderedPageObjectView(driver, 2000, clock);
+
+        waitForMissingTextIn(view);
+
+        assertThat(WaitBudget.current().getTimeWaitedInTest(), is(2000L));
+    }
+
+    @Test
+    public void page_waits_should_still_check_the_page_once_the_budget_is_used_up() {
+        WebElement element = mock(WebElement.class);
+        when(element.isDisplayed()).thenReturn(true);
+        when(driver.findElements(any(By.class))).thenReturn(Arrays.asList(element));
+        System.setProperty("thucydides.wait.budget.per.test", "1000");
+        WaitBudget.startTest();
+        WaitBudget.current().recordTimeSpentWaiting(1000);
+        RenderedPageObjectView view = new RenderedPageObjectView(driver, ONE_MINUTE, clock);
+
+        view.waitForAllTextToAppear("already displayed");
+        view.waitForAnyRenderedElementOf(new By[] {By.id("already-displayed")});
+
+        assertThat(clock.getCurrentTime(), is(0L));
+    }
+
+    @Test
+    public void element_waits_should_not_count_as_timed_out_if_the_last_check_succeeds() {
+        SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+        Metrics.useRegistry(registry);
+        System.setProperty("thucydides.wait.budget.per.test", "1000");
+        WaitBudget.startTest();
+        WebElement element = mock(WebElement.class);
+        when(element.isDisplayed()).thenAnswer(new Answer<Boolean>() {
+            public Boolean answer(final InvocationOnMock invocation) {
+                return clock.getCurrentTime() >= 1000;
+            }
+        });
+
+        new WebElementFacade(driver, element, clock).waitForRenderedElement(element);
+
+        assertThat(clock.getCurrentTime(), is(1000L));
+        assertThat(registry.counter(Metrics.PAGE_WAIT_TIMEOUTS).getCount(), is(0L));
+    }
+
+    private void waitForMissingTextIn(final RenderedPageObjectView view) {
+        try {
+            view.waitForText("never displayed");
+        } catch (ElementNotVisibleException expected) {
+            return;
+        }
+        throw new AssertionError("Wait should have timed out");
+    }
+}
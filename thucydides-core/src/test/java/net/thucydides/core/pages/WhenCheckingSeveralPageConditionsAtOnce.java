@@ -0,0 +1,170 @@
+package net.thucydides.core.pages;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class WhenCheckingSeveralPageConditionsAtOnce {
+
+    WebDriver driver;
+
+    JavascriptExecutor javascriptExecutor;
+
+    @Mock
+    WebElement element;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        when(((JavascriptExecutor) driver).isJavascriptEnabled()).thenReturn(true);
+        javascriptExecutor = (JavascriptExecutor) driver;
+    }
+
+    @Test
+    public void texts_on_the_page_should_be_read_from_the_returned_bitmask() {
+        when(javascriptExecutor.executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT), anyVararg()))
+                .thenReturn(5L);
+        BatchedPageConditions conditions = new BatchedPageConditions(driver);
+
+        boolean[] textsFound = conditions.checkTextsOnPage("one", "two", "three");
+
+        assertThat(Arrays.toString(textsFound), is("[true, false, true]"));
+        verify(javascriptExecutor, times(1)).executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT),
+                                                           anyVararg());
+    }
+
+    @Test
+    public void large_numbers_of_texts_should_be_split_into_several_calls() {
+        when(javascriptExecutor.executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT), anyVararg()))
+                .thenReturn(1L);
+        BatchedPageConditions conditions = new BatchedPageConditions(driver);
+
+        boolean[] textsFound = conditions.checkTextsOnPage(textsCalled("text", 40));
+
+        assertThat(textsFound[0], is(true));
+        assertThat(textsFound[1], is(false));
+        assertThat(textsFound[31], is(true));
+        verify(javascriptExecutor, times(2)).executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT),
+                                                           anyVararg());
+    }
+
+    @Test
+    public void elements_that_cannot_be_located_in_javascript_should_be_considered_possibly_rendered() {
+        when(javascriptExecutor.executeScript(eq(BatchedPageConditions.RENDERED_ELEMENTS_SCRIPT), anyVararg()))
+                .thenReturn(0L);
+        BatchedPageConditions conditions = new BatchedPageConditions(driver);
+
+        boolean[] rendered = conditions.checkRenderedElements(By.id("element1"), By.linkText("a link"));
+
+        assertThat(Arrays.toString(rendered), is("[false, true]"));
+        verify(javascriptExecutor).executeScript(BatchedPageConditions.RENDERED_ELEMENTS_SCRIPT, "id", "element1");
+    }
+
+    @Test
+    public void batched_conditions_should_not_be_available_for_drivers_without_javascript() {
+        BatchedPageConditions conditions = new BatchedPageConditions(mock(WebDriver.class));
+
+        assertThat(conditions.isAvailable(), is(false));
+    }
+
+    @Test
+    public void waiting_for_several_texts_should_only_need_one_browser_call_per_check() {
+        when(javascriptExecutor.executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT), anyVararg()))
+                .thenReturn(7L);
+        RenderedPageObjectView view = new RenderedPageObjectView(driver, 1000);
+
+        view.waitForAllTextToAppear("one", "two", "three");
+
+        verify(javascriptExecutor, times(1)).executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT),
+                                                           anyVararg());
+        verify(driver, never()).findElements(any(By.class));
+    }
+
+    @Test
+    public void waiting_for_several_texts_should_check_each_text_if_the_batched_check_fails() {
+        when(javascriptExecutor.executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT), anyVararg()))
+                .thenThrow(new WebDriverException("JavaScript disabled"));
+        List<WebElement> listWithElements = new ArrayList<WebElement>();
+        listWithElements.add(element);
+        when(driver.findElements(any(By.class))).thenReturn(listWithElements);
+        RenderedPageObjectView view = new RenderedPageObjectView(driver, 1000);
+
+        view.waitForAllTextToAppear("one", "two");
+
+        verify(driver, times(2)).findElements(any(By.class));
+    }
+
+    @Test
+    public void batched_conditions_should_still_be_used_after_a_transient_error() {
+        when(javascriptExecutor.executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT), anyVararg()))
+                .thenThrow(new WebDriverException("Page reloaded"))
+                .thenReturn(1L);
+        BatchedPageConditions conditions = new BatchedPageConditions(driver);
+
+        try {
+            conditions.checkTextsOnPage("one");
+        } catch (WebDriverException expected) {}
+
+        assertThat(conditions.isAvailable(), is(true));
+        assertThat(conditions.checkTextsOnPage("one")[0], is(true));
+    }
+
+    @Test
+    public void batched_conditions_should_not_be_used_once_the_driver_has_refused_to_run_them() {
+        when(javascriptExecutor.executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT), anyVararg()))
+                .thenThrow(new UnsupportedOperationException());
+        BatchedPageConditions conditions = new BatchedPageConditions(driver);
+
+        try {
+            conditions.checkTextsOnPage("one");
+        } catch (WebDriverException expected) {}
+
+        assertThat(conditions.isAvailable(), is(false));
+    }
+
+    @Test
+    public void waiting_for_any_of_several_elements_should_only_check_the_possibly_rendered_ones() {
+        when(javascriptExecutor.executeScript(eq(BatchedPageConditions.RENDERED_ELEMENTS_SCRIPT), anyVararg()))
+                .thenReturn(2L);
+        List<WebElement> listWithElements = new ArrayList<WebElement>();
+        listWithElements.add(element);
+        when(element.isDisplayed()).thenReturn(true);
+        when(driver.findElements(By.id("element2"))).thenReturn(listWithElements);
+        RenderedPageObjectView view = new RenderedPageObjectView(driver, 1000);
+
+        view.waitForAnyRenderedElementOf(new By[] {By.id("element1"), By.id("element2")});
+
+        verify(driver, never()).findElements(By.id("element1"));
+    }
+
+    private String[] textsCalled(final String name, final int count) {
+        String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            texts[i] = name + i;
+        }
+        return texts;
+    }
+}
@@ -49,7 +49,7 @@ public class WhenManagingAPageObject {
         protected WebElement button;
 
         public BasicPageObject(WebDriver driver) {
-            super(driver);
+            super(driver, new VirtualClock());
         }
 
         protected WebElement getButton() {
@@ -0,0 +1,79 @@
+package net.thucydides.core.pages;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class WhenSearchingForTextOnAPage {
+
+    @Mock
+    WebDriver driver;
+
+    @Mock
+    WebElement element;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void simple_texts_should_be_quoted_with_double_quotes() {
+        assertThat(RenderedPageObjectView.xpathLiteralFor("hi there"), is("\"hi there\""));
+    }
+
+    @Test
+    public void texts_containing_double_quotes_should_be_quoted_with_single_quotes() {
+        assertThat(RenderedPageObjectView.xpathLiteralFor("say \"hi\""), is("'say \"hi\"'"));
+    }
+
+    @Test
+    public void texts_containing_both_kinds_of_quotes_should_be_built_with_concat() {
+        assertThat(RenderedPageObjectView.xpathLiteralFor("it's \"ok\""),
+                   is("concat(\"it's \", '\"', \"ok\", '\"', \"\")"));
+    }
+
+    @Test
+    public void text_with_quotes_should_be_searched_for_using_a_valid_xpath_expression() {
+        List<WebElement> listWithElements = new ArrayList<WebElement>();
+        listWithElements.add(element);
+        when(driver.findElements(By.xpath("//body[contains(.,'say \"hi\"')]"))).thenReturn(listWithElements);
+        RenderedPageObjectView view = new RenderedPageObjectView(driver, 100);
+
+        assertThat(view.containsText("say \"hi\""), is(true));
+    }
+
+    @Test
+    public void text_should_be_searched_for_using_javascript_when_available() {
+        WebDriver javascriptDriver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        JavascriptExecutor javascriptExecutor = (JavascriptExecutor) javascriptDriver;
+        when(javascriptExecutor.isJavascriptEnabled()).thenReturn(true);
+        when(javascriptExecutor.executeScript(eq(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT), anyVararg()))
+                .thenReturn(1L);
+        RenderedPageObjectView view = new RenderedPageObjectView(javascriptDriver, 100);
+
+        view.waitForText("it's \"ok\"");
+
+        verify(javascriptExecutor).executeScript(BatchedPageConditions.TEXTS_ON_PAGE_SCRIPT, "it's \"ok\"");
+        verify(javascriptDriver, never()).findElements(any(By.class));
+    }
+}
@@ -0,0 +1,82 @@
+package net.thucydides.core.pages;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotVisibleException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+public class WhenUsingAVirtualClock {
+
+    private static final long ONE_MINUTE = 60000;
+
+    @Mock
+    WebDriver driver;
+
+    @Mock
+    WebElement element;
+
+    VirtualClock clock;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        clock = new VirtualClock();
+    }
+
+    @Test
+    public void pausing_should_move_the_clock_forward() {
+        clock.pauseFor(ONE_MINUTE);
+
+        assertThat(clock.getCurrentTime(), is(ONE_MINUTE));
+    }
+
+    @Test
+    public void pausing_should_not_really_sleep() {
+        long startTime = System.currentTimeMillis();
+        clock.pauseFor(ONE_MINUTE);
+        long pauseLength = System.currentTimeMillis() - startTime;
+
+        assertThat(pauseLength, lessThan(ONE_MINUTE));
+    }
+
+    @Test
+    public void page_object_waits_should_time_out_using_the_virtual_clock() {
+        when(driver.findElements(any(By.class))).thenReturn(new ArrayList<WebElement>());
+        RenderedPageObjectView view = new RenderedPageObjectView(driver, ONE_MINUTE, clock);
+
+        try {
+            view.waitForText("never displayed");
+        } catch (ElementNotVisibleException expected) {
+            assertThat(clock.getCurrentTime(), greaterThanOrEqualTo(ONE_MINUTE));
+            return;
+        }
+        throw new AssertionError("Wait should have timed out");
+    }
+
+    @Test
+    public void web_element_waits_should_time_out_using_the_virtual_clock() {
+        when(element.isDisplayed()).thenReturn(false);
+        WebElementFacade facade = new WebElementFacade(driver, element, clock);
+
+        try {
+            facade.waitForRenderedElement(element);
+        } catch (ElementNotVisibleException expected) {
+            assertThat(clock.getCurrentTime(), greaterThanOrEqualTo(10000L));
+            return;
+        }
+        throw new AssertionError("Wait should have timed out");
+    }
+}
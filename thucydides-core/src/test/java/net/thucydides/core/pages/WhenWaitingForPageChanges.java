@@ -0,0 +1,166 @@
+package net.thucydides.core.pages;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class WhenWaitingForPageChanges {
+
+    @Mock
+    WebDriver.Options options;
+
+    @Mock
+    WebDriver.Timeouts timeouts;
+
+    WebDriver javascriptDriver;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        javascriptDriver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        when(((JavascriptExecutor) javascriptDriver).isJavascriptEnabled()).thenReturn(true);
+        when(javascriptDriver.manage()).thenReturn(options);
+        when(options.timeouts()).thenReturn(timeouts);
+    }
+
+    @Test
+    public void the_polling_interval_should_grow_exponentially() {
+        PollingInterval pollingInterval = new PollingInterval(10, 1000);
+
+        assertThat(pollingInterval.next(), is(10L));
+        assertThat(pollingInterval.next(), is(20L));
+        assertThat(pollingInterval.next(), is(40L));
+        assertThat(pollingInterval.next(), is(80L));
+    }
+
+    @Test
+    public void the_polling_interval_should_not_grow_beyond_the_maximum() {
+        PollingInterval pollingInterval = new PollingInterval(100, 300);
+
+        pollingInterval.next();
+        pollingInterval.next();
+
+        assertThat(pollingInterval.next(), is(300L));
+        assertThat(pollingInterval.next(), is(300L));
+    }
+
+    @Test
+    public void a_page_change_aware_clock_should_wait_for_dom_changes_in_the_browser() {
+        PageChangeAwareClock clock = new PageChangeAwareClock(javascriptDriver);
+
+        clock.pauseFor(100);
+
+        verify((JavascriptExecutor) javascriptDriver).executeAsyncScript(PageChangeAwareClock.WAIT_FOR_DOM_CHANGE_SCRIPT,
+                                                                         100L);
+    }
+
+    @Test
+    public void a_page_change_aware_clock_should_restore_the_script_timeout_after_each_pause() {
+        PageChangeAwareClock clock = new PageChangeAwareClock(javascriptDriver, 3000);
+
+        clock.pauseFor(100);
+        clock.pauseFor(50);
+
+        InOrder inOrder = inOrder(timeouts, javascriptDriver);
+        inOrder.verify(timeouts).setScriptTimeout(1100, TimeUnit.MILLISECONDS);
+        inOrder.verify((JavascriptExecutor) javascriptDriver).executeAsyncScript(anyString(), eq(100L));
+        inOrder.verify(timeouts).setScriptTimeout(3000, TimeUnit.MILLISECONDS);
+        inOrder.verify(timeouts).setScriptTimeout(1050, TimeUnit.MILLISECONDS);
+        inOrder.verify((JavascriptExecutor) javascriptDriver).executeAsyncScript(anyString(), eq(50L));
+        inOrder.verify(timeouts).setScriptTimeout(3000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void a_page_change_aware_clock_should_restore_the_script_timeout_if_the_script_fails() {
+        when(((JavascriptExecutor) javascriptDriver).executeAsyncScript(anyString(), anyLong()))
+                .thenThrow(new WebDriverException("Page reloaded"));
+        PageChangeAwareClock clock = new PageChangeAwareClock(javascriptDriver);
+
+        clock.pauseFor(10);
+
+        verify(timeouts).setScriptTimeout(PageChangeAwareClock.DEFAULT_SCRIPT_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void a_page_change_aware_clock_should_pause_for_a_minimum_time_even_if_the_dom_keeps_changing() {
+        PageChangeAwareClock clock = new PageChangeAwareClock(javascriptDriver);
+
+        long startTime = System.currentTimeMillis();
+        clock.pauseFor(500);
+        long pauseLength = System.currentTimeMillis() - startTime;
+
+        assertThat(pauseLength, greaterThanOrEqualTo(PageChangeAwareClock.MINIMUM_PAUSE));
+    }
+
+    @Test
+    public void a_page_change_aware_clock_should_pause_normally_for_drivers_without_javascript() {
+        WebDriver driver = mock(WebDriver.class);
+        PageChangeAwareClock clock = new PageChangeAwareClock(driver);
+
+        long startTime = System.currentTimeMillis();
+        clock.pauseFor(50);
+        long pauseLength = System.currentTimeMillis() - startTime;
+
+        assertThat(pauseLength, greaterThanOrEqualTo(50L));
+    }
+
+    @Test
+    public void a_page_change_aware_clock_should_stop_using_javascript_if_the_script_fails() {
+        when(((JavascriptExecutor) javascriptDriver).executeAsyncScript(anyString(), anyLong()))
+                .thenThrow(new WebDriverException("Asynchronous scripts not supported"));
+        PageChangeAwareClock clock = new PageChangeAwareClock(javascriptDriver);
+
+        clock.pauseFor(10);
+        clock.pauseFor(10);
+
+        verify((JavascriptExecutor) javascriptDriver, times(1)).executeAsyncScript(anyString(), anyLong());
+    }
+
+    @Test
+    public void a_page_change_aware_clock_should_keep_using_javascript_after_a_transient_error() {
+        when(((JavascriptExecutor) javascriptDriver).executeAsyncScript(anyString(), anyLong()))
+                .thenThrow(new WebDriverException("Page reloaded"))
+                .thenReturn(true);
+        PageChangeAwareClock clock = new PageChangeAwareClock(javascriptDriver);
+
+        long startTime = System.currentTimeMillis();
+        clock.pauseFor(50);
+        long pauseLength = System.currentTimeMillis() - startTime;
+        clock.pauseFor(10);
+
+        assertThat(pauseLength, greaterThanOrEqualTo(50L));
+        verify((JavascriptExecutor) javascriptDriver, times(2)).executeAsyncScript(anyString(), anyLong());
+    }
+
+    @Test
+    public void a_page_change_aware_clock_should_stop_using_javascript_if_the_driver_does_not_support_it() {
+        when(((JavascriptExecutor) javascriptDriver).executeAsyncScript(anyString(), anyLong()))
+                .thenThrow(new UnsupportedOperationException());
+        PageChangeAwareClock clock = new PageChangeAwareClock(javascriptDriver);
+
+        clock.pauseFor(10);
+        clock.pauseFor(10);
+
+        verify((JavascriptExecutor) javascriptDriver, times(1)).executeAsyncScript(anyString(), anyLong());
+    }
+}
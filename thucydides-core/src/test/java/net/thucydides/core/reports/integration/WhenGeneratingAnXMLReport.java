@@ -78,6 +78,54 @@ public class WhenGeneratingAnXMLReport {
         assertThat(generatedReportText, isSimilarTo(expectedReport));
     }
 
+    @Test
+    public void the_xml_report_should_record_the_time_spent_waiting_for_pages()
+            throws Exception {
+        TestOutcome testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class);
+        String expectedReport =
+              "<acceptance-test-run title='Should do this' name='should_do_this' steps='1' successful='1' failures='0' skipped='0' ignored='0' pending='0' result='SUCCESS' wait-time='1500'>\n"
+            + "  <user-story id='net.thucydides.core.reports.integration.WhenGeneratingAnXMLReport.AUserStory' name='A user story' />\n"
+            + "  <test-step result='SUCCESS'>\n"
+            + "    <description>step 1</description>\n"
+            + "  </test-step>\n"
+            + "</acceptance-test-run>";
+
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1"));
+        testOutcome.setTimeSpentWaiting(1500);
+
+        File xmlReport = reporter.generateReportFor(testOutcome);
+        String generatedReportText = getStringFrom(xmlReport);
+
+        assertThat(generatedReportText, isSimilarTo(expectedReport));
+    }
+
+    @Test
+    public void the_xml_report_should_record_the_time_breakdown_for_each_step()
+            throws Exception {
+        TestOutcome testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class);
+        String expectedReport =
+              "<acceptance-test-run title='Should do this' name='should_do_this' steps='1' successful='1' failures='0' skipped='0' ignored='0' pending='0' result='SUCCESS'>\n"
+            + "  <user-story id='net.thucydides.core.reports.integration.WhenGeneratingAnXMLReport.AUserStory' name='A user story' />\n"
+            + "  <test-step result='SUCCESS'>\n"
+            + "    <description>step 1</description>\n"
+            + "    <timings step='1200' wait='800' screenshot='150' page-source='30' listeners='5'/>\n"
+            + "  </test-step>\n"
+            + "</acceptance-test-run>";
+
+        ConcreteTestStep step = (ConcreteTestStep) TestStepFactory.successfulTestStepCalled("step 1");
+        step.getTimings().setStepTime(1200);
+        step.getTimings().setWaitTime(800);
+        step.getTimings().addScreenshotTime(150);
+        step.getTimings().addPageSourceTime(30);
+        step.getTimings().setListenerOverhead(5);
+        testOutcome.recordStep(step);
+
+        File xmlReport = reporter.generateReportFor(testOutcome);
+        String generatedReportText = getStringFrom(xmlReport);
+
+        assertThat(generatedReportText, isSimilarTo(expectedReport));
+    }
+
     @Test
     public void the_xml_report_should_contain_the_feature_if_provided()
             throws Exception {
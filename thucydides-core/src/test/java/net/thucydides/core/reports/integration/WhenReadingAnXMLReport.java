@@ -76,6 +76,30 @@ public class WhenReadingAnXMLReport {
         assertThat(testStep.getScreenshotPath(), is("step_1.png"));
     }
 
+    @Test
+    public void should_load_test_step_timings_from_xml_file() throws Exception {
+        String storedReportXML =
+            "<acceptance-test-run title='Should do this' name='should_do_this' steps='1' successful='1' failures='0' skipped='0' ignored='0' pending='0' result='SUCCESS'>\n"
+          + "  <user-story id='net.thucydides.core.reports.integration.WhenGeneratingAnXMLReport.AUserStory' name='A user story' />\n"
+          + "  <test-step result='SUCCESS'>\n"
+          + "    <description>step 1</description>\n"
+          + "    <timings step='1200' wait='800' screenshot='150' page-source='30' listeners='5'/>\n"
+          + "  </test-step>\n"
+          + "</acceptance-test-run>";
+
+        File report = temporaryDirectory.newFile("saved-report.xml");
+        FileUtils.writeStringToFile(report, storedReportXML);
+
+        TestOutcome testOutcome = outcomeReporter.loadReportFrom(report);
+
+        ConcreteTestStep testStep = (ConcreteTestStep) testOutcome.getTestSteps().get(0);
+        assertThat(testStep.getTimings().getStepTime(), is(1200L));
+        assertThat(testStep.getTimings().getWaitTime(), is(800L));
+        assertThat(testStep.getTimings().getScreenshotTime(), is(150L));
+        assertThat(testStep.getTimings().getPageSourceTime(), is(30L));
+        assertThat(testStep.getTimings().getListenerOverhead(), is(5L));
+    }
+
 
     @Test
     public void should_load_user_story_details_from_xml_file() throws Exception {
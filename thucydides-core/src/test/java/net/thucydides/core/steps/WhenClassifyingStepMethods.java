@@ -0,0 +1,68 @@
+package net.thucydides.core.steps;
+
+import net.thucydides.core.steps.samples.FlatScenarioSteps;
+import net.thucydides.core.steps.samples.NestedScenarioSteps;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WhenClassifyingStepMethods {
+
+    private StepMethod stepMethodCalled(final Class<?> stepLibrary, final String name) throws Exception {
+        Method method = stepLibrary.getMethod(name);
+        return StepMethod.from(StepMethod.methodsOf(stepLibrary), method);
+    }
+
+    @Test
+    public void should_recognize_step_methods() throws Exception {
+        StepMethod stepMethod = stepMethodCalled(FlatScenarioSteps.class, "step_one");
+
+        assertThat(stepMethod.isStep(), is(true));
+        assertThat(stepMethod.isStepGroup(), is(false));
+        assertThat(stepMethod.isPending(), is(false));
+        assertThat(stepMethod.isIgnored(), is(false));
+    }
+
+    @Test
+    public void should_recognize_step_groups() throws Exception {
+        assertThat(stepMethodCalled(NestedScenarioSteps.class, "step1").isStepGroup(), is(true));
+    }
+
+    @Test
+    public void should_recognize_pending_and_ignored_steps() throws Exception {
+        assertThat(stepMethodCalled(FlatScenarioSteps.class, "pendingStep").isPending(), is(true));
+        assertThat(stepMethodCalled(FlatScenarioSteps.class, "ignoredStep").isIgnored(), is(true));
+    }
+
+    @Test
+    public void should_recognize_object_methods() throws Exception {
+        assertThat(stepMethodCalled(FlatScenarioSteps.class, "toString").isObjectMethod(), is(true));
+        assertThat(stepMethodCalled(FlatScenarioSteps.class, "step_one").isObjectMethod(), is(false));
+    }
+
+    @Test
+    public void the_done_method_should_mark_the_end_of_the_test() throws Exception {
+        assertThat(stepMethodCalled(FlatScenarioSteps.class, "done").isLastMethod(), is(true));
+        assertThat(stepMethodCalled(FlatScenarioSteps.class, "step_one").isLastMethod(), is(false));
+    }
+
+    @Test
+    public void methods_should_only_be_classified_once_per_step_library() throws Exception {
+        StepMethod stepMethod = stepMethodCalled(FlatScenarioSteps.class, "step_two");
+
+        assertThat(stepMethodCalled(FlatScenarioSteps.class, "step_two"), is(sameInstance(stepMethod)));
+    }
+
+    @Test
+    public void each_step_library_should_have_its_own_methods() {
+        ConcurrentMap<Method, StepMethod> flatSteps = StepMethod.methodsOf(FlatScenarioSteps.class);
+
+        assertThat(StepMethod.methodsOf(FlatScenarioSteps.class), is(sameInstance(flatSteps)));
+        assertThat(StepMethod.methodsOf(NestedScenarioSteps.class) == flatSteps, is(false));
+    }
+}
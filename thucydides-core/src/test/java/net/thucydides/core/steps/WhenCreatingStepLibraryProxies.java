@@ -0,0 +1,79 @@
+package net.thucydides.core.steps;
+
+import net.thucydides.core.pages.Pages;
+import net.thucydides.core.steps.samples.FlatScenarioSteps;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class WhenCreatingStepLibraryProxies {
+
+    @Mock
+    Pages pages;
+
+    @Mock
+    StepListener firstListener;
+
+    @Mock
+    StepListener secondListener;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void the_proxy_class_should_only_be_generated_once_per_step_library() {
+        StepFactory factory = new StepFactory(pages);
+
+        FlatScenarioSteps steps = factory.newSteps(FlatScenarioSteps.class);
+        FlatScenarioSteps otherSteps = new StepFactory(pages).newSteps(FlatScenarioSteps.class);
+
+        assertThat(otherSteps, is(not(sameInstance(steps))));
+        assertThat(otherSteps.getClass(), is(sameInstance((Object) steps.getClass())));
+    }
+
+    @Test
+    public void each_proxy_should_use_its_own_interceptor() {
+        StepFactory firstFactory = new StepFactory(pages);
+        firstFactory.addListener(firstListener);
+        StepFactory secondFactory = new StepFactory(pages);
+        secondFactory.addListener(secondListener);
+
+        FlatScenarioSteps firstSteps = firstFactory.newSteps(FlatScenarioSteps.class);
+        secondFactory.newSteps(FlatScenarioSteps.class);
+
+        firstSteps.step_one();
+
+        verify(firstListener).stepStarted(any(ExecutedStepDescription.class));
+        verify(secondListener, never()).stepStarted(any(ExecutedStepDescription.class));
+    }
+
+    @Test
+    public void proxies_should_be_built_with_the_pages_object() {
+        FlatScenarioSteps steps = new StepFactory(pages).newSteps(FlatScenarioSteps.class);
+
+        assertThat(steps.getPages(), is(pages));
+    }
+
+    @Test
+    public void data_driven_proxies_should_share_the_generated_proxy_class() {
+        FlatScenarioSteps steps = new StepFactory(pages).newSteps(FlatScenarioSteps.class);
+
+        ScenarioSteps dataDrivenSteps = DataDrivenStepFactory.newDataDrivenSteps(FlatScenarioSteps.class,
+                                                                                 Arrays.asList(steps));
+
+        assertThat(dataDrivenSteps.getClass(), is(sameInstance((Object) steps.getClass())));
+    }
+}
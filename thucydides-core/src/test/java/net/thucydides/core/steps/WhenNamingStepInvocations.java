@@ -0,0 +1,60 @@
+package net.thucydides.core.steps;
+
+import net.thucydides.core.steps.samples.FlatScenarioSteps;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WhenNamingStepInvocations {
+
+    private StepInvocation invocationOf(final String methodName, final Object... args) throws Exception {
+        Method method;
+        if (args.length == 0) {
+            method = FlatScenarioSteps.class.getMethod(methodName);
+        } else {
+            method = FlatScenarioSteps.class.getMethod(methodName, String.class);
+        }
+        return new StepInvocation(FlatScenarioSteps.class, method, args);
+    }
+
+    @Test
+    public void a_step_without_arguments_should_be_named_after_the_method() throws Exception {
+        StepInvocation invocation = invocationOf("step_one");
+
+        assertThat(invocation.getDescription().getName(), is("step_one"));
+        assertThat(invocation.getPlainName(), is("step_one"));
+    }
+
+    @Test
+    public void the_arguments_of_a_step_should_be_marked_up_in_the_description() throws Exception {
+        StepInvocation invocation = invocationOf("stepWithParameters", "Joe");
+
+        assertThat(invocation.getDescription().getName(),
+                   is("stepWithParameters: <span class='single-parameter'>Joe</span>"));
+    }
+
+    @Test
+    public void the_plain_name_should_not_contain_markup() throws Exception {
+        StepInvocation invocation = invocationOf("stepWithParameters", "Joe");
+
+        assertThat(invocation.getPlainName(), is("stepWithParameters: Joe"));
+    }
+
+    @Test
+    public void the_description_should_be_built_once_per_invocation() throws Exception {
+        StepInvocation invocation = invocationOf("stepWithParameters", "Joe");
+
+        assertThat(invocation.getDescription(), is(sameInstance(invocation.getDescription())));
+    }
+
+    @Test
+    public void the_description_should_refer_to_the_step_library() throws Exception {
+        StepInvocation invocation = invocationOf("step_one");
+
+        assertThat(invocation.getDescription().getStepClass().getName(), is(FlatScenarioSteps.class.getName()));
+    }
+}
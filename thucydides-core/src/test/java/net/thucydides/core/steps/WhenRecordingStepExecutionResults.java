@@ -11,8 +11,11 @@ import net.thucydides.core.model.TestStep;
 import net.thucydides.core.model.TestStepGroup;
 import net.thucydides.core.model.features.ApplicationFeature;
 import net.thucydides.core.pages.Pages;
+import net.thucydides.core.pages.VirtualClock;
+import net.thucydides.core.pages.WaitBudget;
 import net.thucydides.core.steps.samples.FlatScenarioSteps;
 import net.thucydides.core.steps.samples.NestedScenarioSteps;
+import net.thucydides.core.steps.samples.TimedScenarioSteps;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -697,6 +700,65 @@ public class WhenRecordingStepExecutionResults {
         assertThat((int)stepDuration, greaterThanOrEqualTo(100));
     }
 
+    @Test
+    public void the_time_spent_waiting_for_pages_should_be_recorded_in_the_test_outcome() {
+        stepListener.testRunStartedFor(MyTestCase.class);
+        stepListener.testStarted("app_should_work");
+
+        ExecutedStepDescription description = ExecutedStepDescription.withTitle("a step");
+        stepListener.stepStarted(description);
+        WaitBudget.current().recordTimeSpentWaiting(1200);
+        stepListener.stepFinished(description);
+
+        TestOutcome outcome = stepListener.getTestOutcomes().get(0);
+        assertThat(outcome.getTimeSpentWaiting(), is(1200L));
+    }
+
+    @Test
+    public void the_time_spent_in_the_step_method_should_be_recorded_for_each_step() throws Exception {
+        stepListener.testRunStartedFor(MyTestCase.class);
+        stepListener.testStarted("app_should_work");
+
+        TimedScenarioSteps steps = (TimedScenarioSteps) stepFactory.newSteps(TimedScenarioSteps.class);
+        steps.slow_step();
+
+        ConcreteTestStep step = (ConcreteTestStep) stepListener.getTestOutcomes().get(0).getTestSteps().get(0);
+        assertThat(step.getTimings().getStepTime(), is(greaterThanOrEqualTo(50L)));
+        assertThat(step.getTimings().isRecorded(), is(true));
+    }
+
+    @Test
+    public void the_time_spent_waiting_for_pages_should_be_recorded_for_each_step() {
+        stepListener.testRunStartedFor(MyTestCase.class);
+        stepListener.testStarted("app_should_work");
+
+        TimedScenarioSteps steps = (TimedScenarioSteps) stepFactory.newSteps(TimedScenarioSteps.class);
+        steps.step_that_waits_for_a_page();
+
+        ConcreteTestStep step = (ConcreteTestStep) stepListener.getTestOutcomes().get(0).getTestSteps().get(0);
+        assertThat(step.getTimings().getWaitTime(), is(300L));
+    }
+
+    @Test
+    public void pauses_after_steps_should_use_the_step_listener_clock() {
+        VirtualClock clock = new VirtualClock();
+        ((BaseStepListener) stepListener).setClock(clock);
+        stepListener.testRunStartedFor(MyTestCase.class);
+        stepListener.testStarted("app_should_work");
+
+        ExecutedStepDescription group = ExecutedStepDescription.withTitle("Main group");
+        group.setAGroup(true);
+
+        System.setProperty(ThucydidesSystemProperty.STEP_DELAY.getPropertyName(), "60000");
+
+        stepListener.stepStarted(group);
+        stepListener.stepFinished(group);
+
+        System.setProperty(ThucydidesSystemProperty.STEP_DELAY.getPropertyName(), "");
+
+        assertThat(clock.getCurrentTime(), is(60000L));
+    }
+
     @Test
     public void starting_a_group_using_an_execution_step_object_should_create_a_new_group_step() {
         stepListener.testRunStartedFor(MyTestCase.class);
@@ -0,0 +1,194 @@
+package net.thucydides.core.steps;
+
+import net.thucydides.core.annotations.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestStep;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openqa.selenium.WebDriver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+public class WhenRecordingStepsConcurrently {
+
+    private static final int TEST_COUNT = 400;
+    private static final int THREAD_COUNT = 16;
+    private static final int STEPS_PER_TEST = 5;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    BaseStepListener stepListener;
+
+    ExecutorService executorService;
+
+    class AStory {}
+
+    @Story(AStory.class)
+    class ATestCase {}
+
+    @Before
+    public void createSharedStepListener() throws IOException {
+        File outputDirectory = temporaryFolder.newFolder("thucydides");
+        stepListener = new BaseStepListener(outputDirectory, null);
+        stepListener.setDriver(mock(WebDriver.class));
+        stepListener.testRunStartedFor(ATestCase.class);
+    }
+
+    /**
+     * The pool threads are created while the main thread is running a test of its own,
+     * so they must not pick up that test's state.
+     */
+    private void startThreadsDuringATest() {
+        stepListener.testStarted("main_thread_test");
+        executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executorService.submit(new Runnable() {
+                public void run() {}
+            });
+        }
+    }
+
+    @After
+    public void stopThreads() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private boolean shouldFail(final int test) {
+        return (test % 7 == 0);
+    }
+
+    private Callable<Boolean> syntheticTest(final int test, final CountDownLatch startSignal) {
+        return new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                startSignal.await();
+                stepListener.noStepsHaveFailed();
+                stepListener.testStarted("test_" + test);
+                for (int step = 0; step < STEPS_PER_TEST; step++) {
+                    ExecutedStepDescription description = ExecutedStepDescription.withTitle("test " + test + " step " + step);
+                    stepListener.stepStarted(description);
+                    Thread.yield();
+                    if (shouldFail(test) && (step == STEPS_PER_TEST - 1)) {
+                        stepListener.stepFailed(new StepFailure(description, new AssertionError("test " + test + " failed")));
+                    } else {
+                        stepListener.stepFinished(description);
+                    }
+                }
+                boolean failureSeen = stepListener.aStepHasFailed();
+                stepListener.testFinished(null);
+                return failureSeen;
+            }
+        };
+    }
+
+    private List<Boolean> runSyntheticTestsConcurrently() throws Exception {
+        if (executorService == null) {
+            executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        }
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+        for (int test = 0; test < TEST_COUNT; test++) {
+            results.add(executorService.submit(syntheticTest(test, startSignal)));
+        }
+        startSignal.countDown();
+        List<Boolean> failuresSeen = new ArrayList<Boolean>();
+        for (Future<Boolean> result : results) {
+            failuresSeen.add(result.get(60, TimeUnit.SECONDS));
+        }
+        return failuresSeen;
+    }
+
+    @Test
+    public void each_concurrent_test_should_have_its_own_outcome() throws Exception {
+        runSyntheticTestsConcurrently();
+
+        List<TestOutcome> outcomes = stepListener.getTestOutcomes();
+
+        assertThat(outcomes.size(), is(TEST_COUNT));
+        Set<String> testNames = new HashSet<String>();
+        for (TestOutcome outcome : outcomes) {
+            testNames.add(outcome.getMethodName());
+        }
+        assertThat(testNames.size(), is(TEST_COUNT));
+    }
+
+    @Test
+    public void steps_of_concurrent_tests_should_be_recorded_in_the_right_test() throws Exception {
+        runSyntheticTestsConcurrently();
+
+        for (TestOutcome outcome : stepListener.getTestOutcomes()) {
+            String test = outcome.getMethodName().substring("test_".length());
+            List<TestStep> steps = outcome.getTestSteps();
+            assertThat(steps.size(), is(STEPS_PER_TEST));
+            for (int step = 0; step < STEPS_PER_TEST; step++) {
+                assertThat(steps.get(step).getDescription(), is("test " + test + " step " + step));
+            }
+        }
+    }
+
+    @Test
+    public void failures_should_not_leak_between_concurrent_tests() throws Exception {
+        List<Boolean> failuresSeen = runSyntheticTestsConcurrently();
+
+        for (int test = 0; test < TEST_COUNT; test++) {
+            assertThat("failure seen by test " + test, failuresSeen.get(test), is(shouldFail(test)));
+        }
+        for (TestOutcome outcome : stepListener.getTestOutcomes()) {
+            int test = Integer.parseInt(outcome.getMethodName().substring("test_".length()));
+            TestResult expectedResult = shouldFail(test) ? TestResult.FAILURE : TestResult.SUCCESS;
+            assertThat("result of test " + test, outcome.getResult(), is(expectedResult));
+        }
+    }
+
+    @Test
+    public void threads_started_during_a_test_should_not_share_its_state() throws Exception {
+        startThreadsDuringATest();
+        StepFailure mainThreadFailure = new StepFailure(ExecutedStepDescription.withTitle("main thread step"),
+                                                        new AssertionError("main thread test failed"));
+        stepListener.stepStarted(ExecutedStepDescription.withTitle("main thread step"));
+        stepListener.stepFailed(mainThreadFailure);
+
+        List<Boolean> failuresSeen = runSyntheticTestsConcurrently();
+
+        for (int test = 0; test < TEST_COUNT; test++) {
+            assertThat("failure seen by test " + test, failuresSeen.get(test), is(shouldFail(test)));
+        }
+        assertThat(stepListener.aStepHasFailed(), is(true));
+        stepListener.testFinished(null);
+
+        List<TestOutcome> outcomes = stepListener.getTestOutcomes();
+        assertThat(outcomes.size(), is(TEST_COUNT + 1));
+        for (TestOutcome outcome : outcomes) {
+            if (outcome.getMethodName().equals("main_thread_test")) {
+                assertThat(outcome.getTestSteps().size(), is(1));
+                assertThat(outcome.getResult(), is(TestResult.FAILURE));
+            } else {
+                int test = Integer.parseInt(outcome.getMethodName().substring("test_".length()));
+                TestResult expectedResult = shouldFail(test) ? TestResult.FAILURE : TestResult.SUCCESS;
+                assertThat(outcome.getTestSteps().size(), is(STEPS_PER_TEST));
+                assertThat("result of test " + test, outcome.getResult(), is(expectedResult));
+            }
+        }
+    }
+}
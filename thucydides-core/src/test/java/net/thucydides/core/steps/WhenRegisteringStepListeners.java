@@ -0,0 +1,112 @@
+package net.thucydides.core.steps;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WhenRegisteringStepListeners {
+
+    @Mock
+    StepListener listener;
+
+    @Mock
+    StepListener anotherListener;
+
+    StepListenerRegistry registry;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        registry = new StepListenerRegistry();
+    }
+
+    @Test
+    public void registered_listeners_should_be_notified_in_the_order_they_were_registered() {
+        registry.register(listener);
+        registry.register(anotherListener);
+
+        assertThat(registry.getListeners().get(0), is(listener));
+        assertThat(registry.getListeners().get(1), is(anotherListener));
+    }
+
+    @Test
+    public void registering_a_listener_twice_should_have_no_effect() {
+        registry.register(listener);
+        registry.register(listener);
+
+        assertThat(registry.getListeners().size(), is(1));
+    }
+
+    @Test
+    public void the_list_of_listeners_should_not_change_when_a_listener_is_registered_later() {
+        registry.register(listener);
+        List<StepListener> listeners = registry.getListeners();
+
+        registry.register(anotherListener);
+
+        assertThat(listeners.size(), is(1));
+        assertThat(registry.getListeners().size(), is(2));
+    }
+
+    @Test
+    public void a_step_has_failed_if_any_listener_has_recorded_a_failure() {
+        registry.register(listener);
+        registry.register(anotherListener);
+        when(anotherListener.aStepHasFailed()).thenReturn(true);
+
+        assertThat(registry.aStepHasFailed(), is(true));
+    }
+
+    @Test
+    public void no_step_has_failed_if_no_listener_has_recorded_a_failure() {
+        registry.register(listener);
+        registry.register(anotherListener);
+
+        assertThat(registry.aStepHasFailed(), is(false));
+    }
+
+    @Test
+    public void failures_in_data_driven_steps_should_not_count_as_failed_steps() {
+        registry.register(listener);
+        when(listener.aStepHasFailed()).thenReturn(true);
+        when(listener.isDataDriven()).thenReturn(true);
+
+        assertThat(registry.aStepHasFailed(), is(false));
+    }
+
+    @Test
+    public void listeners_can_be_registered_from_several_threads() throws InterruptedException {
+        final List<StepListener> listeners = new ArrayList<StepListener>();
+        for (int i = 0; i < 50; i++) {
+            listeners.add(mock(StepListener.class));
+        }
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 5; i++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (StepListener stepListener : listeners) {
+                        registry.register(stepListener);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(registry.getListeners().size(), is(50));
+    }
+}
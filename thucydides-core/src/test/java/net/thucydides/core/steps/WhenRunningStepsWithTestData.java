@@ -3,19 +3,34 @@ package net.thucydides.core.steps;
 import net.thucydides.core.annotations.Step;
 import net.thucydides.core.annotations.StepGroup;
 import net.thucydides.core.csv.FailedToInitializeTestData;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestStep;
 import net.thucydides.core.pages.Pages;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.openqa.selenium.WebDriver;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static net.thucydides.core.steps.StepData.setDefaultStepFactory;
+import static net.thucydides.core.steps.StepData.setDefaultWorkers;
 import static net.thucydides.core.steps.StepData.withTestDataFrom;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -29,6 +44,15 @@ public class WhenRunningStepsWithTestData {
     @Mock
     StepListener listener;
 
+    @Mock
+    WebDriver firstWorkerDriver;
+
+    @Mock
+    WebDriver secondWorkerDriver;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private StepFactory factory;
 
     static class TestSteps extends ScenarioSteps {
@@ -180,6 +204,7 @@ public class WhenRunningStepsWithTestData {
         factory.addListener(listener);
 
         setDefaultStepFactory(null);
+        setDefaultWorkers(null);
     }
 
     @Test
@@ -324,4 +349,96 @@ public class WhenRunningStepsWithTestData {
         withTestDataFrom("testdata/test.csv").run(steps).nameStep();
     }
 
+    private List<DataDrivenWorker> twoWorkers() {
+        return Arrays.asList(new DataDrivenWorker(new Pages(firstWorkerDriver), temporaryFolder.getRoot()),
+                             new DataDrivenWorker(new Pages(secondWorkerDriver), temporaryFolder.getRoot()));
+    }
+
+    private BaseStepListener aListenerForATestCalled(final String testName) {
+        BaseStepListener baseStepListener = new BaseStepListener(temporaryFolder.getRoot(), new Pages(driver));
+        baseStepListener.testStarted(testName);
+        factory.addListener(baseStepListener);
+        return baseStepListener;
+    }
+
+    @Test
+    public void should_share_the_rows_out_between_the_workers_when_running_in_parallel() throws IOException {
+
+        TestSteps steps = (TestSteps) factory.newSteps(TestSteps.class);
+
+        withTestDataFrom("testdata/test.csv").usingFactory(factory).inParallelUsing(twoWorkers()).run(steps).step1();
+
+        verify(firstWorkerDriver).get("Bill");
+        verify(secondWorkerDriver).get("Joe");
+        verify(firstWorkerDriver).get("Mary");
+        verify(driver, times(0)).get(anyString());
+    }
+
+    @Test
+    public void should_use_the_default_workers_if_defined() throws IOException {
+
+        TestSteps steps = (TestSteps) factory.newSteps(TestSteps.class);
+
+        setDefaultStepFactory(factory);
+        setDefaultWorkers(twoWorkers());
+
+        withTestDataFrom("testdata/test.csv").run(steps).step1();
+
+        verify(firstWorkerDriver).get("Bill");
+        verify(secondWorkerDriver).get("Joe");
+        verify(firstWorkerDriver).get("Mary");
+    }
+
+    @Test
+    public void should_record_the_steps_run_in_parallel_in_row_order() throws IOException {
+        BaseStepListener baseStepListener = aListenerForATestCalled("a_data_driven_test");
+
+        TestSteps steps = (TestSteps) factory.newSteps(TestSteps.class);
+
+        withTestDataFrom("testdata/test.csv").usingFactory(factory).inParallelUsing(twoWorkers()).run(steps).fail_sometimes();
+
+        TestOutcome outcome = baseStepListener.getTestOutcomes().get(0);
+        List<TestStep> recordedSteps = outcome.getTestSteps();
+        assertThat(recordedSteps.size(), is(3));
+        assertThat(recordedSteps.get(0).getResult(), is(TestResult.SUCCESS));
+        assertThat(recordedSteps.get(1).getResult(), is(TestResult.FAILURE));
+        assertThat(recordedSteps.get(2).getResult(), is(TestResult.SUCCESS));
+    }
+
+    @Test
+    public void a_failing_row_run_in_parallel_should_fail_the_test() throws IOException {
+        BaseStepListener baseStepListener = aListenerForATestCalled("a_data_driven_test");
+
+        TestSteps steps = (TestSteps) factory.newSteps(TestSteps.class);
+
+        withTestDataFrom("testdata/test.csv").usingFactory(factory).inParallelUsing(twoWorkers()).run(steps).fail_sometimes();
+
+        assertThat(baseStepListener.aStepHasFailed(), is(true));
+        assertThat(baseStepListener.getStepError().getMessage(), is("Bad name"));
+        assertThat(baseStepListener.getTestOutcomes().get(0).getResult(), is(TestResult.FAILURE));
+    }
+
+    @Test
+    public void each_worker_should_keep_using_the_same_thread_for_later_steps() throws IOException {
+        final Set<Thread> firstWorkerThreads = new HashSet<Thread>();
+        doAnswer(new Answer<Void>() {
+            public Void answer(final InvocationOnMock invocation) {
+                firstWorkerThreads.add(Thread.currentThread());
+                return null;
+            }
+        }).when(firstWorkerDriver).get(anyString());
+        List<DataDrivenWorker> workers = twoWorkers();
+
+        TestSteps steps = (TestSteps) factory.newSteps(TestSteps.class);
+        TestSteps dataDrivenSteps = withTestDataFrom("testdata/test.csv").usingFactory(factory)
+                                                                         .inParallelUsing(workers).run(steps);
+        dataDrivenSteps.step1();
+        dataDrivenSteps.step2();
+        for (DataDrivenWorker worker : workers) {
+            worker.close();
+        }
+
+        verify(firstWorkerDriver, times(4)).get(anyString());
+        assertThat(firstWorkerThreads.size(), is(1));
+    }
 }
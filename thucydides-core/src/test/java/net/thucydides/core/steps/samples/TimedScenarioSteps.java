@@ -0,0 +1,23 @@
+package net.thucydides.core.steps.samples;
+
+import net.thucydides.core.annotations.Step;
+import net.thucydides.core.pages.Pages;
+import net.thucydides.core.pages.WaitBudget;
+import net.thucydides.core.steps.ScenarioSteps;
+
+public class TimedScenarioSteps extends ScenarioSteps {
+
+    public TimedScenarioSteps(Pages pages) {
+        super(pages);
+    }
+
+    @Step
+    public void slow_step() throws InterruptedException {
+        Thread.sleep(50);
+    }
+
+    @Step
+    public void step_that_waits_for_a_page() {
+        WaitBudget.current().recordTimeSpentWaiting(300);
+    }
+}
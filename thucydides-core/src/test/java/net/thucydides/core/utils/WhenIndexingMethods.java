@@ -0,0 +1,82 @@
+package net.thucydides.core.utils;
+
+import net.thucydides.core.annotations.Step;
+import net.thucydides.core.util.MethodIndex;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WhenIndexingMethods {
+
+    public static class SomeSteps {
+        @Step
+        public void step_one() {}
+
+        @Step
+        public void step_with_parameters(String name) {}
+
+        @Step
+        public void overloaded_step(String name) {}
+
+        public void overloaded_step() {}
+
+        public void not_a_step() {}
+    }
+
+    @Test
+    public void should_find_a_method_by_name() {
+        Method method = MethodIndex.of(SomeSteps.class).findMethodCalled("step_one");
+
+        assertThat(method.getName(), is("step_one"));
+    }
+
+    @Test
+    public void should_find_methods_with_parameters_by_name() {
+        Method method = MethodIndex.of(SomeSteps.class).findMethodCalled("step_with_parameters");
+
+        assertThat(method.getParameterTypes().length, is(1));
+    }
+
+    @Test
+    public void should_return_null_if_no_method_has_that_name() {
+        assertThat(MethodIndex.of(SomeSteps.class).findMethodCalled("unknown_step"), is(nullValue()));
+    }
+
+    @Test
+    public void should_prefer_the_version_of_an_overloaded_method_with_the_fewest_parameters() {
+        Method method = MethodIndex.of(SomeSteps.class).findMethodCalled("overloaded_step");
+
+        assertThat(method.getParameterTypes().length, is(0));
+    }
+
+    @Test
+    public void should_only_find_methods_without_parameters_when_asked_to() {
+        MethodIndex index = MethodIndex.of(SomeSteps.class);
+
+        assertThat(index.findMethodWithNoParametersCalled("step_one").getName(), is("step_one"));
+        assertThat(index.findMethodWithNoParametersCalled("step_with_parameters"), is(nullValue()));
+    }
+
+    @Test
+    public void should_find_inherited_public_methods() {
+        assertThat(MethodIndex.of(SomeSteps.class).findMethodCalled("toString").getName(), is("toString"));
+    }
+
+    @Test
+    public void should_list_the_methods_with_a_given_annotation() {
+        List<Method> steps = MethodIndex.of(SomeSteps.class).getMethodsAnnotatedWith(Step.class);
+
+        assertThat(steps.size(), is(3));
+    }
+
+    @Test
+    public void each_class_should_only_be_indexed_once() {
+        assertThat(MethodIndex.of(SomeSteps.class), is(sameInstance(MethodIndex.of(SomeSteps.class))));
+    }
+}
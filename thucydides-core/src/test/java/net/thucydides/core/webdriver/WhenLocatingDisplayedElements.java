@@ -0,0 +1,177 @@
+package net.thucydides.core.webdriver;
+
+import net.thucydides.core.junit.rules.SaveWebdriverSystemPropertiesRule;
+import net.thucydides.core.pages.VirtualClock;
+import net.thucydides.core.pages.WaitBudget;
+import net.thucydides.core.pages.WebElementFacade;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.MethodRule;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WhenLocatingDisplayedElements {
+
+    @Mock
+    WebDriver driver;
+
+    @Mock
+    WebElement hiddenElement;
+
+    @Mock
+    WebElement element;
+
+    @Rule
+    public MethodRule saveSystemProperties = new SaveWebdriverSystemPropertiesRule();
+
+    static class PageWithAField {
+        WebElement searchField;
+    }
+
+    static class PageWithAnInheritedField extends PageWithAField {
+        WebElement submitButton;
+        String title;
+    }
+
+    private Field searchField;
+
+    @Before
+    public void initMocks() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        searchField = PageWithAField.class.getDeclaredField("searchField");
+    }
+
+    @After
+    public void resetBudget() {
+        System.clearProperty("thucydides.wait.budget.per.test");
+        WaitBudget.startTest();
+    }
+
+    private WebDriverFactory.DisplayedElementLocator locatorUsing(final VirtualClock clock) {
+        return new WebDriverFactory.DisplayedElementLocator(driver, new WebElementField(searchField), 5, clock);
+    }
+
+    private void findMissingElementWith(final WebDriverFactory.DisplayedElementLocator locator) {
+        try {
+            locator.findElement();
+        } catch (NoSuchElementException expected) {
+            return;
+        }
+        throw new AssertionError("Lookup should have timed out");
+    }
+
+    @Test
+    public void elements_should_be_looked_up_straight_away_during_an_immediate_lookup() {
+        when(driver.findElement(any(By.class))).thenReturn(hiddenElement);
+        when(hiddenElement.isDisplayed()).thenReturn(false);
+
+        WebDriverFactory.DisplayedElementLocator locator
+                = new WebDriverFactory.DisplayedElementLocator(driver, searchField, 5);
+
+        ImmediateElementLookup.startImmediateLookup();
+        try {
+            assertThat(locator.findElement(), is(hiddenElement));
+        } finally {
+            ImmediateElementLookup.endImmediateLookup();
+        }
+        verify(driver, times(1)).findElement(any(By.class));
+    }
+
+    @Test
+    public void displayed_elements_should_be_waited_for_on_the_page_clock() {
+        when(driver.findElement(any(By.class))).thenReturn(hiddenElement);
+        when(hiddenElement.isDisplayed()).thenReturn(false);
+        VirtualClock clock = new VirtualClock();
+
+        findMissingElementWith(locatorUsing(clock));
+
+        assertThat(clock.getCurrentTime(), is(5000L));
+    }
+
+    @Test
+    public void displayed_elements_should_be_returned_as_soon_as_they_appear() {
+        when(driver.findElement(any(By.class))).thenReturn(element);
+        when(element.isDisplayed()).thenReturn(false, false, true);
+        VirtualClock clock = new VirtualClock();
+
+        assertThat(locatorUsing(clock).findElement(), is(element));
+        assertThat(clock.getCurrentTime() < 250, is(true));
+    }
+
+    @Test
+    public void element_lookups_should_be_capped_by_the_wait_budget() {
+        when(driver.findElement(any(By.class))).thenReturn(hiddenElement);
+        when(hiddenElement.isDisplayed()).thenReturn(false);
+        System.setProperty("thucydides.wait.budget.per.test", "1000");
+        WaitBudget.startTest();
+        WaitBudget.current().recordTimeSpentWaiting(1000);
+        VirtualClock clock = new VirtualClock();
+
+        findMissingElementWith(locatorUsing(clock));
+
+        assertThat(clock.getCurrentTime(), is(0L));
+    }
+
+    @Test
+    public void immediate_lookups_should_only_apply_while_checking_current_visibility() {
+        when(element.isDisplayed()).thenReturn(true);
+
+        new WebElementFacade(driver, element).isCurrentlyVisible();
+
+        assertThat(ImmediateElementLookup.inProgress(), is(false));
+    }
+
+    @Test
+    public void immediate_lookups_should_be_ended_even_if_the_element_is_missing() {
+        when(element.isDisplayed()).thenThrow(new NoSuchElementException("No such element"));
+
+        boolean visible = new WebElementFacade(driver, element).isCurrentlyVisible();
+
+        assertThat(visible, is(false));
+        assertThat(ImmediateElementLookup.inProgress(), is(false));
+    }
+
+    @Test
+    public void the_element_fields_of_a_page_class_should_only_be_analysed_once() {
+        List<WebElementField> fields = WebElementField.findFieldsIn(PageWithAnInheritedField.class);
+        List<WebElementField> fieldsForAnotherPage = WebElementField.findFieldsIn(PageWithAnInheritedField.class);
+
+        assertThat(fieldsForAnotherPage, is(sameInstance(fields)));
+    }
+
+    @Test
+    public void the_element_fields_of_a_page_should_include_inherited_fields() {
+        List<WebElementField> fields = WebElementField.findFieldsIn(PageWithAnInheritedField.class);
+
+        assertThat(fields.size(), is(2));
+        assertThat(fields.get(0).getName(), is("submitButton"));
+        assertThat(fields.get(1).getName(), is("searchField"));
+    }
+
+    @Test
+    public void page_objects_should_be_initialized_with_the_cached_element_fields() {
+        PageWithAnInheritedField page = new PageWithAnInheritedField();
+
+        WebDriverFactory.initElementsWithAjaxSupport(page, driver);
+
+        assertThat(page.searchField != null, is(true));
+        assertThat(page.submitButton != null, is(true));
+    }
+}
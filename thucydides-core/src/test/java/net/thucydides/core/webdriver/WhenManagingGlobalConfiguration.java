@@ -37,4 +37,31 @@ public class WhenManagingGlobalConfiguration {
     public void the_default_unique_browser_value_should_be_false() {
         assertThat(Configuration.getUseUniqueBrowser(), is(false));
     }
+
+    @Test
+    public void the_wait_for_timeout_can_be_defined_in_a_system_property() {
+        System.setProperty("thucydides.wait.for.timeout", "2000");
+
+        assertThat(Configuration.getWaitForTimeout(30000), is(2000L));
+    }
+
+    @Test
+    public void the_wait_for_timeout_should_use_the_default_value_if_not_defined() {
+        assertThat(Configuration.getWaitForTimeout(30000), is(30000L));
+    }
+
+    @Test
+    public void wait_budgets_can_be_defined_in_system_properties() {
+        System.setProperty("thucydides.wait.budget.per.test", "60000");
+        System.setProperty("thucydides.wait.budget.per.step", "10000");
+
+        assertThat(Configuration.getTestWaitBudget(), is(60000L));
+        assertThat(Configuration.getStepWaitBudget(), is(10000L));
+    }
+
+    @Test
+    public void there_are_no_wait_budgets_by_default() {
+        assertThat(Configuration.getTestWaitBudget(), is(0L));
+        assertThat(Configuration.getStepWaitBudget(), is(0L));
+    }
 }
@@ -8,8 +8,11 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 
@@ -22,7 +25,9 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class WhenUsingAWebDriverProxy {
 
@@ -139,6 +144,62 @@ public class WhenUsingAWebDriverProxy {
         verify(mockFirefoxDriver, atLeast(1)).getCurrentUrl();
     }
 
+    @Test
+    public void the_webdriver_proxy_should_only_check_the_driver_once_after_it_is_created() {
+        webDriverFacade.getTitle();
+        webDriverFacade.findElement(By.id("q"));
+        webDriverFacade.getPageSource();
+
+        verify(mockFirefoxDriver, times(1)).getCurrentUrl();
+    }
+
+    @Test
+    public void the_webdriver_proxy_should_make_one_browser_call_per_delegated_call() {
+        for (int step = 0; step < 10; step++) {
+            webDriverFacade.getCurrentUrl();
+        }
+
+        verify(mockFirefoxDriver, times(11)).getCurrentUrl();
+    }
+
+    @Test
+    public void the_webdriver_proxy_should_check_the_driver_again_after_a_webdriver_error() {
+        when(mockFirefoxDriver.getTitle()).thenThrow(new WebDriverException("Browser went away"));
+
+        try {
+            webDriverFacade.getTitle();
+        } catch (WebDriverException expected) {}
+        webDriverFacade.getPageSource();
+        webDriverFacade.getPageSource();
+
+        verify(mockFirefoxDriver, times(2)).getCurrentUrl();
+    }
+
+    @Test
+    public void the_webdriver_proxy_should_not_check_the_driver_again_while_polling_for_a_missing_element() {
+        when(mockFirefoxDriver.findElement(By.id("q"))).thenThrow(new NoSuchElementException("Not there yet"));
+
+        for (int poll = 0; poll < 10; poll++) {
+            try {
+                webDriverFacade.findElement(By.id("q"));
+            } catch (NoSuchElementException expected) {}
+        }
+
+        verify(mockFirefoxDriver, times(1)).getCurrentUrl();
+    }
+
+    @Test
+    public void the_webdriver_proxy_should_not_check_the_driver_again_after_a_stale_element() {
+        when(mockFirefoxDriver.findElement(By.id("q"))).thenThrow(new StaleElementReferenceException("Redrawn"));
+
+        try {
+            webDriverFacade.findElement(By.id("q"));
+        } catch (StaleElementReferenceException expected) {}
+        webDriverFacade.getPageSource();
+
+        verify(mockFirefoxDriver, times(1)).getCurrentUrl();
+    }
+
     @Test
     public void the_webdriver_proxy_should_handle_get_page_source() {
         webDriverFacade.getPageSource();
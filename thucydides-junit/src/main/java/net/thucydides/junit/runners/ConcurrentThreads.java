@@ -0,0 +1,51 @@
+package net.thucydides.junit.runners;
+
+import net.thucydides.core.webdriver.Configuration;
+import net.thucydides.junit.annotations.Concurrent;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Works out how many threads a test class annotated with @Concurrent should use.
+ */
+final class ConcurrentThreads {
+
+    private static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    private ConcurrentThreads() {}
+
+    public static boolean requestedFor(final Class<?> klass) {
+        return (klass.getAnnotation(Concurrent.class) != null);
+    }
+
+    /**
+     * The number of threads given in the @Concurrent annotation, either as an absolute value ("4") or
+     * per processor ("2x"). The default is two per processor. There are never more threads than browser slots.
+     */
+    public static int countFor(final Class<?> klass) {
+        Concurrent concurrent = klass.getAnnotation(Concurrent.class);
+        String threadValue = concurrent.threads();
+        int threads = (AVAILABLE_PROCESSORS * 2);
+        if (StringUtils.isNotEmpty(threadValue)) {
+            if (StringUtils.isNumeric(threadValue)) {
+                threads = Integer.valueOf(threadValue);
+            } else if (threadValue.endsWith("x")) {
+                threads = getRelativeThreadCount(threadValue);
+            }
+
+        }
+        int browserSlots = Configuration.getBrowserSlots();
+        if ((browserSlots > 0) && (threads > browserSlots)) {
+            threads = browserSlots;
+        }
+        return threads;
+    }
+
+    private static int getRelativeThreadCount(final String threadValue) {
+        try {
+            String threadCount = threadValue.substring(0, threadValue.length() - 1);
+            return Integer.valueOf(threadCount) * AVAILABLE_PROCESSORS;
+        } catch (NumberFormatException cause) {
+            throw new IllegalArgumentException("Illegal thread value: " + threadValue, cause);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package net.thucydides.junit.runners;
 
-import net.thucydides.core.csv.CSVTestDataSource;
+import net.thucydides.core.csv.RowBasedTestDataSource;
+import net.thucydides.core.csv.TestDataFormats;
 import net.thucydides.core.csv.TestDataSource;
 import net.thucydides.junit.annotations.TestData;
 import net.thucydides.junit.annotations.UseTestDataFrom;
@@ -9,6 +10,7 @@ import org.junit.runners.model.TestClass;
 
 import java.io.IOException;
 import java.lang.reflect.Modifier;
+import java.util.Iterator;
 import java.util.List;
 
 class DataDrivenAnnotations {
@@ -65,10 +67,21 @@ class DataDrivenAnnotations {
     }
 
     public <T> List<T> getDataAsInstancesOf(final Class<T> clazz) throws IOException {
-        TestDataSource testdata = new CSVTestDataSource(findTestDataSource(), findTestDataSeparator());
+        TestDataSource testdata = TestDataFormats.open(findTestDataSource(), findTestDataSeparator());
         return testdata.getDataAsInstancesOf(clazz);
     }
 
+    /**
+     * The test data instances are created one at a time, rather than all at once.
+     */
+    public <T> Iterator<T> getDataInstancesOf(final Class<T> clazz) throws IOException {
+        TestDataSource testdata = TestDataFormats.open(findTestDataSource(), findTestDataSeparator());
+        if (testdata instanceof RowBasedTestDataSource) {
+            return ((RowBasedTestDataSource) testdata).instancesOf(clazz);
+        }
+        return testdata.getDataAsInstancesOf(clazz).iterator();
+    }
+
     private char findTestDataSeparator() {
         return findUseTestDataFromAnnotation().separator();
     }
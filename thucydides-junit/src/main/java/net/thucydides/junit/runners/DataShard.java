@@ -0,0 +1,35 @@
+package net.thucydides.junit.runners;
+
+import net.thucydides.core.webdriver.Configuration;
+
+/**
+ * The rows of a data-driven test that should be run in this JVM.
+ * Rows are dealt out to the shards in turn, so each shard gets a similar number of rows, and a given
+ * row always goes to the same shard. Rows keep their position in the full data set, so the test names
+ * and reports produced by each shard are the same as in an unsharded run, and the output directories
+ * of the shards can simply be merged.
+ */
+class DataShard {
+
+    private final int index;
+    private final int count;
+
+    DataShard(final int index, final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Illegal shard count: " + count);
+        }
+        if ((index < 0) || (index >= count)) {
+            throw new IllegalArgumentException("Illegal shard index: " + index + " (expected 0 to " + (count - 1) + ")");
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    public static DataShard fromSystemProperties() {
+        return new DataShard(Configuration.getDataShardIndex(), Configuration.getDataShardCount());
+    }
+
+    public boolean includes(final int row) {
+        return (row % count == index);
+    }
+}
@@ -1,7 +1,10 @@
 package net.thucydides.junit.runners;
 
 import com.google.common.collect.ImmutableList;
+import net.thucydides.core.metrics.Metrics;
 import org.junit.runners.model.RunnerScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.LinkedList;
 import java.util.Queue;
@@ -10,21 +13,33 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ThreadFactory;
 
 /**
  * JUnit scheduler for parallel parameterized tests.
+ * All the threads take their work from the same queue, so a thread that finishes a short row goes straight
+ * on to the next one rather than waiting for the others. The scheduler also keeps track of how busy the
+ * threads were, which is logged at the end of the run.
  */
 class ParameterizedRunnerScheduler implements RunnerScheduler {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParameterizedRunnerScheduler.class);
+
+    private final String name;
+    private final int threadCount;
     private ExecutorService executorService;
     private CompletionService<Void> completionService;
     private Queue<Future<Void>> tasks;
 
-    public ParameterizedRunnerScheduler(final Class<?> klass, final int threadCount) {
-
+    private final AtomicLong busyTime = new AtomicLong();
+    private long startTime;
+    private double utilisation;
 
+    public ParameterizedRunnerScheduler(final Class<?> klass, final int threadCount) {
+        this.name = klass.getSimpleName();
+        this.threadCount = threadCount;
         executorService = Executors.newFixedThreadPool(threadCount,
                 new NamedThreadFactory(klass.getSimpleName()));
         completionService = new ExecutorCompletionService<Void>(executorService);
@@ -36,15 +51,35 @@ class ParameterizedRunnerScheduler implements RunnerScheduler {
     }
 
     public void schedule(final Runnable childStatement) {
+        if (tasks.isEmpty()) {
+            startTime = System.currentTimeMillis();
+        }
+        tasks.offer(completionService.submit(timed(childStatement), null));
+    }
 
-        tasks.offer(completionService.submit(childStatement, null));
+    private Runnable timed(final Runnable childStatement) {
+        return new Runnable() {
+            public void run() {
+                long start = System.currentTimeMillis();
+                try {
+                    childStatement.run();
+                } finally {
+                    long duration = System.currentTimeMillis() - start;
+                    busyTime.addAndGet(duration);
+                    Metrics.timer(Metrics.PARALLEL_ROW).record(duration);
+                }
+            }
+        };
     }
 
     public void finished() {
+        int scheduledTasks = tasks.size();
         try {
-            while (!tasks.isEmpty()) {
-                tasks.remove(completionService.take());
+            for (int i = 0; i < scheduledTasks; i++) {
+                completionService.take();
             }
+            tasks.clear();
+            recordUtilisationOf(Math.min(threadCount, scheduledTasks));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } finally {
@@ -52,6 +87,26 @@ class ParameterizedRunnerScheduler implements RunnerScheduler {
         }
     }
 
+    private void recordUtilisationOf(final int threadsUsed) {
+        if (threadsUsed == 0) {
+            return;
+        }
+        long capacity = (System.currentTimeMillis() - startTime) * threadsUsed;
+        Metrics.timer(Metrics.PARALLEL_CAPACITY).record(capacity);
+        if (capacity > 0) {
+            utilisation = ((double) busyTime.get()) / capacity;
+            LOGGER.info(String.format("%s: %d threads were busy %.0f%% of the time",
+                                      name, threadsUsed, utilisation * 100));
+        }
+    }
+
+    /**
+     * The proportion of the available thread time that was spent running tests, once the run is finished.
+     */
+    public double getUtilisation() {
+        return utilisation;
+    }
+
     static final class NamedThreadFactory implements ThreadFactory {
         private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
         private final AtomicInteger threadNumber = new AtomicInteger(1);
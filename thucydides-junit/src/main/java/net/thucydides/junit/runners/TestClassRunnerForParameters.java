@@ -74,6 +74,19 @@ class TestClassRunnerForParameters extends ThucydidesRunner {
         validateOnlyOneConstructor(errors);
     }
 
+    /**
+     * @Concurrent on a data-driven test runs the rows in parallel, not the tests within each row.
+     */
+    @Override
+    protected boolean runTestMethodsInParallel() {
+        return false;
+    }
+
+    @Override
+    protected boolean isARowOfADataDrivenTest() {
+        return true;
+    }
+
     @Override
     protected Statement classBlock(final RunNotifier notifier) {
         return childrenInvoker(notifier);
@@ -1,26 +1,38 @@
 package net.thucydides.junit.runners;
 
+import net.thucydides.core.history.TestHistory;
+import net.thucydides.core.metrics.Metrics;
 import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.webdriver.Configuration;
 import net.thucydides.core.webdriver.WebDriverFactory;
-import net.thucydides.junit.annotations.Concurrent;
-import org.apache.commons.lang.StringUtils;
+import org.junit.Test;
 import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.Suite;
+import org.junit.runners.model.FrameworkMethod;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Run a Thucydides test suite using a set of data.
  * Similar to the JUnit parameterized tests, but better ;-).
- *
+ * The rows can be split across several JVMs using the thucydides.data.shard.count and
+ * thucydides.data.shard.index system properties.
+ * When the rows are run in parallel, the rows that failed recently are started first, for faster feedback,
+ * followed by the others from the longest to the shortest, so that no thread is left running a long row
+ * on its own at the end.
  */
 public class ThucydidesParameterizedRunner extends Suite {
 
-    private static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
-
     private final List<Runner> runners = new ArrayList<Runner>();
+    private final Map<Runner, String> qualifiers = new HashMap<Runner, String>();
+    private TestHistory testHistory;
 
     /**
      * Only used for testing.
@@ -31,6 +43,7 @@ public class ThucydidesParameterizedRunner extends Suite {
 
         if (runTestsInParallelFor(klass)) {
             scheduleParallelTestRunsFor(klass);
+            testHistory = TestHistory.inOutputDirectory(Configuration.loadOutputDirectoryFromSystemProperties());
         }
 
         DataDrivenAnnotations testClassAnnotations = getTestAnnotations();
@@ -39,6 +52,63 @@ public class ThucydidesParameterizedRunner extends Suite {
         } else if (testClassAnnotations.hasTestDataSourceDefined()) {
             buildTestRunnersFromADataSourceUsing(webDriverFactory);
         }
+
+        if (testHistory != null) {
+            orderRowsUsingTestHistory();
+        }
+    }
+
+    /**
+     * Rows that failed recently come first, then rows that have not been run before, as they may be long,
+     * then the others, longest first.
+     */
+    private void orderRowsUsingTestHistory() {
+        final Map<Runner, RowHistory> rowHistories = new HashMap<Runner, RowHistory>();
+        for (Runner runner : runners) {
+            rowHistories.put(runner, historyOfRow(qualifiers.get(runner)));
+        }
+        Collections.sort(runners, new Comparator<Runner>() {
+            public int compare(final Runner row, final Runner otherRow) {
+                return rowHistories.get(row).compareTo(rowHistories.get(otherRow));
+            }
+        });
+    }
+
+    private RowHistory historyOfRow(final String qualifier) {
+        Class<?> testClass = getTestClass().getJavaClass();
+        Long duration = null;
+        double failureRate = 0.0;
+        for (FrameworkMethod test : getTestClass().getAnnotatedMethods(Test.class)) {
+            String testName = TestHistory.testNameFor(testClass, test.getName(), qualifier);
+            Long testDuration = testHistory.getDurationOf(testName);
+            if (testDuration != null) {
+                duration = (duration == null) ? testDuration : duration + testDuration;
+            }
+            failureRate = Math.max(failureRate, testHistory.getFailureRateOf(testName));
+        }
+        return new RowHistory(duration, failureRate);
+    }
+
+    private static final class RowHistory implements Comparable<RowHistory> {
+        private final Long duration;
+        private final double failureRate;
+
+        RowHistory(final Long duration, final double failureRate) {
+            this.duration = duration;
+            this.failureRate = failureRate;
+        }
+
+        public int compareTo(final RowHistory other) {
+            if (failureRate != other.failureRate) {
+                return (failureRate > other.failureRate) ? -1 : 1;
+            }
+            if (duration == null) {
+                return (other.duration == null) ? 0 : -1;
+            } else if (other.duration == null) {
+                return 1;
+            }
+            return other.duration.compareTo(duration);
+        }
     }
 
     private void buildTestRunnersWithTestSpecificDataSetsUsing(WebDriverFactory webDriverFactory) {
@@ -50,39 +120,25 @@ public class ThucydidesParameterizedRunner extends Suite {
     }
 
     protected boolean runTestsInParallelFor(final Class<?> klass) {
-        return (klass.getAnnotation(Concurrent.class) != null);
+        return ConcurrentThreads.requestedFor(klass);
     }
 
     protected int getThreadCountFor(final Class<?> klass) {
-        Concurrent concurrent = klass.getAnnotation(Concurrent.class);
-        String threadValue = concurrent.threads();
-        int threads = (AVAILABLE_PROCESSORS * 2);
-        if (StringUtils.isNotEmpty(threadValue)) {
-            if (StringUtils.isNumeric(threadValue)) {
-                threads = Integer.valueOf(threadValue);
-            } else if (threadValue.endsWith("x")) {
-                threads = getRelativeThreadCount(threadValue);
-            }
-
-        }
-        return threads;
-    }
-
-    private int getRelativeThreadCount(final String threadValue) {
-        try {
-            String threadCount = threadValue.substring(0, threadValue.length() - 1);
-            return Integer.valueOf(threadCount) * AVAILABLE_PROCESSORS;
-        } catch (NumberFormatException cause) {
-            throw new IllegalArgumentException("Illegal thread value: " + threadValue, cause);
-        }
+        return ConcurrentThreads.countFor(klass);
     }
 
     private void buildTestRunnersForEachDataSetUsing(final WebDriverFactory webDriverFactory) throws Throwable {
         List<Object[]> parametersList = getTestAnnotations().getParametersList();
+        DataShard shard = DataShard.fromSystemProperties();
         for (int i = 0; i < parametersList.size(); i++) {
+            if (!shard.includes(i)) {
+                continue;
+            }
             Class<?> testClass = getTestClass().getJavaClass();
             ThucydidesRunner runner = new TestClassRunnerForParameters(testClass, parametersList, i);
-            runner.useQualifier(from(parametersList.get(i)));
+            String qualifier = from(parametersList.get(i));
+            runner.useQualifier(qualifier);
+            qualifiers.put(runner, qualifier);
             overrideWebdriverFactoryIfProvided(runner, webDriverFactory);
             runners.add(runner);
         }
@@ -90,12 +146,18 @@ public class ThucydidesParameterizedRunner extends Suite {
 
     private void buildTestRunnersFromADataSourceUsing(final WebDriverFactory webDriverFactory) throws Throwable {
 
-        List testClasses = getTestAnnotations().getDataAsInstancesOf(getTestClass().getJavaClass());
+        Iterator<?> testCases = getTestAnnotations().getDataInstancesOf(getTestClass().getJavaClass());
+        DataShard shard = DataShard.fromSystemProperties();
 
-        for (int i = 0; i < testClasses.size(); i++) {
-            Object testCase = testClasses.get(i);
+        for (int i = 0; testCases.hasNext(); i++) {
+            Object testCase = testCases.next();
+            if (!shard.includes(i)) {
+                continue;
+            }
             ThucydidesRunner runner = new TestClassRunnerForInstanciatedTestCase(testCase, i);
-            runner.useQualifier(getQualifierFor(testCase));
+            String qualifier = getQualifierFor(testCase);
+            runner.useQualifier(qualifier);
+            qualifiers.put(runner, qualifier);
             overrideWebdriverFactoryIfProvided(runner, webDriverFactory);
             runners.add(runner);
         }
@@ -143,8 +205,36 @@ public class ThucydidesParameterizedRunner extends Suite {
         return runners;
     }
 
+    /**
+     * The test history and the metrics file are updated once all the rows have run.
+     */
+    @Override
+    public void run(final RunNotifier notifier) {
+        super.run(notifier);
+        recordTestHistory();
+        Metrics.writeMetricsFileIn(Configuration.loadOutputDirectoryFromSystemProperties());
+    }
+
+    private void recordTestHistory() {
+        Map<String, List<TestOutcome>> testOutcomesByRow = new HashMap<String, List<TestOutcome>>();
+        for (Runner runner : runners) {
+            String qualifier = qualifiers.get(runner);
+            if (!testOutcomesByRow.containsKey(qualifier)) {
+                testOutcomesByRow.put(qualifier, new ArrayList<TestOutcome>());
+            }
+            testOutcomesByRow.get(qualifier).addAll(((ThucydidesRunner) runner).getTestOutcomes());
+        }
+        if (testHistory == null) {
+            testHistory = TestHistory.inOutputDirectory(Configuration.loadOutputDirectoryFromSystemProperties());
+        }
+        testHistory.recordOutcomesByQualifier(testOutcomesByRow);
+    }
+
     public List<TestOutcome> getTestOutcomes() {
         List<TestOutcome> testOutcomes = new ArrayList<TestOutcome>();
+        if (runners.isEmpty()) {
+            return testOutcomes;
+        }
 
         testOutcomes.addAll( ((ThucydidesRunner) runners.get(0)).getTestOutcomes());
         for (Runner runner : runners) {
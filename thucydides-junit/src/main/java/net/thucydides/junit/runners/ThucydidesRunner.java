@@ -1,10 +1,13 @@
 package net.thucydides.junit.runners;
 
 import net.thucydides.core.annotations.Pending;
+import net.thucydides.core.history.TestHistory;
+import net.thucydides.core.metrics.Metrics;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.pages.Pages;
 import net.thucydides.core.reports.AcceptanceTestReporter;
 import net.thucydides.core.reports.ReportService;
+import net.thucydides.core.steps.DataDrivenWorker;
 import net.thucydides.core.steps.StepAnnotations;
 import net.thucydides.core.steps.StepData;
 import net.thucydides.core.steps.StepFactory;
@@ -14,6 +17,8 @@ import net.thucydides.core.webdriver.WebdriverManager;
 import net.thucydides.core.webdriver.WebdriverProxyFactory;
 import net.thucydides.junit.listeners.JUnitStepListener;
 import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.model.FrameworkMethod;
@@ -24,8 +29,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A test runner for WebDriver-based web tests. This test runner initializes a
@@ -34,6 +45,11 @@ import java.util.List;
  * <p/>
  * The test runner will by default produce output in XML and HTML. This
  * can extended by subscribing more reporter implementations to the test runner.
+ * <p/>
+ * If the test class is annotated with @Concurrent, the test methods are run in parallel. Each thread then
+ * has its own browser, pages, step listener, step factory and data-driven workers, set up and closed in
+ * the same way as for a normal test run, and the test outcomes of all the threads are merged, in the order
+ * of the test methods, before the reports are generated.
  *
  * @author johnsmart
  */
@@ -50,16 +66,10 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
      * Provides a proxy of the ScenarioSteps object used to invoke the test steps.
      * This proxy notifies the test runner about individual step outcomes.
      */
-    private StepFactory stepFactory;
-
-    private Pages pages;
-
-    private WebdriverManager webdriverManager;
-
     /**
-     * Special listener that keeps track of test step execution and results.
+     * The browser, pages, step listener and step factory used to run the tests.
      */
-    private JUnitStepListener stepListener;
+    private TestWorker mainWorker = new TestWorker();
 
     /**
      * Retrieve the runner configuration from an external source.
@@ -70,21 +80,41 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
 
     private ReportService reportService;
 
+    private String qualifier;
+
+    /**
+     * When the test methods are run in parallel, each thread uses its own worker instead of the main one.
+     */
+    private final ThreadLocal<TestWorker> currentWorker = new ThreadLocal<TestWorker>();
+
+    private final List<TestWorker> workers = new CopyOnWriteArrayList<TestWorker>();
+
+    private List<TestOutcome> mergedTestOutcomes;
+
     /**
      * The Step Listener observes and records what happens during the execution of the test.
      * Once the test is over, the Step Listener can provide the acceptance test outcome in the
      * form of an TestOutcome object.
      */
     public JUnitStepListener getStepListener() {
-        return stepListener;
+        return getCurrentWorker().stepListener;
     }
 
     protected void setStepListener(final JUnitStepListener stepListener) {
-        this.stepListener = stepListener;
+        getCurrentWorker().stepListener = stepListener;
     }
 
     public Pages getPages() {
-        return pages;
+        return getCurrentWorker().pages;
+    }
+
+    private StepFactory getStepFactory() {
+        return getCurrentWorker().stepFactory;
+    }
+
+    private TestWorker getCurrentWorker() {
+        TestWorker worker = currentWorker.get();
+        return (worker != null) ? worker : mainWorker;
     }
 
     /**
@@ -99,6 +129,24 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
 
         initializeReportService();
         webDriverFactory = new WebDriverFactory();
+        if (runTestMethodsInParallel()) {
+            setScheduler(new ParameterizedRunnerScheduler(klass, ConcurrentThreads.countFor(klass)));
+        }
+    }
+
+    /**
+     * Test methods are run in parallel if the test class is annotated with @Concurrent.
+     */
+    protected boolean runTestMethodsInParallel() {
+        return ConcurrentThreads.requestedFor(getTestClass().getJavaClass());
+    }
+
+    /**
+     * The rows of a data-driven test leave the test history and the metrics file to the parameterized runner,
+     * which updates them once for all the rows.
+     */
+    protected boolean isARowOfADataDrivenTest() {
+        return false;
     }
 
     /**
@@ -143,6 +191,7 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
     }
 
     public void useQualifier(final String qualifier) {
+        this.qualifier = qualifier;
         reportService.useQualifier(qualifier);
     }
 
@@ -151,46 +200,203 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
      */
     @Override
     public void run(final RunNotifier notifier) {
+        if (runTestMethodsInParallel()) {
+            runTestMethodsInParallelUsing(notifier);
+            return;
+        }
+        mainWorker = new TestWorker();
+        JUnitStepListener newStepListener = initCurrentWorker();
+        notifier.addListener(newStepListener);
+
+        super.run(notifier);
+
+        closeCurrentWorker();
+        generateReportsFor(getStepListener().getTestOutcomes());
+        recordTestHistoryFor(getStepListener().getTestOutcomes());
+        writeMetricsFile();
+        notifyFailures();
+    }
+
+    /**
+     * Open the browser and create the pages, step listener and step factory used to run tests in this thread,
+     * along with the workers used to run data-driven steps in parallel.
+     */
+    private JUnitStepListener initCurrentWorker() {
         WebDriver driver = initWebdriverManager();
         Pages newPages = initPagesObjectUsing(driver);
         JUnitStepListener newStepListener = initListenersUsing(newPages);
-        notifier.addListener(newStepListener);
         initStepFactoryUsing(newPages, newStepListener);
+        initDataDrivenWorkers();
+        return newStepListener;
+    }
+
+    private void closeCurrentWorker() {
+        closeDriver();
+        closeDataDrivenDrivers();
+    }
+
+    /**
+     * The workers are created as the threads pick up their first test, and their drivers are closed
+     * once all the tests are done.
+     */
+    private void runTestMethodsInParallelUsing(final RunNotifier notifier) {
+        mergedTestOutcomes = null;
+        workers.clear();
+        RunListener workerListener = new CurrentWorkerListener();
+        notifier.addListener(workerListener);
 
         super.run(notifier);
 
-        closeDriver();
-        generateReportsFor(getStepListener().getTestOutcomes());
-        notifyFailures();
+        notifier.removeListener(workerListener);
+
+        for (TestWorker worker : workers) {
+            currentWorker.set(worker);
+            try {
+                closeCurrentWorker();
+                notifyFailures();
+            } finally {
+                currentWorker.remove();
+            }
+        }
+        mergedTestOutcomes = mergeTestOutcomesFrom(workers);
+        generateReportsFor(mergedTestOutcomes);
+        recordTestHistoryFor(mergedTestOutcomes);
+        writeMetricsFile();
+    }
+
+    private TestWorker workerForCurrentThread() {
+        TestWorker worker = currentWorker.get();
+        if (worker == null) {
+            worker = new TestWorker();
+            currentWorker.set(worker);
+            initCurrentWorker();
+            workers.add(worker);
+        }
+        return worker;
+    }
+
+    private List<TestOutcome> mergeTestOutcomesFrom(final List<TestWorker> testWorkers) {
+        List<TestOutcome> testOutcomes = new ArrayList<TestOutcome>();
+        for (TestWorker worker : testWorkers) {
+            testOutcomes.addAll(worker.stepListener.getTestOutcomes());
+        }
+        final Map<String, Integer> methodOrder = new HashMap<String, Integer>();
+        for (FrameworkMethod method : getChildren()) {
+            methodOrder.put(testName(method), methodOrder.size());
+        }
+        Collections.sort(testOutcomes, new Comparator<TestOutcome>() {
+            public int compare(final TestOutcome testOutcome, final TestOutcome otherTestOutcome) {
+                return positionOf(testOutcome).compareTo(positionOf(otherTestOutcome));
+            }
+
+            private Integer positionOf(final TestOutcome testOutcome) {
+                Integer position = methodOrder.get(testOutcome.getMethodName());
+                return (position == null) ? methodOrder.size() : position;
+            }
+        });
+        return testOutcomes;
+    }
+
+    /**
+     * The browser, pages, step listener and step factory used to run tests in one thread.
+     * They are set up by the init methods, which work on the current thread's worker.
+     */
+    private static final class TestWorker {
+        private WebdriverManager webdriverManager;
+        private Pages pages;
+        private JUnitStepListener stepListener;
+        private StepFactory stepFactory;
+
+        /**
+         * Extra browsers used to run the rows of data-driven steps in parallel, if this has been requested.
+         */
+        private final List<WebdriverManager> dataDrivenWebdriverManagers = new ArrayList<WebdriverManager>();
+
+        private final List<DataDrivenWorker> dataDrivenWorkers = new ArrayList<DataDrivenWorker>();
+    }
+
+    /**
+     * JUnit reports test events in the thread that runs the test, so they can be passed on
+     * to the step listener of that thread's worker.
+     */
+    private final class CurrentWorkerListener extends RunListener {
+
+        @Override
+        public void testStarted(final Description description) throws Exception {
+            workerForCurrentThread().stepListener.testStarted(description);
+        }
+
+        @Override
+        public void testFinished(final Description description) throws Exception {
+            workerForCurrentThread().stepListener.testFinished(description);
+        }
+
+        @Override
+        public void testFailure(final Failure failure) throws Exception {
+            workerForCurrentThread().stepListener.testFailure(failure);
+        }
+
+        @Override
+        public void testIgnored(final Description description) throws Exception {
+            workerForCurrentThread().stepListener.testIgnored(description);
+        }
     }
 
     private Pages initPagesObjectUsing(final WebDriver driver) {
-        pages = new Pages(driver);
-        return pages;
+        getCurrentWorker().pages = new Pages(driver);
+        return getPages();
     }
 
     protected JUnitStepListener initListenersUsing(final Pages pagesObject) {
         setStepListener(new JUnitStepListener(Configuration.loadOutputDirectoryFromSystemProperties(), pagesObject));
-        return stepListener;
+        return getStepListener();
     }
 
 
     private void initStepFactoryUsing(final Pages pagesObject, final JUnitStepListener listener) {
-        stepFactory = new StepFactory(pagesObject);
-        stepFactory.addListener(listener.getBaseStepListener());
+        StepFactory newStepFactory = new StepFactory(pagesObject);
+        newStepFactory.addListener(listener.getBaseStepListener());
+        getCurrentWorker().stepFactory = newStepFactory;
     }
 
     private void closeDriver() {
         getWebdriverManager().closeDriver();
     }
 
+    /**
+     * The browsers are only opened if a data-driven step is actually run.
+     */
+    private void initDataDrivenWorkers() {
+        int threadCount = Configuration.getDataDrivenThreadCount();
+        if (threadCount > 1) {
+            for (int i = 0; i < threadCount; i++) {
+                WebdriverManager manager = new WebdriverManager(webDriverFactory);
+                getCurrentWorker().dataDrivenWebdriverManagers.add(manager);
+                getCurrentWorker().dataDrivenWorkers.add(new DataDrivenWorker(new Pages(manager.getWebdriver()),
+                                                                              Configuration.loadOutputDirectoryFromSystemProperties()));
+            }
+        }
+    }
+
+    /**
+     * The workers keep their threads for the whole test run, so they are stopped along with their browsers.
+     */
+    private void closeDataDrivenDrivers() {
+        for (DataDrivenWorker worker : getCurrentWorker().dataDrivenWorkers) {
+            worker.close();
+        }
+        for (WebdriverManager manager : getCurrentWorker().dataDrivenWebdriverManagers) {
+            manager.closeDriver();
+        }
+    }
+
     protected WebdriverManager getWebdriverManager() {
-        return webdriverManager;
+        return getCurrentWorker().webdriverManager;
     }
 
     protected WebDriver initWebdriverManager() {
-        webdriverManager = new WebdriverManager(webDriverFactory);
-        return webdriverManager.getWebdriver();
+        getCurrentWorker().webdriverManager = new WebdriverManager(webDriverFactory);
+        return getCurrentWorker().webdriverManager.getWebdriver();
     }
 
     private void initializeReportService() {
@@ -199,7 +405,7 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
     }
 
     private void notifyFailures() {
-        stepFactory.notifyStepFinished();
+        getStepFactory().notifyStepFinished();
     }
 
     /**
@@ -213,10 +419,26 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
         reportService.generateReportsFor(testOutcomeResults);
     }
 
+    private void recordTestHistoryFor(final List<TestOutcome> testOutcomeResults) {
+        if (isARowOfADataDrivenTest()) {
+            return;
+        }
+        TestHistory.inOutputDirectory(getOutputDirectory()).recordOutcomesOf(testOutcomeResults, qualifier);
+    }
+
+
+    private void writeMetricsFile() {
+        if (!isARowOfADataDrivenTest()) {
+            Metrics.writeMetricsFileIn(getOutputDirectory());
+        }
+    }
 
     @Override
     protected void runChild(FrameworkMethod method, RunNotifier notifier) {
 
+        if (runTestMethodsInParallel()) {
+            workerForCurrentThread();
+        }
         resetBroswerFromTimeToTime();
 		Description description= describeChild(method);
 		if (method.getAnnotation(Pending.class) != null) {
@@ -247,15 +469,19 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
         injectDriverInto(test);
         injectAnnotatedPagesObjectInto(test);
         injectScenarioStepsInto(test);
-        stepFactory.addListener(getStepListener().getBaseStepListener());
+        getStepFactory().addListener(getStepListener().getBaseStepListener());
         useStepFactoryForDataDrivenSteps();
 
         Statement baseStatement = super.methodInvoker(method, test);
-        return new ThucydidesStatement(baseStatement, stepListener.getBaseStepListener());
+        return new ThucydidesStatement(baseStatement, getStepListener().getBaseStepListener());
     }
 
+    /**
+     * Each thread has its own data-driven workers, so the extra browsers are never shared between threads.
+     */
     private void useStepFactoryForDataDrivenSteps() {
-        StepData.setDefaultStepFactory(stepFactory);
+        StepData.setDefaultStepFactory(getStepFactory());
+        StepData.setDefaultWorkers(getCurrentWorker().dataDrivenWorkers);
     }
 
     private void noStepsHaveFailed() {
@@ -274,7 +500,7 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
      * Instantiates the @ManagedPages-annotated Pages instance using current WebDriver.
      */
     protected void injectScenarioStepsInto(final Object testCase) {
-        StepAnnotations.injectScenarioStepsInto(testCase, stepFactory);
+        StepAnnotations.injectScenarioStepsInto(testCase, getStepFactory());
 
     }
 
@@ -283,7 +509,7 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
      */
     protected void injectAnnotatedPagesObjectInto(final Object testCase) {
         getPages().notifyWhenDriverOpens();
-        StepAnnotations.injectAnnotatedPagesObjectInto(testCase, pages);
+        StepAnnotations.injectAnnotatedPagesObjectInto(testCase, getPages());
     }
 
     protected WebDriver getDriver() {
@@ -291,6 +517,9 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
     }
 
     public List<TestOutcome> getTestOutcomes() {
+        if (mergedTestOutcomes != null) {
+            return mergedTestOutcomes;
+        }
         return getStepListener().getTestOutcomes();
     }
 
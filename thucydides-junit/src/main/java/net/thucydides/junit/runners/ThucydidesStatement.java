@@ -1,5 +1,6 @@
 package net.thucydides.junit.runners;
 
+import net.thucydides.core.steps.BaseStepListener;
 import net.thucydides.core.steps.StepListener;
 import org.junit.runners.model.Statement;
 
@@ -14,14 +15,27 @@ public class ThucydidesStatement extends Statement{
 
     private final Statement statement;
     private final StepListener listener;
+    private final BaseStepListener.TestState testState;
 
+    /**
+     * The statement is created once the test has started, but JUnit may evaluate it in another thread
+     * (e.g. for a test with a timeout), so the test is handed over to the thread that runs it.
+     */
     public ThucydidesStatement(final Statement statement, final StepListener listener) {
         this.statement = statement;
         this.listener = listener;
+        if (listener instanceof BaseStepListener) {
+            this.testState = ((BaseStepListener) listener).getCurrentTestState();
+        } else {
+            this.testState = null;
+        }
     }
 
     @Override
     public void evaluate() throws Throwable {
+        if (testState != null) {
+            ((BaseStepListener) listener).continueTest(testState);
+        }
         statement.evaluate();
         if (listener.aStepHasFailed()) {
             throw listener.getStepError();
@@ -3,7 +3,10 @@ package net.thucydides.junit.runners;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.annotations.ManagedPages;
 import net.thucydides.core.annotations.Steps;
+import net.thucydides.core.history.TestHistory;
 import net.thucydides.core.junit.rules.SaveWebdriverSystemPropertiesRule;
+import net.thucydides.core.model.ConcreteTestStep;
+import net.thucydides.core.model.Story;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestResult;
 import net.thucydides.core.model.TestStep;
@@ -25,6 +28,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.junit.runner.Runner;
 import org.junit.runner.notification.RunNotifier;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -44,6 +48,7 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -101,6 +106,63 @@ public class WhenRunningADataDrivenTestScenario extends AbstractTestStepRunnerTe
     }
 
 
+    @Test
+    public void a_sharded_data_driven_test_should_only_run_the_rows_in_its_shard() throws Throwable  {
+
+        System.setProperty(ThucydidesSystemProperty.DATA_SHARD_COUNT.getPropertyName(), "3");
+        System.setProperty(ThucydidesSystemProperty.DATA_SHARD_INDEX.getPropertyName(), "0");
+
+        ThucydidesParameterizedRunner runner = new ThucydidesParameterizedRunner(SampleDataDrivenScenario.class,
+                                                                                 webDriverFactory);
+        runner.run(new RunNotifier());
+
+        assertThat(runner.getTestOutcomes().size(), is(4));
+    }
+
+    @Test
+    public void a_sharded_data_driven_test_should_only_run_the_rows_in_its_shard_from_a_CSV_file() throws Throwable  {
+
+        System.setProperty(ThucydidesSystemProperty.DATA_SHARD_COUNT.getPropertyName(), "2");
+        System.setProperty(ThucydidesSystemProperty.DATA_SHARD_INDEX.getPropertyName(), "1");
+
+        ThucydidesParameterizedRunner runner = new ThucydidesParameterizedRunner(SampleCSVDataDrivenScenario.class,
+                                                                                 webDriverFactory);
+        runner.run(new RunNotifier());
+
+        assertThat(runner.getTestOutcomes().size(), is(1));
+    }
+
+    @Test
+    public void the_reports_from_all_the_shards_should_add_up_to_the_reports_of_an_unsharded_run() throws Throwable  {
+
+        File outputDirectory = tempFolder.newFolder("thucydides");
+        System.setProperty(ThucydidesSystemProperty.OUTPUT_DIRECTORY.getPropertyName(),
+                            outputDirectory.getAbsolutePath());
+        System.setProperty(ThucydidesSystemProperty.DATA_SHARD_COUNT.getPropertyName(), "3");
+
+        for (int shard = 0; shard < 3; shard++) {
+            System.setProperty(ThucydidesSystemProperty.DATA_SHARD_INDEX.getPropertyName(), Integer.toString(shard));
+            ThucydidesParameterizedRunner runner = new ThucydidesParameterizedRunner(SampleDataDrivenScenario.class,
+                                                                                     webDriverFactory);
+            runner.run(new RunNotifier());
+        }
+
+        List<String> reportFilenames = filenamesOf(outputDirectory.listFiles(new XMLFileFilter()));
+        assertThat(reportFilenames.size(), is(10));
+        assertThat(reportFilenames, allOf(hasItem("sample_data_driven_scenario_happy_day_scenario_a_1.xml"),
+                hasItem("sample_data_driven_scenario_happy_day_scenario_b_2.xml"),
+                hasItem("sample_data_driven_scenario_happy_day_scenario_c_3.xml")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void the_shard_index_should_be_less_than_the_number_of_shards() throws Throwable  {
+
+        System.setProperty(ThucydidesSystemProperty.DATA_SHARD_COUNT.getPropertyName(), "2");
+        System.setProperty(ThucydidesSystemProperty.DATA_SHARD_INDEX.getPropertyName(), "2");
+
+        new ThucydidesParameterizedRunner(SampleDataDrivenScenario.class, webDriverFactory);
+    }
+
     @Test
     public void a_separate_xml_report_should_be_generated_from_each_row_of_data() throws Throwable  {
 
@@ -447,6 +509,104 @@ public class WhenRunningADataDrivenTestScenario extends AbstractTestStepRunnerTe
 
     }
 
+    @Test
+    public void the_number_of_threads_should_not_exceed_the_number_of_browser_slots() throws Throwable  {
+
+        System.setProperty(ThucydidesSystemProperty.BROWSER_SLOTS.getPropertyName(), "3");
+
+        ThucydidesParameterizedRunner runner
+                   = new ThucydidesParameterizedRunner(ParallelDataDrivenScenarioWithSpecifiedThreadCountSample.class,
+                                                       webDriverFactory);
+        int threadCount = runner.getThreadCountFor(ParallelDataDrivenScenarioWithSpecifiedThreadCountSample.class);
+
+        assertThat(threadCount, is(3));
+    }
+
+    private void recordPreviousRun(final File outputDirectory, final String qualifier,
+                                   final long duration, final TestResult result) {
+        TestOutcome previousRun = TestOutcome.forTestInStory("happy_day_scenario",
+                                                             Story.from(SampleParallelDataDrivenScenario.class),
+                                                             SampleParallelDataDrivenScenario.class);
+        ConcreteTestStep step = new ConcreteTestStep("step");
+        step.setDuration(duration);
+        step.setResult(result);
+        previousRun.recordStep(step);
+        TestHistory.inOutputDirectory(outputDirectory).recordOutcomesOf(Arrays.asList(previousRun), qualifier);
+    }
+
+    private List<String> rowNamesIn(final ThucydidesParameterizedRunner runner) {
+        List<String> rowNames = new ArrayList<String>();
+        for (Runner row : runner.getChildren()) {
+            rowNames.add(row.getDescription().getDisplayName());
+        }
+        return rowNames;
+    }
+
+    @Test
+    public void parallel_rows_should_be_run_longest_first_using_the_durations_of_the_previous_run() throws Throwable  {
+
+        File outputDirectory = tempFolder.newFolder("thucydides");
+        System.setProperty(ThucydidesSystemProperty.OUTPUT_DIRECTORY.getPropertyName(),
+                            outputDirectory.getAbsolutePath());
+        recordPreviousRun(outputDirectory, "a_1", 100, TestResult.SUCCESS);
+        recordPreviousRun(outputDirectory, "b_2", 300, TestResult.SUCCESS);
+        recordPreviousRun(outputDirectory, "c_3", 200, TestResult.SUCCESS);
+
+        ThucydidesParameterizedRunner runner = new ThucydidesParameterizedRunner(SampleParallelDataDrivenScenario.class,
+                                                                                 webDriverFactory);
+
+        assertThat(rowNamesIn(runner), is(Arrays.asList("[b]", "[c]", "[a]")));
+    }
+
+    @Test
+    public void parallel_rows_that_failed_recently_should_be_run_first() throws Throwable  {
+
+        File outputDirectory = tempFolder.newFolder("thucydides");
+        System.setProperty(ThucydidesSystemProperty.OUTPUT_DIRECTORY.getPropertyName(),
+                            outputDirectory.getAbsolutePath());
+        recordPreviousRun(outputDirectory, "a_1", 100, TestResult.FAILURE);
+        recordPreviousRun(outputDirectory, "b_2", 300, TestResult.SUCCESS);
+        recordPreviousRun(outputDirectory, "c_3", 200, TestResult.SUCCESS);
+
+        ThucydidesParameterizedRunner runner = new ThucydidesParameterizedRunner(SampleParallelDataDrivenScenario.class,
+                                                                                 webDriverFactory);
+
+        assertThat(rowNamesIn(runner), is(Arrays.asList("[a]", "[b]", "[c]")));
+    }
+
+    @Test
+    public void data_driven_rows_should_record_their_durations_for_the_next_run() throws Throwable  {
+
+        File outputDirectory = tempFolder.newFolder("thucydides");
+        System.setProperty(ThucydidesSystemProperty.OUTPUT_DIRECTORY.getPropertyName(),
+                            outputDirectory.getAbsolutePath());
+
+        ThucydidesParameterizedRunner runner = new ThucydidesParameterizedRunner(SampleDataDrivenScenario.class,
+                                                                                 webDriverFactory);
+        runner.run(new RunNotifier());
+
+        TestHistory testHistory = TestHistory.inOutputDirectory(outputDirectory);
+        for (String row : Arrays.asList("a_1", "b_2", "c_3")) {
+            String testName = TestHistory.testNameFor(SampleDataDrivenScenario.class, "happy_day_scenario", row);
+            assertThat(testHistory.getDurationOf(testName), is(notNullValue()));
+        }
+    }
+
+    @Test
+    public void data_driven_tests_should_write_the_metrics_file_once_all_the_rows_have_run() throws Throwable  {
+
+        File outputDirectory = tempFolder.newFolder("thucydides");
+        System.setProperty(ThucydidesSystemProperty.OUTPUT_DIRECTORY.getPropertyName(),
+                            outputDirectory.getAbsolutePath());
+        System.setProperty(ThucydidesSystemProperty.METRICS_FILE.getPropertyName(), "metrics.prom");
+
+        ThucydidesParameterizedRunner runner = new ThucydidesParameterizedRunner(SampleDataDrivenScenario.class,
+                                                                                 webDriverFactory);
+        runner.run(new RunNotifier());
+
+        assertThat(new File(outputDirectory, "metrics.prom").exists(), is(true));
+    }
+
     @RunWith(ThucydidesParameterizedRunner.class)
     @Concurrent(threads = "7")
     public static final class ParallelDataDrivenScenarioWithSpecifiedThreadCountSample {
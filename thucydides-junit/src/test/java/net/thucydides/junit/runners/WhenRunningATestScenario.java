@@ -6,16 +6,20 @@ import net.thucydides.core.model.Story;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestResult;
 import net.thucydides.core.model.TestStep;
+import net.thucydides.core.pages.Pages;
 import net.thucydides.core.steps.InvalidManagedPagesFieldException;
 import net.thucydides.core.webdriver.WebDriverFactory;
 import net.thucydides.core.webdriver.WebdriverAssertionError;
 import net.thucydides.core.webdriver.WebdriverManager;
 import net.thucydides.core.webdriver.WebdriverProxyFactory;
 import net.thucydides.junit.integration.samples.OpenStaticDemoPageWithFailureSample;
+import net.thucydides.junit.listeners.JUnitStepListener;
 import net.thucydides.samples.AnnotatedSingleTestScenario;
 import net.thucydides.samples.SampleFailingScenarioWithEmptyTests;
 import net.thucydides.samples.SampleNoSuchElementExceptionScenario;
+import net.thucydides.samples.SampleParallelScenario;
 import net.thucydides.samples.SamplePassingScenario;
+import net.thucydides.samples.SampleScenarioWithATimeout;
 import net.thucydides.samples.SamplePassingScenarioWithEmptyTests;
 import net.thucydides.samples.SamplePassingScenarioWithIgnoredTests;
 import net.thucydides.samples.SamplePassingScenarioWithPendingTests;
@@ -40,10 +44,14 @@ import org.junit.runners.model.InitializationError;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
 
 import java.io.File;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
@@ -359,6 +367,29 @@ public class WhenRunningATestScenario extends AbstractTestStepRunnerTest {
         assertThat(testOutcome3.getTestSteps().size(), is(2));
     }
 
+    @Test
+    public void the_test_runner_records_the_steps_of_tests_with_a_timeout() throws InitializationError {
+        ThucydidesRunner runner = new ThucydidesRunner(SampleScenarioWithATimeout.class);
+        runner.run(new RunNotifier());
+
+        TestOutcome happyDayScenario = outcomeCalled("happy_day_scenario", runner.getTestOutcomes());
+        assertThat(happyDayScenario.getTestSteps().size(), is(2));
+        assertThat(happyDayScenario.getResult(), is(TestResult.SUCCESS));
+
+        TestOutcome failingScenario = outcomeCalled("failing_scenario", runner.getTestOutcomes());
+        assertThat(failingScenario.getTestSteps().size(), is(2));
+        assertThat(failingScenario.getResult(), is(TestResult.FAILURE));
+    }
+
+    private TestOutcome outcomeCalled(final String methodName, final List<TestOutcome> testOutcomes) {
+        for (TestOutcome testOutcome : testOutcomes) {
+            if (testOutcome.getMethodName().equals(methodName)) {
+                return testOutcome;
+            }
+        }
+        throw new AssertionError("No test outcome for " + methodName);
+    }
+
     @Test
     public void the_test_runner_distinguishes_between_ignored_skipped_and_pending_steps() throws InitializationError {
         ThucydidesRunner runner = new ThucydidesRunner(SingleTestScenario.class);
@@ -571,4 +602,65 @@ public class WhenRunningATestScenario extends AbstractTestStepRunnerTest {
         manager.closeDriver();
     }
 
+    @Test
+    public void the_tests_of_a_concurrent_test_class_should_be_run_in_parallel() throws InitializationError {
+
+        ThucydidesRunner runner = new ThucydidesRunner(SampleParallelScenario.class);
+        runner.run(new RunNotifier());
+
+        List<TestOutcome> executedScenarios = runner.getTestOutcomes();
+        assertThat(executedScenarios.size(), is(3));
+        assertThat(executedScenarios.get(0).getMethodName(), is("happy_day_scenario"));
+        assertThat(executedScenarios.get(0).getTestSteps().size(), is(4));
+        assertThat(executedScenarios.get(1).getMethodName(), is("edge_case_1"));
+        assertThat(executedScenarios.get(1).getTestSteps().size(), is(3));
+        assertThat(executedScenarios.get(2).getMethodName(), is("edge_case_2"));
+        assertThat(executedScenarios.get(2).getTestSteps().size(), is(2));
+    }
+
+    @Test
+    public void each_thread_of_a_concurrent_test_class_should_have_its_own_browser() throws InitializationError {
+
+        SampleParallelScenario.DRIVER_THREADS.clear();
+
+        ThucydidesRunner runner = new ThucydidesRunner(SampleParallelScenario.class);
+        runner.run(new RunNotifier());
+
+        Set<String> threads = new HashSet<String>(SampleParallelScenario.DRIVER_THREADS.values());
+        assertThat(threads.size(), is(3));
+        assertThat(SampleParallelScenario.DRIVER_THREADS.size(), is(3));
+    }
+
+    class InitCountingThucydidesRunner extends ThucydidesRunner {
+
+        final AtomicInteger webdriverManagersCreated = new AtomicInteger();
+        final AtomicInteger listenersCreated = new AtomicInteger();
+
+        public InitCountingThucydidesRunner(final Class<?> klass) throws InitializationError {
+            super(klass);
+        }
+
+        @Override
+        protected WebDriver initWebdriverManager() {
+            webdriverManagersCreated.incrementAndGet();
+            return super.initWebdriverManager();
+        }
+
+        @Override
+        protected JUnitStepListener initListenersUsing(final Pages pagesObject) {
+            listenersCreated.incrementAndGet();
+            return super.initListenersUsing(pagesObject);
+        }
+    }
+
+    @Test
+    public void each_thread_of_a_concurrent_test_class_should_be_set_up_using_the_runner_init_methods() throws InitializationError {
+
+        InitCountingThucydidesRunner runner = new InitCountingThucydidesRunner(SampleParallelScenario.class);
+        runner.run(new RunNotifier());
+
+        assertThat(runner.webdriverManagersCreated.get(), is(3));
+        assertThat(runner.listenersCreated.get(), is(3));
+        assertThat(runner.getTestOutcomes().size(), is(3));
+    }
 }
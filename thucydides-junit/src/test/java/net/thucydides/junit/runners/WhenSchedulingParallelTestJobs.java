@@ -52,4 +52,26 @@ public class WhenSchedulingParallelTestJobs {
         assertThat(scheduler.getTaskQueue().size(), is(0));
     }
 
+    @Test
+    public void the_scheduler_should_measure_how_busy_the_threads_were() {
+        ParameterizedRunnerScheduler scheduler
+                = new ParameterizedRunnerScheduler(SampleParallelDataDrivenScenario.class, 1);
+
+        Runnable slowTestJob = new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        scheduler.schedule(slowTestJob);
+        scheduler.schedule(slowTestJob);
+        scheduler.finished();
+
+        assertThat(scheduler.getUtilisation(), is(greaterThan(0.5)));
+        assertThat(scheduler.getUtilisation(), is(lessThanOrEqualTo(1.0)));
+    }
+
 }
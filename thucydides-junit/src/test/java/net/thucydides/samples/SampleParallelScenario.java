@@ -0,0 +1,63 @@
+package net.thucydides.samples;
+
+import net.thucydides.core.annotations.ManagedPages;
+import net.thucydides.core.annotations.Steps;
+import net.thucydides.core.pages.Pages;
+import net.thucydides.junit.annotations.Concurrent;
+import net.thucydides.junit.annotations.Managed;
+import net.thucydides.junit.runners.ThucydidesRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+@RunWith(ThucydidesRunner.class)
+@Concurrent(threads = "3")
+public class SampleParallelScenario {
+
+    /**
+     * The browser used by each thread, so tests can check that threads don't share browsers.
+     */
+    public static final Map<WebDriver, String> DRIVER_THREADS
+            = Collections.synchronizedMap(new IdentityHashMap<WebDriver, String>());
+
+    @Managed
+    public WebDriver webdriver;
+
+    @ManagedPages(defaultUrl = "http://www.google.com")
+    public Pages pages;
+
+    @Steps
+    public SampleScenarioSteps steps;
+
+    private void recordDriverThread() {
+        DRIVER_THREADS.put(webdriver, Thread.currentThread().getName());
+    }
+
+    @Test
+    public void happy_day_scenario() throws Throwable {
+        recordDriverThread();
+        steps.stepThatSucceeds();
+        steps.stepThatIsIgnored();
+        steps.stepThatIsPending();
+        steps.anotherStepThatSucceeds();
+    }
+
+    @Test
+    public void edge_case_1() {
+        recordDriverThread();
+        steps.stepThatSucceeds();
+        steps.anotherStepThatSucceeds();
+        steps.stepThatIsPending();
+    }
+
+    @Test
+    public void edge_case_2() {
+        recordDriverThread();
+        steps.stepThatSucceeds();
+        steps.anotherStepThatSucceeds();
+    }
+}
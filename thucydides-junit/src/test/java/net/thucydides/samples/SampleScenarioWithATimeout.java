@@ -0,0 +1,35 @@
+package net.thucydides.samples;
+
+import net.thucydides.core.annotations.ManagedPages;
+import net.thucydides.core.annotations.Steps;
+import net.thucydides.core.pages.Pages;
+import net.thucydides.junit.annotations.Managed;
+import net.thucydides.junit.runners.ThucydidesRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openqa.selenium.WebDriver;
+
+@RunWith(ThucydidesRunner.class)
+public class SampleScenarioWithATimeout {
+
+    @Managed
+    public WebDriver webdriver;
+
+    @ManagedPages(defaultUrl = "http://www.google.com")
+    public Pages pages;
+
+    @Steps
+    public SampleScenarioSteps steps;
+
+    @Test(timeout = 10000)
+    public void happy_day_scenario() {
+        steps.stepThatSucceeds();
+        steps.anotherStepThatSucceeds();
+    }
+
+    @Test(timeout = 10000)
+    public void failing_scenario() {
+        steps.stepThatSucceeds();
+        steps.stepThatFails();
+    }
+}